@@ -1,5 +1,10 @@
 package gestaoeventos.client;
 
+import gestaoeventos.client.service.ApiClient;
+import gestaoeventos.client.service.SincronizadorCheckin;
+import gestaoeventos.client.service.SubscricaoAlteracoes;
+import gestaoeventos.client.service.TransporteHttp;
+import gestaoeventos.client.util.ExecutorTarefas;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -11,6 +16,9 @@ public class App extends Application {
 
     @Override
     public void start(Stage primaryStage) throws Exception {
+        // Liga ao servidor enquanto o utilizador preenche o login
+        ApiClient.aquecer();
+
         // Carrega o Login inicialmente
         Parent root = FXMLLoader.load(getClass().getResource("/view/auth/Login.fxml"));
 
@@ -25,6 +33,15 @@ public class App extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        // Garante que as leituras de check-in pendentes ficam em disco
+        SincronizadorCheckin.encerrar();
+        SubscricaoAlteracoes.encerrar();
+        ExecutorTarefas.encerrar();
+        TransporteHttp.encerrar();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -1,11 +1,13 @@
 package gestaoeventos.client.controller;
 
 import gestaoeventos.client.service.*;
+import gestaoeventos.client.util.ExecutorTarefas;
 import gestaoeventos.client.util.ToastNotification;
 import gestaoeventos.dto.*;
 import gestaoeventos.entity.PerfilUtilizador;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.transformation.SortedList;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -13,10 +15,14 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Window;
 
+import java.io.File;
 import java.net.URL;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
@@ -24,11 +30,15 @@ import java.util.ResourceBundle;
 public class AdminController implements Initializable {
 
     private final UtilizadorClientService utilizadorService = new UtilizadorClientService();
-    private final EventoService eventoService = new EventoService();
     private final LocalClientService localService = new LocalClientService();
     private final InscricaoService inscricaoService = new InscricaoService();
     private final LogAuditoriaClientService logService = new LogAuditoriaClientService();
+
+    /** Número máximo de logs carregados na tabela */
+    private static final int MAXIMO_LOGS_TABELA = 1000;
     private final CertificadoClientService certificadoService = new CertificadoClientService();
+    private final CatalogoEventos catalogo = CatalogoEventos.getInstance();
+    private final ExecutorTarefas tarefas = ExecutorTarefas.getInstance();
 
     @FXML
     private TableView<UtilizadorDTO> tblUtilizadores;
@@ -151,6 +161,7 @@ public class AdminController implements Initializable {
         setupLogsTable();
         setupCertificadosTable();
         carregarUtilizadores();
+        ligarEventos();
     }
 
     private void setupUtilizadoresTable() {
@@ -343,14 +354,22 @@ public class AdminController implements Initializable {
                 c.getValue().getLocalId() != null ? "Local #" + c.getValue().getLocalId() : ""));
     }
 
+    /**
+     * Liga a tabela de eventos ao catálogo partilhado, que a mantém
+     * atualizada.
+     */
+    private void ligarEventos() {
+        SortedList<EventoDTO> ordenados = new SortedList<>(catalogo.getTodos());
+        ordenados.comparatorProperty().bind(tblEventos.comparatorProperty());
+        tblEventos.setItems(ordenados);
+        tarefas.carregar(this, "Admin.eventos", catalogo.garantirAtualizado(), v -> {
+        }, erro -> mostrarErro("Erro ao carregar eventos: " + erro.getMessage()));
+    }
+
     @FXML
     public void carregarEventos() {
-        try {
-            List<EventoDTO> eventos = eventoService.listarTodos();
-            tblEventos.setItems(FXCollections.observableArrayList(eventos));
-        } catch (Exception e) {
-            mostrarErro("Erro ao carregar eventos: " + e.getMessage());
-        }
+        tarefas.carregar(this, "Admin.eventos", catalogo.atualizar(), v -> {
+        }, erro -> mostrarErro("Erro ao carregar eventos: " + erro.getMessage()));
     }
 
     @FXML
@@ -545,8 +564,7 @@ public class AdminController implements Initializable {
         // Configurar combo de eventos para certificados
         if (cmbEventosCertAdmin != null) {
             try {
-                List<EventoDTO> eventos = eventoService.listarTodos();
-                cmbEventosCertAdmin.setItems(FXCollections.observableArrayList(eventos));
+                cmbEventosCertAdmin.setItems(catalogo.getTodos());
                 cmbEventosCertAdmin.setConverter(new javafx.util.StringConverter<>() {
                     @Override
                     public String toString(EventoDTO e) {
@@ -632,17 +650,66 @@ public class AdminController implements Initializable {
         }
     }
 
+    /**
+     * Mostra apenas os logs mais recentes; o histórico completo obtém-se
+     * com a exportação para ficheiro.
+     */
     @FXML
     public void carregarLogs() {
         try {
-            List<LogAuditoriaDTO> logs = logService.listarTodos();
+            List<LogAuditoriaDTO> logs = new ArrayList<>();
+            PaginaIterator<LogAuditoriaDTO> paginas = logService.paginas();
+            while (paginas.hasNext() && logs.size() < MAXIMO_LOGS_TABELA) {
+                logs.addAll(paginas.next());
+            }
             tblLogs.setItems(FXCollections.observableArrayList(logs));
-            mostrarSucesso("Logs carregados: " + logs.size() + " registos.");
+            if (paginas.hasNext()) {
+                mostrarSucesso("Mostrados os " + logs.size() + " logs mais recentes. Use Exportar para o histórico completo.");
+            } else {
+                mostrarSucesso("Logs carregados: " + logs.size() + " registos.");
+            }
         } catch (Exception e) {
             mostrarErro("Erro ao carregar logs: " + e.getMessage());
         }
     }
 
+    /**
+     * Exporta os logs do intervalo das datas escolhidas (ou todos) para um
+     * ficheiro NDJSON ou CSV, gravado diretamente no disco.
+     */
+    @FXML
+    public void exportarLogs() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Exportar logs de auditoria");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV", "*.csv"),
+                new FileChooser.ExtensionFilter("NDJSON", "*.ndjson"));
+        chooser.setInitialFileName("auditoria.csv");
+        File ficheiro = chooser.showSaveDialog(getWindow());
+        if (ficheiro == null)
+            return;
+
+        String formato = ficheiro.getName().toLowerCase().endsWith(".ndjson") ? "ndjson" : "csv";
+        LocalDateTime de = dpDataInicio.getValue() != null ? dpDataInicio.getValue().atStartOfDay() : null;
+        LocalDateTime ate = dpDataFim.getValue() != null ? dpDataFim.getValue().plusDays(1).atStartOfDay() : null;
+
+        Task<Boolean> task = new Task<>() {
+            @Override
+            protected Boolean call() {
+                return logService.exportar(formato, de, ate, ficheiro.toPath());
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (task.getValue()) {
+                mostrarSucesso("Logs exportados para " + ficheiro.getName());
+            } else {
+                mostrarErro("Erro ao exportar logs.");
+            }
+        });
+        task.setOnFailed(e -> mostrarErro("Erro ao exportar logs: " + task.getException().getMessage()));
+        tarefas.executar("Admin.exportarLogs", task);
+    }
+
     @FXML
     public void filtrarLogs() {
         carregarLogs();
@@ -691,7 +758,7 @@ public class AdminController implements Initializable {
             btnValidarCheckin.setDisable(false);
         });
 
-        new Thread(task).start();
+        tarefas.executar("Admin.checkin", task);
     }
 
     private Window getWindow() {
@@ -1,13 +1,14 @@
 package gestaoeventos.client.controller;
 
 import gestaoeventos.client.model.UserSession;
-import gestaoeventos.client.service.EventoService;
+import gestaoeventos.client.service.CatalogoEventos;
 import gestaoeventos.client.service.InscricaoService;
+import gestaoeventos.client.util.ExecutorTarefas;
 import gestaoeventos.client.util.PageNavigator;
 import gestaoeventos.dto.EventoDTO;
 import gestaoeventos.dto.InscricaoDTO;
-import javafx.application.Platform;
-import javafx.concurrent.Task;
+import javafx.collections.ListChangeListener;
+import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -45,11 +46,13 @@ public class CalendarioController implements Initializable {
     private Button btnAcaoEvento;
 
     private YearMonth currentYearMonth;
-    private final EventoService eventoService = new EventoService();
+    private final CatalogoEventos catalogo = CatalogoEventos.getInstance();
     private final InscricaoService inscricaoService = new InscricaoService();
+    private final ExecutorTarefas tarefas = ExecutorTarefas.getInstance();
 
-    // Cache de dados
-    private List<EventoDTO> todosEventos = new ArrayList<>();
+    private LocalDate inicioVisivel;
+    private FilteredList<EventoDTO> eventosVisiveis;
+    private final ListChangeListener<EventoDTO> redesenhar = c -> desenharCalendario();
     private Set<Integer> meusEventosIds = new HashSet<>();
 
     @Override
@@ -89,29 +92,16 @@ public class CalendarioController implements Initializable {
     }
 
     private void carregarDadosEAtualizar() {
-        Task<Void> task = new Task<>() {
-            @Override
-            protected Void call() throws Exception {
-                // 1. Buscar todos os eventos
-                todosEventos = eventoService.listarTodos();
-
-                // 2. Buscar minhas inscrições para destacar no calendário
-                Integer userId = UserSession.getInstance().getUser().getNumero();
-                List<InscricaoDTO> inscricoes = inscricaoService.listarPorUtilizador(userId);
-
-                meusEventosIds = inscricoes.stream()
+        // Minhas inscrições para destacar no calendário; os eventos vêm do catálogo
+        Integer userId = UserSession.getInstance().getUser().getNumero();
+        tarefas.carregar(this, "Calendario.carregar", catalogo.garantirAtualizado()
+                .thenCombine(inscricaoService.listarPorUtilizadorAsync(userId), (v, inscricoes) -> inscricoes.stream()
                         .filter(i -> "ATIVA".equals(i.getEstado().toString()))
                         .map(InscricaoDTO::getEventoId)
-                        .collect(Collectors.toSet());
-
-                Platform.runLater(() -> desenharCalendario());
-                return null;
-            }
-        };
-
-        task.setOnFailed(e -> System.err.println("Erro ao carregar calendário: " + task.getException().getMessage()));
-
-        new Thread(task).start();
+                        .collect(Collectors.toSet())), ids -> {
+                    meusEventosIds = ids;
+                    desenharCalendario();
+                }, erro -> System.err.println("Erro ao carregar calendário: " + erro.getMessage()));
     }
 
     private void desenharCalendario() {
@@ -123,6 +113,17 @@ public class CalendarioController implements Initializable {
         int dayOfWeek = calendarDate.getDayOfWeek().getValue();
         int startOffset = dayOfWeek - 1; // Ajuste para começar na Segunda-feira
 
+        // Eventos das 6 semanas visíveis, redesenhadas quando o catálogo muda
+        LocalDate primeiroDia = calendarDate.minusDays(startOffset);
+        if (!primeiroDia.equals(inicioVisivel)) {
+            if (eventosVisiveis != null) {
+                eventosVisiveis.removeListener(redesenhar);
+            }
+            inicioVisivel = primeiroDia;
+            eventosVisiveis = catalogo.porPeriodo(primeiroDia, primeiroDia.plusDays(41));
+            eventosVisiveis.addListener(redesenhar);
+        }
+
         for (int i = 0; i < 42; i++) {
             LocalDate date = calendarDate.minusDays(startOffset).plusDays(i);
             boolean isCurrentMonth = date.getMonth() == currentYearMonth.getMonth();
@@ -175,7 +176,7 @@ public class CalendarioController implements Initializable {
     }
 
     private List<EventoDTO> getEventosDoDia(LocalDate date) {
-        return todosEventos.stream()
+        return eventosVisiveis.stream()
                 .filter(e -> e.getDataInicio() != null && e.getDataInicio().toLocalDate().equals(date))
                 .collect(Collectors.toList());
     }
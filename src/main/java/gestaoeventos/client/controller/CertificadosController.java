@@ -56,7 +56,7 @@ public class CertificadosController extends ApiClient implements Initializable {
         try {
             HttpRequest request = getBuilder("/certificados/utilizador/" + utilizadorNumero).build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            return mapper.readValue(response.body(), new TypeReference<List<CertificadoDTO>>() {
+            return ler(response.body(), new TypeReference<List<CertificadoDTO>>() {
             });
         } catch (Exception e) {
             e.printStackTrace();
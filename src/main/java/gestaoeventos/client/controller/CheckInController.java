@@ -1,55 +1,121 @@
 package gestaoeventos.client.controller;
 
-import gestaoeventos.client.service.InscricaoService;
-import gestaoeventos.dto.InscricaoDTO;
-import javafx.concurrent.Task;
+import gestaoeventos.client.model.LeituraPosto;
+import gestaoeventos.client.service.DiarioCheckin;
+import gestaoeventos.client.service.SincronizadorCheckin;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
 import javafx.fxml.FXML;
-import javafx.scene.control.Button;
+import javafx.fxml.Initializable;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 
-public class CheckInController {
+import java.io.IOException;
+import java.net.URL;
+import java.util.ResourceBundle;
+
+/**
+ * Posto de check-in. As leituras são validadas e guardadas localmente e
+ * enviadas ao servidor em segundo plano pelo SincronizadorCheckin, pelo que
+ * a fila à porta não pára quando a API está lenta ou indisponível.
+ *
+ * No modo contínuo o campo do token nunca perde o foco, para que o leitor
+ * de QR (que funciona como teclado e termina com Enter) possa ler bilhetes
+ * seguidos sem intervenção do operador.
+ */
+public class CheckInController implements Initializable {
 
     @FXML private TextField txtToken;
     @FXML private Label lblResultado;
-    @FXML private Button btnValidar;
+    @FXML private CheckBox chkContinuo;
+    @FXML private Label lblPendentes;
+    @FXML private Label lblConfirmados;
+    @FXML private Label lblRejeitados;
+    @FXML private Label lblRitmo;
+    @FXML private Label lblLigacao;
+    @FXML private ListView<LeituraPosto> lstRegisto;
+
+    private final SincronizadorCheckin sincronizador = SincronizadorCheckin.getInstance();
 
-    private final InscricaoService inscricaoService = new InscricaoService();
+    @Override
+    public void initialize(URL url, ResourceBundle rb) {
+        lblPendentes.textProperty().bind(Bindings.format("Pendentes: %d", sincronizador.pendentesProperty()));
+        lblConfirmados.textProperty().bind(Bindings.format("Confirmados: %d", sincronizador.confirmadosProperty()));
+        lblRejeitados.textProperty().bind(Bindings.format("Rejeitados: %d", sincronizador.rejeitadosProperty()));
+        lblRitmo.textProperty().bind(Bindings.format("%d leituras/min", sincronizador.leiturasPorMinutoProperty()));
+        lblLigacao.textProperty().bind(Bindings.when(sincronizador.onlineProperty())
+                .then("Servidor ligado")
+                .otherwise("Sem ligação ao servidor - as leituras ficam guardadas localmente"));
+
+        lstRegisto.setItems(sincronizador.getRegisto());
+        lstRegisto.setFocusTraversable(false);
+        lstRegisto.setCellFactory(lv -> new ListCell<>() {
+            @Override
+            protected void updateItem(LeituraPosto item, boolean empty) {
+                super.updateItem(item, empty);
+                getStyleClass().removeAll("msg-success", "msg-error");
+                if (empty || item == null) {
+                    setText(null);
+                    return;
+                }
+                setText(item.getHora() + "   " + item.getEstado() + "   " + item.getToken());
+                getStyleClass().add(item.isSucesso() ? "msg-success" : "msg-error");
+            }
+        });
+
+        txtToken.focusedProperty().addListener((obs, antes, agora) -> {
+            if (!agora && chkContinuo.isSelected()) {
+                Platform.runLater(txtToken::requestFocus);
+            }
+        });
+        chkContinuo.selectedProperty().addListener((obs, antes, agora) -> {
+            if (agora) {
+                Platform.runLater(txtToken::requestFocus);
+            }
+        });
+        Platform.runLater(txtToken::requestFocus);
+    }
 
     @FXML
     void handleCheckIn() {
         String token = txtToken.getText().trim();
+        txtToken.clear();
+        txtToken.requestFocus();
         if (token.isEmpty()) {
             lblResultado.setText("Por favor introduza o código.");
             lblResultado.getStyleClass().setAll("msg-error");
             return;
         }
 
-        btnValidar.setDisable(true);
-        lblResultado.setText("A validar...");
-        lblResultado.getStyleClass().clear();
-
-        Task<InscricaoDTO> task = new Task<>() {
-            @Override
-            protected InscricaoDTO call() throws Exception {
-                return inscricaoService.checkinPorQrCode(token);
-            }
-        };
-
-        task.setOnSucceeded(e -> {
-            InscricaoDTO dto = task.getValue();
-            lblResultado.setText("✅ Sucesso! Check-in confirmado.\nInscrição #" + dto.getId());
-            lblResultado.getStyleClass().setAll("msg-success");
-            btnValidar.setDisable(false);
-            txtToken.clear();
-        });
-
-        task.setOnFailed(e -> {
-            lblResultado.setText("❌ Erro: " + task.getException().getMessage());
+        DiarioCheckin.ResultadoLocal resultado;
+        try {
+            resultado = sincronizador.registar(token);
+        } catch (IOException e) {
+            lblResultado.setText("❌ Erro ao guardar a leitura: " + e.getMessage());
             lblResultado.getStyleClass().setAll("msg-error");
-            btnValidar.setDisable(false);
-        });
+            return;
+        }
 
-        new Thread(task).start();
+        switch (resultado) {
+            case ACEITE -> {
+                lblResultado.setText("✅ Entrada registada.");
+                lblResultado.getStyleClass().setAll("msg-success");
+            }
+            case DUPLICADO -> {
+                lblResultado.setText("⚠ Este código já foi lido neste posto.");
+                lblResultado.getStyleClass().setAll("msg-error");
+            }
+            case EXPIRADO -> {
+                lblResultado.setText("❌ QR code expirado.");
+                lblResultado.getStyleClass().setAll("msg-error");
+            }
+            case INVALIDO -> {
+                lblResultado.setText("❌ Código inválido.");
+                lblResultado.getStyleClass().setAll("msg-error");
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,7 @@ package gestaoeventos.client.controller;
 import gestaoeventos.client.model.UserSession;
 import gestaoeventos.client.service.EventoService;
 import gestaoeventos.client.service.InscricaoService;
+import gestaoeventos.client.util.ExecutorTarefas;
 import gestaoeventos.dto.EventoDTO;
 import gestaoeventos.dto.InscricaoDTO;
 import javafx.concurrent.Task;
@@ -24,6 +25,7 @@ public class DetalhesEventoController {
     private EventoDTO evento;
     private final EventoService eventoService = new EventoService();
     private final InscricaoService inscricaoService = new InscricaoService();
+    private final ExecutorTarefas tarefas = ExecutorTarefas.getInstance();
     private Runnable onUpdateCallback;
 
     public void setEvento(EventoDTO evento, Runnable onUpdateCallback) {
@@ -92,7 +94,7 @@ public class DetalhesEventoController {
                 }
             }
         });
-        new Thread(task).start();
+        tarefas.carregar(this, "DetalhesEvento.inscricao", task);
     }
 
     @FXML
@@ -113,7 +115,9 @@ public class DetalhesEventoController {
                 // Mostrar diálogo com o QR code
                 mostrarQrCode(resultado);
             } else if (resultado.isListaEspera()) {
-                lblFeedback.setText("⚠️ Evento lotado. Adicionado à lista de espera.");
+                lblFeedback.setText(resultado.getPosicaoListaEspera() != null
+                        ? "⚠️ Evento lotado. Adicionado à lista de espera (posição " + resultado.getPosicaoListaEspera() + ")."
+                        : "⚠️ Evento lotado. Adicionado à lista de espera.");
                 lblFeedback.setStyle("-fx-text-fill: #f59e0b;");
             } else {
                 lblFeedback.setText("❌ " + resultado.getResultado());
@@ -129,7 +133,7 @@ public class DetalhesEventoController {
             lblFeedback.setStyle("-fx-text-fill: #ef4444;");
             btnInscrever.setDisable(false);
         });
-        new Thread(task).start();
+        tarefas.executar("DetalhesEvento.inscrever", task);
     }
 
     private void mostrarQrCode(gestaoeventos.client.model.InscricaoResultado resultado) {
@@ -141,11 +145,12 @@ public class DetalhesEventoController {
         javafx.scene.layout.VBox content = new javafx.scene.layout.VBox(10);
         content.setAlignment(javafx.geometry.Pos.CENTER);
 
-        // Carregar imagem do QR code
-        if (resultado.getQrCodeUrl() != null) {
-            javafx.scene.image.ImageView qrImage = new javafx.scene.image.ImageView(
-                    new javafx.scene.image.Image(resultado.getQrCodeUrl(), 200, 200, true, true));
-            content.getChildren().add(qrImage);
+        // QR code desenhado localmente a partir do token
+        if (resultado.getQrCodeToken() != null) {
+            javafx.scene.image.Image qr = gestaoeventos.client.util.QrCodeImagem.gerar(resultado.getQrCodeToken(), 200);
+            if (qr != null) {
+                content.getChildren().add(new javafx.scene.image.ImageView(qr));
+            }
         }
 
         javafx.scene.control.Label tokenLabel = new javafx.scene.control.Label("Token: " + resultado.getQrCodeToken());
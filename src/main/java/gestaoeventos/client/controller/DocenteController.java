@@ -3,11 +3,14 @@ package gestaoeventos.client.controller;
 import gestaoeventos.client.model.UserSession;
 import gestaoeventos.client.service.*;
 import gestaoeventos.client.util.EventoDialogHelper;
+import gestaoeventos.client.util.EventoFormatoHelper;
+import gestaoeventos.client.util.ExecutorTarefas;
 import gestaoeventos.client.util.ToastNotification;
 import gestaoeventos.dto.*;
 import gestaoeventos.entity.TipoCertificado;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -18,7 +21,9 @@ import javafx.stage.Window;
 
 import java.net.URL;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
@@ -33,6 +38,8 @@ public class DocenteController implements Initializable {
     private final InscricaoService inscricaoService = new InscricaoService();
     private final CertificadoClientService certificadoService = new CertificadoClientService();
     private final LocalClientService localService = new LocalClientService();
+    private final CatalogoEventos catalogo = CatalogoEventos.getInstance();
+    private final ExecutorTarefas tarefas = ExecutorTarefas.getInstance();
 
     // Tabela de eventos
     @FXML
@@ -44,6 +51,8 @@ public class DocenteController implements Initializable {
     @FXML
     private TableColumn<EventoDTO, String> colEventoEstado;
     @FXML
+    private TableColumn<EventoDTO, String> colEventoOcupacao;
+    @FXML
     private TableColumn<EventoDTO, Void> colEventoAcoes;
 
     // Tabela de presenças
@@ -84,13 +93,15 @@ public class DocenteController implements Initializable {
 
     private static final DateTimeFormatter DTF = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
+    /** Estatísticas dos eventos da tabela, indexadas pelo id do evento */
+    private final Map<Integer, EstatisticasEventoDTO> ocupacaoEventos = new HashMap<>();
+
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         setupEventosTable();
         setupInscritosTable();
         setupCertificadosTable();
-        carregarEventos();
-        setupCombos();
+        ligarEventos();
     }
 
     private void setupEventosTable() {
@@ -99,6 +110,8 @@ public class DocenteController implements Initializable {
                 c.getValue().getDataInicio() != null ? c.getValue().getDataInicio().format(DTF) : ""));
         colEventoEstado.setCellValueFactory(c -> new SimpleStringProperty(
                 c.getValue().getEstado() != null ? c.getValue().getEstado().toString() : ""));
+        colEventoOcupacao.setCellValueFactory(c -> new SimpleStringProperty(
+                EventoFormatoHelper.formatarOcupacao(ocupacaoEventos.get(c.getValue().getId()))));
 
         colEventoAcoes.setCellFactory(col -> new TableCell<>() {
             private final Button btnEditar = new Button("✏️");
@@ -178,7 +191,6 @@ public class DocenteController implements Initializable {
 
     private void setupCombos() {
         try {
-            List<EventoDTO> eventos = eventoService.listarTodos();
             javafx.util.StringConverter<EventoDTO> converter = new javafx.util.StringConverter<>() {
                 @Override
                 public String toString(EventoDTO e) {
@@ -191,25 +203,52 @@ public class DocenteController implements Initializable {
                 }
             };
 
-            cmbEventosPresencas.setItems(FXCollections.observableArrayList(eventos));
+            cmbEventosPresencas.setItems(catalogo.getTodos());
             cmbEventosPresencas.setConverter(converter);
-            cmbEventosCertificados.setItems(FXCollections.observableArrayList(eventos));
+            cmbEventosCertificados.setItems(catalogo.getTodos());
             cmbEventosCertificados.setConverter(converter);
-            cmbEventosStats.setItems(FXCollections.observableArrayList(eventos));
+            cmbEventosStats.setItems(catalogo.getTodos());
             cmbEventosStats.setConverter(converter);
         } catch (Exception e) {
             mostrarErro("Erro ao carregar lista de eventos: " + e.getMessage());
         }
     }
 
+    /**
+     * Liga a tabela aos eventos do docente e os combos a todos os eventos do
+     * catálogo partilhado, que os mantém atualizados.
+     */
+    private void ligarEventos() {
+        if (!UserSession.getInstance().isLoggedIn())
+            return;
+        Integer numero = UserSession.getInstance().getUser().getNumero();
+        SortedList<EventoDTO> ordenados = new SortedList<>(catalogo.porOrganizador(numero));
+        ordenados.comparatorProperty().bind(tblEventos.comparatorProperty());
+        tblEventos.setItems(ordenados);
+        setupCombos();
+        carregarEstatisticas();
+        tarefas.carregar(this, "Docente.eventos", catalogo.garantirAtualizado(), v -> {
+        }, erro -> mostrarErro("Erro ao carregar eventos: " + erro.getMessage()));
+    }
+
     @FXML
     public void carregarEventos() {
         if (!UserSession.getInstance().isLoggedIn())
             return;
+        carregarEstatisticas();
+        tarefas.carregar(this, "Docente.eventos", catalogo.atualizar(), v -> {
+        }, erro -> mostrarErro("Erro ao carregar eventos: " + erro.getMessage()));
+    }
+
+    private void carregarEstatisticas() {
         try {
+            // Estatísticas de todos os eventos numa só chamada
             Integer numero = UserSession.getInstance().getUser().getNumero();
-            List<EventoDTO> eventos = eventoService.listarPorOrganizador(numero);
-            tblEventos.setItems(FXCollections.observableArrayList(eventos));
+            ocupacaoEventos.clear();
+            for (EstatisticasEventoDTO stats : eventoService.obterEstatisticasPorOrganizador(numero)) {
+                ocupacaoEventos.put(stats.getEventoId(), stats);
+            }
+            tblEventos.refresh();
         } catch (Exception e) {
             mostrarErro("Erro ao carregar eventos: " + e.getMessage());
         }
@@ -236,8 +275,8 @@ public class DocenteController implements Initializable {
                 EventoDTO eventoCriado = eventoService.criar(dto);
                 if (eventoCriado != null) {
                     mostrarSucesso("Evento '" + eventoCriado.getTitulo() + "' criado com sucesso!");
-                    carregarEventos();
-                    setupCombos();
+                    catalogo.guardar(eventoCriado);
+                    carregarEstatisticas();
                 } else {
                     mostrarErro("Falha ao criar o evento. Verifique os dados e tente novamente.");
                 }
@@ -262,8 +301,8 @@ public class DocenteController implements Initializable {
                 EventoDTO atualizado = eventoService.atualizar(evento.getId(), dto);
                 if (atualizado != null) {
                     mostrarSucesso("Evento '" + atualizado.getTitulo() + "' atualizado com sucesso!");
-                    carregarEventos();
-                    setupCombos();
+                    catalogo.guardar(atualizado);
+                    carregarEstatisticas();
                 } else {
                     mostrarErro("Falha ao atualizar o evento.");
                 }
@@ -300,8 +339,8 @@ public class DocenteController implements Initializable {
                 EventoDTO atualizado = eventoService.atualizar(evento.getId(), dto);
                 if (atualizado != null) {
                     mostrarSucesso("Estado alterado para " + novoEstado + " com sucesso!");
-                    carregarEventos();
-                    setupCombos();
+                    catalogo.guardar(atualizado);
+                    carregarEstatisticas();
                 } else {
                     mostrarErro("Falha ao alterar o estado do evento.");
                 }
@@ -320,8 +359,8 @@ public class DocenteController implements Initializable {
         confirm.showAndWait().filter(r -> r == ButtonType.OK).ifPresent(r -> {
             if (eventoService.apagar(evento.getId())) {
                 mostrarSucesso("Evento eliminado com sucesso!");
-                carregarEventos();
-                setupCombos();
+                catalogo.remover(evento.getId());
+                carregarEstatisticas();
             } else {
                 mostrarErro("Falha ao eliminar o evento.");
             }
@@ -1,20 +1,22 @@
 package gestaoeventos.client.controller;
 
 import gestaoeventos.client.model.UserSession;
+import gestaoeventos.client.service.CatalogoEventos;
 import gestaoeventos.client.service.EventoService;
+import gestaoeventos.client.util.ExecutorTarefas;
 import gestaoeventos.dto.EventoDTO;
-import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.transformation.SortedList;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 
 import java.net.URL;
+import java.time.Duration;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.ResourceBundle;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 public class EventosController implements Initializable {
 
@@ -28,12 +30,20 @@ public class EventosController implements Initializable {
     private Label lblStatus;
 
     private final EventoService eventoService = new EventoService();
+    private final CatalogoEventos catalogo = CatalogoEventos.getInstance();
+    private final ExecutorTarefas tarefas = ExecutorTarefas.getInstance();
+    private Runnable limparFeedback;
     private final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         setupTable();
-        carregarEventos();
+
+        // A tabela mostra a lista de publicados do catálogo, que se mantém atualizada
+        SortedList<EventoDTO> ordenados = new SortedList<>(catalogo.getPublicados());
+        ordenados.comparatorProperty().bind(tabelaEventos.comparatorProperty());
+        tabelaEventos.setItems(ordenados);
+        acompanhar(catalogo.garantirAtualizado());
 
         tabelaEventos.getSelectionModel().selectedItemProperty().addListener(
                 (obs, oldVal, newVal) -> {
@@ -59,21 +69,12 @@ public class EventosController implements Initializable {
 
     @FXML
     void carregarEventos() {
-        btnInscrever.setDisable(true);
-
-        Task<List<EventoDTO>> task = new Task<>() {
-            @Override
-            protected List<EventoDTO> call() throws Exception {
-                return eventoService.listarTodos().stream()
-                        .filter(e -> "PUBLICADO".equals(e.getEstado().toString()))
-                        .collect(Collectors.toList());
-            }
-        };
-
-        task.setOnSucceeded(e -> tabelaEventos.getItems().setAll(task.getValue()));
-        task.setOnFailed(e -> showFeedback("Erro ao carregar eventos.", true));
+        acompanhar(catalogo.atualizar());
+    }
 
-        new Thread(task).start();
+    private void acompanhar(CompletableFuture<Void> carregamento) {
+        tarefas.carregar(this, "Eventos.listar", carregamento, v -> {
+        }, erro -> showFeedback("Erro ao carregar eventos.", true));
     }
 
     @FXML
@@ -96,7 +97,9 @@ public class EventosController implements Initializable {
         task.setOnSucceeded(e -> {
             gestaoeventos.client.model.InscricaoResultado resultado = task.getValue();
             if (resultado.isListaEspera()) {
-                showFeedback("Evento cheio. Entrou na Lista de Espera.", false);
+                showFeedback(resultado.getPosicaoListaEspera() != null
+                        ? "Evento cheio. Entrou na Lista de Espera na posição " + resultado.getPosicaoListaEspera() + "."
+                        : "Evento cheio. Entrou na Lista de Espera.", false);
             } else if (resultado.isSucesso()) {
                 showFeedback("Inscrição realizada com sucesso!", false);
             } else {
@@ -110,7 +113,7 @@ public class EventosController implements Initializable {
             resetButton();
         });
 
-        new Thread(task).start();
+        tarefas.executar("Eventos.inscrever", task);
     }
 
     private void resetButton() {
@@ -121,12 +124,9 @@ public class EventosController implements Initializable {
     private void showFeedback(String msg, boolean isError) {
         lblStatus.setText(msg);
         lblStatus.setStyle(isError ? "-fx-text-fill: #ef4444;" : "-fx-text-fill: #22c55e;");
-        new Thread(() -> {
-            try {
-                Thread.sleep(3000);
-            } catch (Exception e) {
-            }
-            Platform.runLater(() -> lblStatus.setText(""));
-        }).start();
+        if (limparFeedback != null) {
+            limparFeedback.run();
+        }
+        limparFeedback = tarefas.depois(this, Duration.ofSeconds(3), () -> lblStatus.setText(""));
     }
 }
\ No newline at end of file
@@ -3,10 +3,13 @@ package gestaoeventos.client.controller;
 import gestaoeventos.client.model.UserSession;
 import gestaoeventos.client.service.*;
 import gestaoeventos.client.util.EventoDialogHelper;
+import gestaoeventos.client.util.EventoFormatoHelper;
+import gestaoeventos.client.util.ExecutorTarefas;
 import gestaoeventos.client.util.ToastNotification;
 import gestaoeventos.dto.*;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.transformation.SortedList;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -21,7 +24,9 @@ import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
@@ -35,6 +40,8 @@ public class GestorController implements Initializable {
     private final NotificacaoClientService notificacaoService = new NotificacaoClientService();
     private final InscricaoService inscricaoService = new InscricaoService();
     private final CertificadoClientService certificadoService = new CertificadoClientService();
+    private final CatalogoEventos catalogo = CatalogoEventos.getInstance();
+    private final ExecutorTarefas tarefas = ExecutorTarefas.getInstance();
 
     @FXML
     private TableView<LocalDTO> tblLocais;
@@ -78,6 +85,8 @@ public class GestorController implements Initializable {
     @FXML
     private TableColumn<EventoDTO, String> colEventoEstado;
     @FXML
+    private TableColumn<EventoDTO, String> colEventoOcupacao;
+    @FXML
     private TableColumn<EventoDTO, Void> colEventoAcoes;
 
     @FXML
@@ -118,6 +127,9 @@ public class GestorController implements Initializable {
 
     private static final DateTimeFormatter DTF = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
+    /** Estatísticas dos eventos da tabela, indexadas pelo id do evento */
+    private final Map<Integer, EstatisticasEventoDTO> ocupacaoEventos = new HashMap<>();
+
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         setupLocaisTable();
@@ -126,8 +138,7 @@ public class GestorController implements Initializable {
         setupCertificadosTable();
         setupSpinners();
         carregarLocais();
-        carregarEventos();
-        carregarComboEventos();
+        ligarEventos();
         carregarAnuncios();
     }
 
@@ -158,6 +169,8 @@ public class GestorController implements Initializable {
                 c.getValue().getDataInicio() != null ? c.getValue().getDataInicio().format(DTF) : ""));
         colEventoEstado.setCellValueFactory(c -> new SimpleStringProperty(
                 c.getValue().getEstado() != null ? c.getValue().getEstado().toString() : ""));
+        colEventoOcupacao.setCellValueFactory(c -> new SimpleStringProperty(
+                EventoFormatoHelper.formatarOcupacao(ocupacaoEventos.get(c.getValue().getId()))));
 
         if (colEventoAcoes != null) {
             colEventoAcoes.setCellFactory(col -> new TableCell<>() {
@@ -249,8 +262,7 @@ public class GestorController implements Initializable {
         // Configurar combo de eventos para certificados
         if (cmbEventosCert != null) {
             try {
-                List<EventoDTO> eventos = eventoService.listarTodos();
-                cmbEventosCert.setItems(FXCollections.observableArrayList(eventos));
+                cmbEventosCert.setItems(catalogo.getTodos());
                 cmbEventosCert.setConverter(new javafx.util.StringConverter<>() {
                     @Override
                     public String toString(EventoDTO e) {
@@ -558,14 +570,41 @@ public class GestorController implements Initializable {
         return dialog;
     }
 
+    /**
+     * Liga a tabela aos eventos do gestor e o combo a todos os eventos do
+     * catálogo partilhado, que os mantém atualizados.
+     */
+    private void ligarEventos() {
+        if (!UserSession.getInstance().isLoggedIn())
+            return;
+        Integer numero = UserSession.getInstance().getUser().getNumero();
+        SortedList<EventoDTO> ordenados = new SortedList<>(catalogo.porOrganizador(numero));
+        ordenados.comparatorProperty().bind(tblEventos.comparatorProperty());
+        tblEventos.setItems(ordenados);
+        carregarComboEventos();
+        carregarEstatisticas();
+        tarefas.carregar(this, "Gestor.eventos", catalogo.garantirAtualizado(), v -> {
+        }, erro -> mostrarErro("Erro ao carregar eventos: " + erro.getMessage()));
+    }
+
     @FXML
     public void carregarEventos() {
         if (!UserSession.getInstance().isLoggedIn())
             return;
+        carregarEstatisticas();
+        tarefas.carregar(this, "Gestor.eventos", catalogo.atualizar(), v -> {
+        }, erro -> mostrarErro("Erro ao carregar eventos: " + erro.getMessage()));
+    }
+
+    private void carregarEstatisticas() {
         try {
+            // Estatísticas de todos os eventos numa só chamada
             Integer numero = UserSession.getInstance().getUser().getNumero();
-            List<EventoDTO> eventos = eventoService.listarPorOrganizador(numero);
-            tblEventos.setItems(FXCollections.observableArrayList(eventos));
+            ocupacaoEventos.clear();
+            for (EstatisticasEventoDTO stats : eventoService.obterEstatisticasPorOrganizador(numero)) {
+                ocupacaoEventos.put(stats.getEventoId(), stats);
+            }
+            tblEventos.refresh();
         } catch (Exception e) {
             mostrarErro("Erro ao carregar eventos: " + e.getMessage());
         }
@@ -573,8 +612,7 @@ public class GestorController implements Initializable {
 
     private void carregarComboEventos() {
         try {
-            List<EventoDTO> eventos = eventoService.listarTodos();
-            cmbEventos.setItems(FXCollections.observableArrayList(eventos));
+            cmbEventos.setItems(catalogo.getTodos());
             cmbEventos.setConverter(new javafx.util.StringConverter<>() {
                 @Override
                 public String toString(EventoDTO e) {
@@ -612,8 +650,8 @@ public class GestorController implements Initializable {
                 EventoDTO eventoCriado = eventoService.criar(dto);
                 if (eventoCriado != null) {
                     mostrarSucesso("Evento '" + eventoCriado.getTitulo() + "' criado com sucesso!");
-                    carregarEventos();
-                    carregarComboEventos();
+                    catalogo.guardar(eventoCriado);
+                    carregarEstatisticas();
                 } else {
                     mostrarErro("Falha ao criar o evento. Verifique os dados e tente novamente.");
                 }
@@ -638,8 +676,8 @@ public class GestorController implements Initializable {
                 EventoDTO atualizado = eventoService.atualizar(evento.getId(), dto);
                 if (atualizado != null) {
                     mostrarSucesso("Evento '" + atualizado.getTitulo() + "' atualizado com sucesso!");
-                    carregarEventos();
-                    carregarComboEventos();
+                    catalogo.guardar(atualizado);
+                    carregarEstatisticas();
                 } else {
                     mostrarErro("Falha ao atualizar o evento.");
                 }
@@ -676,8 +714,8 @@ public class GestorController implements Initializable {
                 EventoDTO atualizado = eventoService.atualizar(evento.getId(), dto);
                 if (atualizado != null) {
                     mostrarSucesso("Estado alterado para " + novoEstado + " com sucesso!");
-                    carregarEventos();
-                    carregarComboEventos();
+                    catalogo.guardar(atualizado);
+                    carregarEstatisticas();
                 } else {
                     mostrarErro("Falha ao alterar o estado do evento.");
                 }
@@ -696,8 +734,8 @@ public class GestorController implements Initializable {
         confirm.showAndWait().filter(r -> r == ButtonType.OK).ifPresent(r -> {
             if (eventoService.apagar(evento.getId())) {
                 mostrarSucesso("Evento eliminado com sucesso!");
-                carregarEventos();
-                carregarComboEventos();
+                catalogo.remover(evento.getId());
+                carregarEstatisticas();
             } else {
                 mostrarErro("Falha ao eliminar o evento.");
             }
@@ -818,7 +856,7 @@ public class GestorController implements Initializable {
             btnValidarCheckin.setDisable(false);
         });
 
-        new Thread(task).start();
+        tarefas.executar("Gestor.checkin", task);
     }
 
     private Window getWindow() {
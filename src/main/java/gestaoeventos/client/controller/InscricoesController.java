@@ -2,6 +2,7 @@ package gestaoeventos.client.controller;
 
 import gestaoeventos.client.model.UserSession;
 import gestaoeventos.client.service.InscricaoService;
+import gestaoeventos.client.util.ExecutorTarefas;
 import gestaoeventos.dto.InscricaoDTO;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.concurrent.Task;
@@ -26,6 +27,7 @@ public class InscricoesController implements Initializable {
     private Label lblStatus;
 
     private final InscricaoService inscricaoService = new InscricaoService();
+    private final ExecutorTarefas tarefas = ExecutorTarefas.getInstance();
     private final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     @Override
@@ -86,7 +88,7 @@ public class InscricoesController implements Initializable {
 
         task.setOnSucceeded(e -> tabelaInscricoes.getItems().setAll(task.getValue()));
         task.setOnFailed(e -> showFeedback("Erro ao carregar dados.", true));
-        new Thread(task).start();
+        tarefas.carregar(this, "Inscricoes.listar", task);
     }
 
     @FXML
@@ -109,7 +111,7 @@ public class InscricoesController implements Initializable {
         });
 
         task.setOnFailed(e -> showFeedback("Erro ao cancelar: " + task.getException().getMessage(), true));
-        new Thread(task).start();
+        tarefas.executar("Inscricoes.cancelar", task);
     }
 
     private void showFeedback(String msg, boolean isError) {
@@ -2,8 +2,8 @@ package gestaoeventos.client.controller;
 
 import gestaoeventos.client.model.UserSession;
 import gestaoeventos.client.service.AuthService;
+import gestaoeventos.client.util.ExecutorTarefas;
 import gestaoeventos.dto.LoginResponseDTO;
-import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -18,6 +18,7 @@ import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.time.Duration;
 
 public class LoginController {
 
@@ -35,6 +36,7 @@ public class LoginController {
     private Button btnLogin;
 
     private final AuthService authService = new AuthService();
+    private final ExecutorTarefas tarefas = ExecutorTarefas.getInstance();
 
     @FXML
     public void initialize() {
@@ -123,7 +125,7 @@ public class LoginController {
             }
         });
 
-        new Thread(task).start();
+        tarefas.executar("Login.autenticar", task);
     }
 
     private void mostrarErro(String mensagem) {
@@ -138,13 +140,7 @@ public class LoginController {
             return;
         node.setStyle("-fx-border-color: #ef4444; -fx-border-width: 2px; -fx-border-radius: 6px;");
 
-        new Thread(() -> {
-            try {
-                Thread.sleep(2000);
-            } catch (InterruptedException e) {
-            }
-            Platform.runLater(() -> node.setStyle(""));
-        }).start();
+        tarefas.depois(this, Duration.ofSeconds(2), () -> node.setStyle(""));
     }
 
     private void goToDashboard() {
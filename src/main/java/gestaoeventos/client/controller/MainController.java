@@ -171,6 +171,7 @@ public class MainController implements Initializable {
     // --- Logout ---
     @FXML
     void logout() {
+        PageNavigator.fecharPaginaAtual();
         UserSession.getInstance().logout();
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/auth/Login.fxml"));
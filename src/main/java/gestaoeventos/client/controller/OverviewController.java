@@ -1,14 +1,14 @@
 package gestaoeventos.client.controller;
 
 import gestaoeventos.client.model.UserSession;
-import gestaoeventos.client.service.EventoService;
+import gestaoeventos.client.service.CatalogoEventos;
 import gestaoeventos.client.service.InscricaoService;
 import gestaoeventos.client.service.NotificacaoClientService;
+import gestaoeventos.client.util.ExecutorTarefas;
 import gestaoeventos.dto.EventoDTO;
-import gestaoeventos.dto.InscricaoDTO;
 import gestaoeventos.dto.NotificacaoDTO;
-import javafx.application.Platform;
-import javafx.concurrent.Task;
+import javafx.beans.binding.Bindings;
+import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 
@@ -18,7 +18,6 @@ import javafx.scene.layout.VBox;
 import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.ResourceBundle;
 
 public class OverviewController implements Initializable {
@@ -36,9 +35,10 @@ public class OverviewController implements Initializable {
     @FXML
     private Label lblCarregandoAnuncios;
 
-    private final EventoService eventoService = new EventoService();
+    private final CatalogoEventos catalogo = CatalogoEventos.getInstance();
     private final InscricaoService inscricaoService = new InscricaoService();
     private final NotificacaoClientService notificacaoService = new NotificacaoClientService();
+    private final ExecutorTarefas tarefas = ExecutorTarefas.getInstance();
 
     private static final DateTimeFormatter DTF = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
@@ -54,49 +54,31 @@ public class OverviewController implements Initializable {
         carregarAnuncios();
     }
 
+    /**
+     * Catálogo de eventos, inscrições e anúncios são pedidos em paralelo, sem
+     * uma thread à espera de cada resposta; cada parte do ecrã é preenchida
+     * quando os seus dados chegam. O total de eventos acompanha o catálogo.
+     */
     private void carregarMetricas() {
-        Task<Void> task = new Task<>() {
-            @Override
-            protected Void call() throws Exception {
-                List<EventoDTO> eventos = eventoService.listarTodos();
-                long proximos = eventos.stream()
-                        .filter(e -> "PUBLICADO".equals(e.getEstado().toString()))
-                        .filter(e -> e.getDataInicio() != null && e.getDataInicio().isAfter(LocalDateTime.now()))
-                        .count();
-
-                Integer userId = UserSession.getInstance().getUser().getNumero();
-                List<InscricaoDTO> inscricoes = inscricaoService.listarPorUtilizador(userId);
-                long ativas = inscricoes.stream()
+        Integer userId = UserSession.getInstance().getUser().getNumero();
+        tarefas.carregar(this, "Overview.metricas", catalogo.garantirAtualizado()
+                .thenCombine(inscricaoService.listarPorUtilizadorAsync(userId), (v, inscricoes) -> inscricoes.stream()
                         .filter(i -> "ATIVA".equals(i.getEstado().toString()))
-                        .count();
-
-                Platform.runLater(() -> {
-                    lblTotalEventos.setText(String.valueOf(proximos));
+                        .count()), ativas -> {
+                    LocalDateTime agora = LocalDateTime.now();
+                    FilteredList<EventoDTO> proximos = new FilteredList<>(catalogo.getPublicados(),
+                            e -> e.getDataInicio() != null && e.getDataInicio().isAfter(agora));
+                    lblTotalEventos.textProperty().bind(Bindings.size(proximos).asString());
                     lblInscricoes.setText(String.valueOf(ativas));
+                }, erro -> {
+                    System.err.println("Erro ao carregar métricas: " + erro.getMessage());
+                    lblTotalEventos.setText("-");
+                    lblInscricoes.setText("-");
                 });
-                return null;
-            }
-        };
-
-        task.setOnFailed(e -> {
-            System.err.println("Erro ao carregar métricas: " + task.getException().getMessage());
-            lblTotalEventos.setText("-");
-            lblInscricoes.setText("-");
-        });
-
-        new Thread(task).start();
     }
 
     private void carregarAnuncios() {
-        Task<List<NotificacaoDTO>> task = new Task<>() {
-            @Override
-            protected List<NotificacaoDTO> call() throws Exception {
-                return notificacaoService.listarAnunciosVisiveis();
-            }
-        };
-
-        task.setOnSucceeded(e -> {
-            List<NotificacaoDTO> anuncios = task.getValue();
+        tarefas.carregar(this, "Overview.anuncios", notificacaoService.listarAnunciosVisiveisAsync(), anuncios -> {
             containerAnuncios.getChildren().clear();
 
             if (anuncios.isEmpty()) {
@@ -110,15 +92,11 @@ public class OverviewController implements Initializable {
                 VBox cardAnuncio = criarCardAnuncio(anuncio);
                 containerAnuncios.getChildren().add(cardAnuncio);
             }
-        });
-
-        task.setOnFailed(e -> {
+        }, erro -> {
             if (lblCarregandoAnuncios != null) {
                 lblCarregandoAnuncios.setText("Erro ao carregar anúncios.");
             }
         });
-
-        new Thread(task).start();
     }
 
     private VBox criarCardAnuncio(NotificacaoDTO anuncio) {
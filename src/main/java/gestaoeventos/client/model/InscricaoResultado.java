@@ -2,7 +2,8 @@ package gestaoeventos.client.model;
 
 /**
  * Modelo para guardar o resultado de uma inscrição.
- * Contém o QR code necessário para fazer check-in no evento.
+ * Contém o QR code necessário para fazer check-in no evento ou, com o
+ * evento lotado, a posição atribuída na lista de espera.
  */
 public class InscricaoResultado {
 
@@ -10,6 +11,7 @@ public class InscricaoResultado {
     private Integer inscricaoId;
     private String qrCodeToken;
     private String qrCodeUrl;
+    private Integer posicaoListaEspera;
 
     public InscricaoResultado() {
     }
@@ -46,6 +48,14 @@ public class InscricaoResultado {
         this.qrCodeUrl = qrCodeUrl;
     }
 
+    public Integer getPosicaoListaEspera() {
+        return posicaoListaEspera;
+    }
+
+    public void setPosicaoListaEspera(Integer posicaoListaEspera) {
+        this.posicaoListaEspera = posicaoListaEspera;
+    }
+
     public boolean isSucesso() {
         return "INSCRICAO_OK".equals(resultado);
     }
@@ -0,0 +1,50 @@
+package gestaoeventos.client.model;
+
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
+import java.time.LocalTime;
+
+/**
+ * Linha do registo de leituras de um posto de check-in.
+ * O estado começa em "Pendente" e é atualizado quando o servidor responde.
+ */
+public class LeituraPosto {
+
+    private final String token;
+    private final LocalTime hora;
+    private final ReadOnlyStringWrapper estado;
+    private boolean sucesso;
+
+    public LeituraPosto(String token, LocalTime hora, String estado, boolean sucesso) {
+        this.token = token;
+        this.hora = hora;
+        this.estado = new ReadOnlyStringWrapper(estado);
+        this.sucesso = sucesso;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public LocalTime getHora() {
+        return hora;
+    }
+
+    public String getEstado() {
+        return estado.get();
+    }
+
+    public ReadOnlyStringProperty estadoProperty() {
+        return estado.getReadOnlyProperty();
+    }
+
+    public boolean isSucesso() {
+        return sucesso;
+    }
+
+    public void atualizar(String estado, boolean sucesso) {
+        this.sucesso = sucesso;
+        this.estado.set(estado);
+    }
+}
@@ -1,18 +1,40 @@
 package gestaoeventos.client.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import gestaoeventos.dto.EventoDTO;
+import gestaoeventos.dto.InscricaoDTO;
+import gestaoeventos.dto.LocalDTO;
+import gestaoeventos.dto.LoginResponseDTO;
+import gestaoeventos.dto.NotificacaoDTO;
+import gestaoeventos.dto.PaginaDTO;
+import gestaoeventos.dto.UtilizadorDTO;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Classe base para serviços cliente que comunicam com a API REST.
  * 
- * Fornece configuração comum do HttpClient, ObjectMapper e métodos
- * auxiliares para construir requisições HTTP.
+ * Fornece métodos auxiliares para construir requisições HTTP e converter
+ * JSON. O HttpClient e o ObjectMapper são os do TransporteHttp, partilhados
+ * por todos os serviços, pelo que criar um serviço não tem custo.
  * 
  * Todos os serviços cliente devem estender esta classe para herdar
  * a configuração base e os métodos utilitários.
@@ -23,20 +45,71 @@ public class ApiClient {
     /** URL base */
     protected static final String BASE_URL = "http://localhost:8080/api";
 
-    /** Cliente HTTP para enviar requisições */
+    /** Cliente HTTP para enviar requisições (partilhado) */
     protected final HttpClient client;
 
+    /** ObjectMapper partilhado; para converter usar ler e escrever, que reutilizam os leitores */
     protected final ObjectMapper mapper;
 
+    private final TransporteHttp transporte;
+
+    /** Número máximo de respostas GET guardadas para pedidos condicionais */
+    private static final int MAXIMO_RESPOSTAS_EM_CACHE = 256;
+
+    private record RespostaEmCache(String etag, Object valor) {
+    }
+
     /**
-     * Construtor que inicializa o HttpClient e ObjectMapper.
+     * Respostas GET já convertidas, por URI, com o ETag com que vieram.
+     * Partilhada por todos os serviços, que são criados por cada controller.
      */
+    private static final Map<URI, RespostaEmCache> respostasEmCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<URI, RespostaEmCache> maisAntiga) {
+                    return size() > MAXIMO_RESPOSTAS_EM_CACHE;
+                }
+            });
+
     public ApiClient() {
-        this.client = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(30))
-                .build();
-        this.mapper = new ObjectMapper();
-        this.mapper.registerModule(new JavaTimeModule()); // Para suporte a LocalDateTime
+        this.transporte = TransporteHttp.getInstance();
+        this.client = transporte.getClient();
+        this.mapper = transporte.getMapper();
+    }
+
+    /**
+     * Abre a ligação ao servidor e prepara a conversão dos DTOs mais usados
+     * em segundo plano. Chamado no arranque da aplicação.
+     */
+    public static void aquecer() {
+        TransporteHttp transporte = TransporteHttp.getInstance();
+        TypeFactory tipos = transporte.getMapper().getTypeFactory();
+        transporte.aquecer(BASE_URL + "/eventos?tamanho=1",
+                tipos.constructParametricType(PaginaDTO.class, EventoDTO.class),
+                tipos.constructType(EventoDTO.class),
+                tipos.constructCollectionType(List.class, InscricaoDTO.class),
+                tipos.constructCollectionType(List.class, LocalDTO.class),
+                tipos.constructCollectionType(List.class, NotificacaoDTO.class),
+                tipos.constructType(UtilizadorDTO.class),
+                tipos.constructType(LoginResponseDTO.class));
+    }
+
+    /**
+     * Converte JSON com o leitor em cache para o tipo.
+     */
+    protected <T> T ler(String json, Class<T> tipo) throws IOException {
+        return transporte.leitor(tipo).readValue(json);
+    }
+
+    protected <T> T ler(String json, TypeReference<T> tipo) throws IOException {
+        return transporte.leitor(mapper.getTypeFactory().constructType(tipo)).readValue(json);
+    }
+
+    /**
+     * Converte um objeto em JSON com o escritor em cache para a sua classe.
+     */
+    protected String escrever(Object valor) throws IOException {
+        return transporte.escritor(valor.getClass()).writeValueAsString(valor);
     }
 
     /**
@@ -86,6 +159,188 @@ public class ApiClient {
                 .DELETE();
     }
 
+    /**
+     * Faz um GET condicional: se já houver uma resposta guardada para o URI,
+     * envia o seu ETag em If-None-Match e, se o servidor responder 304,
+     * devolve o objeto já convertido sem voltar a ler o JSON.
+     *
+     * O objeto devolvido pode ser partilhado com pedidos anteriores e
+     * seguintes ao mesmo URI, por isso não deve ser alterado.
+     * Devolve null (e regista o erro) se a resposta não for 200 nem 304.
+     */
+    protected <T> T getComCache(String endpoint, TypeReference<T> tipo, String operacao)
+            throws IOException, InterruptedException {
+        return getComCache(endpoint, mapper.getTypeFactory().constructType(tipo), operacao);
+    }
+
+    protected <T> T getComCache(String endpoint, Class<T> tipo, String operacao)
+            throws IOException, InterruptedException {
+        return getComCache(endpoint, mapper.getTypeFactory().constructType(tipo), operacao);
+    }
+
+    private <T> T getComCache(String endpoint, JavaType tipo, String operacao)
+            throws IOException, InterruptedException {
+        URI uri = URI.create(BASE_URL + endpoint);
+        RespostaEmCache emCache = respostasEmCache.get(uri);
+        HttpResponse<InputStream> response = client.send(pedidoCondicional(endpoint, emCache),
+                HttpResponse.BodyHandlers.ofInputStream());
+        return lerResposta(response, uri, emCache, tipo, operacao);
+    }
+
+    /**
+     * Versão assíncrona de getComCache: o pedido é enviado com sendAsync e
+     * nenhuma thread fica parada à espera da resposta. O corpo é recebido
+     * inteiro em memória e só depois convertido: ler de um stream bloquearia
+     * uma thread do TransporteHttp, que é a mesma que entrega os bytes das
+     * respostas ao HttpClient.
+     *
+     * Completa com null se a resposta não for 200 nem 304, e com exceção se
+     * o pedido falhar.
+     */
+    protected <T> CompletableFuture<T> getComCacheAsync(String endpoint, TypeReference<T> tipo, String operacao) {
+        return getComCacheAsync(endpoint, mapper.getTypeFactory().constructType(tipo), operacao);
+    }
+
+    protected <T> CompletableFuture<T> getComCacheAsync(String endpoint, Class<T> tipo, String operacao) {
+        return getComCacheAsync(endpoint, mapper.getTypeFactory().constructType(tipo), operacao);
+    }
+
+    private <T> CompletableFuture<T> getComCacheAsync(String endpoint, JavaType tipo, String operacao) {
+        URI uri = URI.create(BASE_URL + endpoint);
+        RespostaEmCache emCache = respostasEmCache.get(uri);
+        return client.sendAsync(pedidoCondicional(endpoint, emCache), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    try {
+                        return lerRespostaCompleta(response, uri, emCache, tipo, operacao);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Em caso de falha do pedido regista o erro e completa com a alternativa,
+     * tal como os métodos síncronos, que devolvem uma lista vazia ou null.
+     */
+    protected <T> CompletableFuture<T> ouSeFalhar(CompletableFuture<T> pedido, T alternativa, String operacao) {
+        return pedido.handle((valor, erro) -> {
+            if (erro != null) {
+                System.err.println("[API ERROR] " + operacao + " - " + erro.getMessage());
+            }
+            return valor != null ? valor : alternativa;
+        });
+    }
+
+    private HttpRequest pedidoCondicional(String endpoint, RespostaEmCache emCache) {
+        HttpRequest.Builder builder = getBuilder(endpoint);
+        if (emCache != null) {
+            builder.header("If-None-Match", emCache.etag());
+        }
+        return builder.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T lerResposta(HttpResponse<InputStream> response, URI uri, RespostaEmCache emCache,
+            JavaType tipo, String operacao) throws IOException {
+        try (InputStream corpo = response.body()) {
+            if (response.statusCode() == 304 && emCache != null) {
+                return (T) emCache.valor();
+            }
+            if (response.statusCode() == 200) {
+                return guardarEmCache(response, uri, transporte.leitor(tipo).readValue(corpo));
+            }
+            logError(operacao, response.statusCode(), new String(corpo.readAllBytes(), StandardCharsets.UTF_8));
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T lerRespostaCompleta(HttpResponse<byte[]> response, URI uri, RespostaEmCache emCache,
+            JavaType tipo, String operacao) throws IOException {
+        if (response.statusCode() == 304 && emCache != null) {
+            return (T) emCache.valor();
+        }
+        if (response.statusCode() == 200) {
+            return guardarEmCache(response, uri, transporte.leitor(tipo).readValue(response.body()));
+        }
+        logError(operacao, response.statusCode(), new String(response.body(), StandardCharsets.UTF_8));
+        return null;
+    }
+
+    private <T> T guardarEmCache(HttpResponse<?> response, URI uri, T valor) {
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        if (etag != null) {
+            respostasEmCache.put(uri, new RespostaEmCache(etag, valor));
+        } else {
+            respostasEmCache.remove(uri);
+        }
+        return valor;
+    }
+
+    /**
+     * Cria um iterador sobre as páginas de um endpoint paginado por cursor.
+     * Se uma página falhar, next() lança UncheckedIOException, para que quem
+     * percorre as páginas nunca tome uma lista incompleta pela lista toda.
+     * 
+     */
+    protected <T> PaginaIterator<T> iterarPaginas(String endpoint, TypeReference<PaginaDTO<T>> tipo) {
+        return new PaginaIterator<>(cursor -> {
+            String url = endpoint;
+            if (cursor != null) {
+                url += (endpoint.contains("?") ? "&" : "?") + "cursor=" + cursor;
+            }
+            PaginaDTO<T> pagina;
+            try {
+                pagina = getComCache(url, tipo, "GET " + endpoint);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao obter " + url, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new InterruptedIOException("Interrompido ao obter " + url));
+            }
+            if (pagina == null) {
+                throw new UncheckedIOException(new IOException("Falha ao obter " + url));
+            }
+            return pagina;
+        });
+    }
+
+    /**
+     * Versão assíncrona de lerTodasPaginas: cada página é pedida quando a
+     * anterior chega, sem bloquear nenhuma thread entre pedidos. Se uma das
+     * páginas falhar, completa com exceção.
+     */
+    protected <T> CompletableFuture<List<T>> lerTodasPaginasAsync(String endpoint, TypeReference<PaginaDTO<T>> tipo) {
+        return lerPaginasAsync(endpoint, mapper.getTypeFactory().constructType(tipo), null, new ArrayList<>());
+    }
+
+    private <T> CompletableFuture<List<T>> lerPaginasAsync(String endpoint, JavaType tipo, String cursor,
+            List<T> todos) {
+        String url = cursor == null ? endpoint
+                : endpoint + (endpoint.contains("?") ? "&" : "?") + "cursor=" + cursor;
+        return this.<PaginaDTO<T>>getComCacheAsync(url, tipo, "GET " + endpoint).thenCompose(pagina -> {
+            if (pagina == null) {
+                // não devolve uma lista incompleta como se fosse a lista toda
+                return CompletableFuture.failedFuture(new IOException("Falha ao obter " + url));
+            }
+            todos.addAll(pagina.getItens());
+            return pagina.getNextCursor() == null
+                    ? CompletableFuture.completedFuture(todos)
+                    : lerPaginasAsync(endpoint, tipo, pagina.getNextCursor(), todos);
+        });
+    }
+
+    /**
+     * Percorre todas as páginas de um endpoint e junta os itens numa lista.
+     * Lança UncheckedIOException se alguma página falhar.
+     * 
+     */
+    protected <T> List<T> lerTodasPaginas(String endpoint, TypeReference<PaginaDTO<T>> tipo) {
+        List<T> todos = new ArrayList<>();
+        iterarPaginas(endpoint, tipo).forEachRemaining(todos::addAll);
+        return todos;
+    }
+
     /**
      * Faz log de erro com informação útil para debugging
      * 
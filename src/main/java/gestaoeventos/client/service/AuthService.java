@@ -26,7 +26,7 @@ public class AuthService extends ApiClient {
         req.setNumero(numero);
         req.setPassword(password);
 
-        String jsonBody = mapper.writeValueAsString(req);
+        String jsonBody = escrever(req);
 
         HttpRequest request = postBuilder("/auth/login")
                 .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
@@ -35,7 +35,7 @@ public class AuthService extends ApiClient {
         HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() == 200) {
-            return mapper.readValue(response.body(), LoginResponseDTO.class);
+            return ler(response.body(), LoginResponseDTO.class);
         } else {
             // Tentar extrair a mensagem de erro da resposta da API
             String mensagemErro = extrairMensagemErro(response.body(), response.statusCode());
@@ -49,7 +49,7 @@ public class AuthService extends ApiClient {
     private String extrairMensagemErro(String responseBody, int statusCode) {
         try {
             @SuppressWarnings("unchecked")
-            Map<String, Object> errorBody = mapper.readValue(responseBody, Map.class);
+            Map<String, Object> errorBody = ler(responseBody, Map.class);
             Object message = errorBody.get("message");
             if (message != null) {
                 return message.toString();
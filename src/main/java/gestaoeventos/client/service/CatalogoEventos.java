@@ -0,0 +1,200 @@
+package gestaoeventos.client.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import gestaoeventos.dto.AlteracaoDTO;
+import gestaoeventos.dto.EventoDTO;
+import gestaoeventos.dto.PaginaDTO;
+import gestaoeventos.entity.EstadoEvento;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Catálogo de eventos partilhado por todas as vistas do cliente.
+ *
+ * A lista completa é descarregada uma vez e mantida em memória; as vistas
+ * ligam-se às listas observáveis que o catálogo expõe (todos, publicados,
+ * por organizador, por mês) em vez de pedirem os eventos ao servidor a cada
+ * navegação. As alterações recebidas por SubscricaoAlteracoes atualizam só
+ * o evento alterado, e um REINICIAR volta a descarregar tudo.
+ *
+ * garantirAtualizado só volta a pedir a lista se os dados tiverem mais de
+ * VALIDADE_MS; entretanto as vistas continuam a mostrar os dados que há.
+ *
+ * Todos os métodos são chamados na thread JavaFX, e é nela que as listas
+ * são alteradas.
+ */
+public class CatalogoEventos extends ApiClient {
+
+    static final long VALIDADE_MS = 5 * 60_000;
+
+    private static CatalogoEventos instance;
+
+    private final ObservableList<EventoDTO> eventos = FXCollections.observableArrayList();
+    private final ObservableList<EventoDTO> todos = FXCollections.unmodifiableObservableList(eventos);
+    private final FilteredList<EventoDTO> publicados =
+            new FilteredList<>(todos, e -> e.getEstado() == EstadoEvento.PUBLICADO);
+
+    private long atualizadoEm;
+    private CompletableFuture<Void> atualizacao;
+    private boolean alteradoDuranteAtualizacao;
+
+    private CatalogoEventos() {
+        SubscricaoAlteracoes.getInstance().subscrever(this::aplicarAlteracao);
+    }
+
+    public static synchronized CatalogoEventos getInstance() {
+        if (instance == null) {
+            instance = new CatalogoEventos();
+        }
+        return instance;
+    }
+
+    /** Todos os eventos, só de leitura. */
+    public ObservableList<EventoDTO> getTodos() {
+        return todos;
+    }
+
+    /** Eventos publicados, os únicos que aceitam inscrições. */
+    public ObservableList<EventoDTO> getPublicados() {
+        return publicados;
+    }
+
+    /**
+     * Eventos criados por um organizador. Cada chamada devolve uma vista
+     * nova, que deixa de ser atualizada quando a vista que a usa é fechada.
+     */
+    public FilteredList<EventoDTO> porOrganizador(Integer organizadorNumero) {
+        return new FilteredList<>(todos, e -> organizadorNumero.equals(e.getCriadorNumero()));
+    }
+
+    /** Eventos que começam no mês indicado. */
+    public FilteredList<EventoDTO> porMes(YearMonth mes) {
+        return porPeriodo(mes.atDay(1), mes.atEndOfMonth());
+    }
+
+    /** Eventos que começam entre as duas datas, inclusive. */
+    public FilteredList<EventoDTO> porPeriodo(LocalDate de, LocalDate ate) {
+        return new FilteredList<>(todos, e -> {
+            if (e.getDataInicio() == null) {
+                return false;
+            }
+            LocalDate dia = e.getDataInicio().toLocalDate();
+            return !dia.isBefore(de) && !dia.isAfter(ate);
+        });
+    }
+
+    /**
+     * Descarrega o catálogo se ainda não foi carregado. Se os dados tiverem
+     * expirado, completa logo e atualiza-os em segundo plano.
+     */
+    public CompletableFuture<Void> garantirAtualizado() {
+        if (atualizadoEm == 0) {
+            return atualizar();
+        }
+        if (System.currentTimeMillis() - atualizadoEm > VALIDADE_MS) {
+            atualizar();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Volta a descarregar a lista completa. Se já houver uma atualização em
+     * curso espera por essa. Se falhar, as listas ficam com os dados
+     * anteriores.
+     */
+    public CompletableFuture<Void> atualizar() {
+        if (atualizacao != null) {
+            return atualizacao.copy();
+        }
+        alteradoDuranteAtualizacao = false;
+        CompletableFuture<Void> pedido = lerTodasPaginasAsync("/eventos", new TypeReference<PaginaDTO<EventoDTO>>() {
+        }).thenAcceptAsync(lista -> {
+            atualizacao = null;
+            eventos.setAll(lista);
+            atualizadoEm = System.currentTimeMillis();
+            if (alteradoDuranteAtualizacao) {
+                // a lista pode ter sido lida antes de uma alteração já aplicada
+                atualizar();
+            }
+        }, Platform::runLater);
+        pedido.exceptionally(erro -> {
+            Platform.runLater(() -> atualizacao = null);
+            System.err.println("[CatalogoEventos] Erro ao carregar eventos: " + erro.getMessage());
+            return null;
+        });
+        atualizacao = pedido;
+        // cópia, para que quem cancelar a sua espera não cancele a atualização
+        return pedido.copy();
+    }
+
+    /**
+     * Substitui ou acrescenta um evento, por exemplo depois de o criar ou
+     * alterar, sem esperar pela notificação do servidor.
+     */
+    public void guardar(EventoDTO evento) {
+        if (evento == null || evento.getId() == null) {
+            return;
+        }
+        int i = posicao(evento.getId());
+        if (i >= 0) {
+            eventos.set(i, evento);
+        } else {
+            eventos.add(evento);
+        }
+    }
+
+    public void remover(Integer id) {
+        int i = posicao(id);
+        if (i >= 0) {
+            eventos.remove(i);
+        }
+    }
+
+    private void aplicarAlteracao(AlteracaoDTO alteracao) {
+        if (AlteracaoDTO.REINICIAR.equals(alteracao.getOperacao())) {
+            if (atualizadoEm != 0) {
+                atualizar();
+            }
+            return;
+        }
+        if (!"Evento".equals(alteracao.getEntidade()) || (atualizadoEm == 0 && atualizacao == null)) {
+            return;
+        }
+        if (atualizacao != null) {
+            alteradoDuranteAtualizacao = true;
+        }
+
+        Integer id = alteracao.getId();
+        if (AlteracaoDTO.APAGADO.equals(alteracao.getOperacao())) {
+            remover(id);
+            return;
+        }
+        getComCacheAsync("/eventos/" + id, EventoDTO.class, "obterPorId").whenComplete((evento, erro) -> {
+            if (erro != null) {
+                System.err.println("[CatalogoEventos] Erro ao atualizar evento " + id + ": " + erro.getMessage());
+                return;
+            }
+            // null se o pedido falhou; um evento apagado chega como APAGADO
+            if (evento != null) {
+                Platform.runLater(() -> guardar(evento));
+            }
+        });
+    }
+
+    private int posicao(Integer id) {
+        List<EventoDTO> lista = eventos;
+        for (int i = 0; i < lista.size(); i++) {
+            if (lista.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -2,6 +2,8 @@ package gestaoeventos.client.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import gestaoeventos.dto.CertificadoDTO;
+import gestaoeventos.dto.EmissaoCertificadosDTO;
+import gestaoeventos.dto.PaginaDTO;
 import gestaoeventos.entity.TipoCertificado;
 
 import java.net.http.HttpRequest;
@@ -23,11 +25,11 @@ public class CertificadoClientService extends ApiClient {
      */
     public List<CertificadoDTO> listarPorUtilizador(Integer utilizadorNumero) {
         try {
-            HttpRequest request = getBuilder("/certificados/utilizador/" + utilizadorNumero).build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<CertificadoDTO>>() {
-                });
+            List<CertificadoDTO> lista = getComCache("/certificados/utilizador/" + utilizadorNumero,
+                    new TypeReference<List<CertificadoDTO>>() {
+                    }, "listarPorUtilizador");
+            if (lista != null) {
+                return lista;
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -36,20 +38,19 @@ public class CertificadoClientService extends ApiClient {
     }
 
     /**
-     * Lista todos os certificados emitidos para um evento.
+     * Lista todos os certificados emitidos para um evento, percorrendo todas as paginas.
      */
     public List<CertificadoDTO> listarPorEvento(Integer eventoId) {
-        try {
-            HttpRequest request = getBuilder("/certificados/evento/" + eventoId).build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<CertificadoDTO>>() {
-                });
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return Collections.emptyList();
+        return lerTodasPaginas("/certificados/evento/" + eventoId, new TypeReference<PaginaDTO<CertificadoDTO>>() {
+        });
+    }
+
+    /**
+     * Iterador pagina a pagina sobre os certificados de um evento.
+     */
+    public PaginaIterator<CertificadoDTO> paginasPorEvento(Integer eventoId) {
+        return iterarPaginas("/certificados/evento/" + eventoId, new TypeReference<PaginaDTO<CertificadoDTO>>() {
+        });
     }
 
     /**
@@ -73,7 +74,7 @@ public class CertificadoClientService extends ApiClient {
                     .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200 || response.statusCode() == 201) {
-                return mapper.readValue(response.body(), CertificadoDTO.class);
+                return ler(response.body(), CertificadoDTO.class);
             }
             System.err.println("Erro ao emitir certificado: " + response.statusCode() + " - " + response.body());
         } catch (Exception e) {
@@ -103,8 +104,14 @@ public class CertificadoClientService extends ApiClient {
                     .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
-                String tipoDescricao = tipo.getDescricao();
-                return "Certificados (" + tipoDescricao + ") emitidos com sucesso!";
+                EmissaoCertificadosDTO resultado = ler(response.body(),
+                        EmissaoCertificadosDTO.class);
+                String mensagem = "Certificados (" + tipo.getDescricao() + ") emitidos: "
+                        + resultado.getEmitidos() + ", ja existentes: " + resultado.getIgnorados();
+                if (resultado.getFalhados() > 0) {
+                    mensagem += ", falhados: " + resultado.getFalhados();
+                }
+                return mensagem;
             }
             return "Erro ao emitir certificados: HTTP " + response.statusCode();
         } catch (Exception e) {
@@ -121,7 +128,7 @@ public class CertificadoClientService extends ApiClient {
             HttpRequest request = getBuilder("/certificados/verificar/" + codigo).build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), CertificadoDTO.class);
+                return ler(response.body(), CertificadoDTO.class);
             }
         } catch (Exception e) {
             e.printStackTrace();
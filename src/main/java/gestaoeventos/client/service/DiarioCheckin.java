@@ -0,0 +1,384 @@
+package gestaoeventos.client.service;
+
+import gestaoeventos.dto.CheckinLeituraDTO;
+import gestaoeventos.dto.CheckinResultadoDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diário local das leituras feitas num posto de check-in.
+ *
+ * Cada leitura aceite é acrescentada a um ficheiro append-only antes de ser
+ * enviada ao servidor, pelo que o posto continua a aceitar entradas quando a
+ * API está lenta ou indisponível. O fsync é feito em grupo por uma thread
+ * própria a cada INTERVALO_FSYNC_MS: uma leitura só se perde se a máquina
+ * (não apenas a aplicação) falhar dentro dessa janela.
+ *
+ * Formato das linhas (separadas por tab):
+ * L token dataLeitura - leitura aceite no posto
+ * R token resultado - resposta do servidor para a leitura
+ *
+ * Ao abrir, o diário é reconstruído a partir do ficheiro e compactado: as
+ * leituras já resolvidas há mais de RETENCAO_HORAS são descartadas. Em
+ * funcionamento, as leituras por enviar têm um índice próprio, pela ordem de
+ * leitura, para que reservar não percorra as já resolvidas.
+ */
+public class DiarioCheckin implements AutoCloseable {
+
+    static final long INTERVALO_FSYNC_MS = 100;
+    static final long RETENCAO_HORAS = 24;
+
+    private static final String PREFIXO_ASSINADO = "CHKS-";
+    private static final String PREFIXO_ANTIGO = "CHK-";
+
+    /** Resultado da validação feita no posto, sem ir ao servidor. */
+    public enum ResultadoLocal {
+        ACEITE, DUPLICADO, INVALIDO, EXPIRADO
+    }
+
+    public enum Estado {
+        PENDENTE, CONFIRMADO, REJEITADO
+    }
+
+    private static final class Entrada {
+        final long ordem;
+        final String token;
+        final LocalDateTime dataLeitura;
+        Estado estado = Estado.PENDENTE;
+        String resultado;
+
+        Entrada(long ordem, String token, LocalDateTime dataLeitura) {
+            this.ordem = ordem;
+            this.token = token;
+            this.dataLeitura = dataLeitura;
+        }
+    }
+
+    private final Path ficheiro;
+    private final Map<String, Entrada> entradas = new LinkedHashMap<>();
+    // leituras pendentes que não estão reservadas por nenhum envio, por ordem
+    private final TreeMap<Long, Entrada> porEnviar = new TreeMap<>();
+    private long proximaOrdem;
+    private final FileChannel canal;
+    private final ScheduledExecutorService fsync;
+    private boolean sujo;
+    private int pendentes;
+    private int confirmados;
+    private int rejeitados;
+
+    private DiarioCheckin(Path ficheiro) throws IOException {
+        this.ficheiro = ficheiro;
+        recuperar();
+        compactar();
+        this.canal = FileChannel.open(ficheiro, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.fsync = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "checkin-diario-fsync");
+            t.setDaemon(true);
+            return t;
+        });
+        fsync.scheduleWithFixedDelay(this::sincronizarDisco,
+                INTERVALO_FSYNC_MS, INTERVALO_FSYNC_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre (ou cria) o diário no ficheiro indicado.
+     */
+    public static DiarioCheckin abrir(Path ficheiro) throws IOException {
+        Path pasta = ficheiro.toAbsolutePath().getParent();
+        if (pasta != null) {
+            Files.createDirectories(pasta);
+        }
+        return new DiarioCheckin(ficheiro);
+    }
+
+    /**
+     * Valida o token localmente e, se for aceite, acrescenta-o ao diário.
+     * Os duplicados e os tokens mal formados ou expirados nunca chegam ao
+     * servidor.
+     */
+    public synchronized ResultadoLocal registar(String token, LocalDateTime dataLeitura) throws IOException {
+        ResultadoLocal validacao = validar(token, dataLeitura);
+        if (validacao != ResultadoLocal.ACEITE) {
+            return validacao;
+        }
+        if (entradas.containsKey(token)) {
+            return ResultadoLocal.DUPLICADO;
+        }
+
+        LocalDateTime data = dataLeitura.truncatedTo(ChronoUnit.SECONDS);
+        escrever("L\t" + token + "\t" + data + "\n");
+        acrescentar(token, data);
+        return ResultadoLocal.ACEITE;
+    }
+
+    /**
+     * Reserva até max leituras pendentes para um envio, pela ordem de
+     * leitura. As leituras reservadas não voltam a ser devolvidas até serem
+     * resolvidas ou libertadas, para que vários envios possam decorrer
+     * em paralelo sem repetir tokens.
+     */
+    public synchronized List<CheckinLeituraDTO> reservar(int max) {
+        List<CheckinLeituraDTO> lote = new ArrayList<>();
+        while (lote.size() < max && !porEnviar.isEmpty()) {
+            Entrada e = porEnviar.pollFirstEntry().getValue();
+            lote.add(new CheckinLeituraDTO(e.token, e.dataLeitura));
+        }
+        return lote;
+    }
+
+    /**
+     * Devolve ao conjunto de pendentes as leituras de um envio que falhou.
+     */
+    public synchronized void libertar(List<CheckinLeituraDTO> lote) {
+        for (CheckinLeituraDTO l : lote) {
+            Entrada e = entradas.get(l.getToken());
+            if (e != null && e.estado == Estado.PENDENTE) {
+                porEnviar.put(e.ordem, e);
+            }
+        }
+    }
+
+    /**
+     * Aplica as respostas do servidor às leituras pendentes.
+     *
+     * Um DUPLICADO cuja data de check-in coincide com a da leitura é o nosso
+     * próprio check-in de um envio anterior cuja resposta se perdeu, e conta
+     * como confirmado. Qualquer outro DUPLICADO é um bilhete já usado, mesmo
+     * que a leitura tenha sido enviada mais do que uma vez.
+     *
+     * Devolve, por token, o resultado final aplicado.
+     */
+    public synchronized Map<String, String> registarResultados(List<CheckinResultadoDTO> resultados)
+            throws IOException {
+        Map<String, String> aplicados = new LinkedHashMap<>();
+        StringBuilder sb = new StringBuilder();
+        for (CheckinResultadoDTO r : resultados) {
+            Entrada e = entradas.get(r.getToken());
+            if (e == null || e.estado != Estado.PENDENTE) {
+                continue;
+            }
+            String resultado = r.getResultado();
+            if (CheckinResultadoDTO.DUPLICADO.equals(resultado)
+                    && mesmaLeitura(e, r.getDataCheckin())) {
+                resultado = CheckinResultadoDTO.OK;
+            }
+            aplicar(e, resultado);
+            aplicados.put(e.token, resultado);
+            sb.append("R\t").append(e.token).append('\t').append(resultado).append('\n');
+        }
+        escrever(sb.toString());
+        return aplicados;
+    }
+
+    public synchronized int getPendentes() {
+        return pendentes;
+    }
+
+    public synchronized int getConfirmados() {
+        return confirmados;
+    }
+
+    public synchronized int getRejeitados() {
+        return rejeitados;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fsync.shutdown();
+        synchronized (this) {
+            if (canal.isOpen()) {
+                canal.force(false);
+                canal.close();
+            }
+        }
+    }
+
+    /**
+     * Validação possível sem a chave do servidor: formato do token e, nos
+     * tokens assinados, a validade que vem no próprio token.
+     */
+    static ResultadoLocal validar(String token, LocalDateTime dataLeitura) {
+        if (token == null || token.isEmpty() || token.chars().anyMatch(Character::isWhitespace)) {
+            return ResultadoLocal.INVALIDO;
+        }
+        if (token.startsWith(PREFIXO_ASSINADO)) {
+            int separador = token.lastIndexOf('.');
+            if (separador <= PREFIXO_ASSINADO.length() || separador == token.length() - 1) {
+                return ResultadoLocal.INVALIDO;
+            }
+            String[] partes = token.substring(PREFIXO_ASSINADO.length(), separador).split("-");
+            if (partes.length != 2) {
+                return ResultadoLocal.INVALIDO;
+            }
+            try {
+                Integer.parseInt(partes[0]);
+                long segundos = Long.parseLong(partes[1]);
+                if (segundos != 0
+                        && dataLeitura.isAfter(LocalDateTime.ofEpochSecond(segundos, 0, ZoneOffset.UTC))) {
+                    return ResultadoLocal.EXPIRADO;
+                }
+            } catch (NumberFormatException e) {
+                return ResultadoLocal.INVALIDO;
+            }
+            return ResultadoLocal.ACEITE;
+        }
+        return token.startsWith(PREFIXO_ANTIGO) ? ResultadoLocal.ACEITE : ResultadoLocal.INVALIDO;
+    }
+
+    private static boolean mesmaLeitura(Entrada e, LocalDateTime dataCheckin) {
+        return dataCheckin != null && dataCheckin.truncatedTo(ChronoUnit.SECONDS).equals(e.dataLeitura);
+    }
+
+    private void acrescentar(String token, LocalDateTime dataLeitura) {
+        Entrada e = new Entrada(proximaOrdem++, token, dataLeitura);
+        entradas.put(token, e);
+        porEnviar.put(e.ordem, e);
+        pendentes++;
+    }
+
+    private void aplicar(Entrada e, String resultado) {
+        if (e.estado == Estado.PENDENTE) {
+            pendentes--;
+            porEnviar.remove(e.ordem);
+        }
+        e.resultado = resultado;
+        if (CheckinResultadoDTO.OK.equals(resultado)) {
+            e.estado = Estado.CONFIRMADO;
+            confirmados++;
+        } else {
+            e.estado = Estado.REJEITADO;
+            rejeitados++;
+        }
+    }
+
+    private void escrever(String linhas) throws IOException {
+        if (linhas.isEmpty()) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(linhas.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        sujo = true;
+    }
+
+    /**
+     * O fsync corre fora do monitor para não bloquear registar na thread da
+     * interface; o que for escrito durante o fsync volta a marcar o diário
+     * como sujo e entra no seguinte.
+     */
+    private void sincronizarDisco() {
+        synchronized (this) {
+            if (!sujo || !canal.isOpen()) {
+                return;
+            }
+            sujo = false;
+        }
+        try {
+            canal.force(false);
+        } catch (ClosedChannelException e) {
+            // fechado entretanto: close() faz o último fsync
+        } catch (IOException e) {
+            synchronized (this) {
+                sujo = true;
+            }
+            System.err.println("[DiarioCheckin] Erro no fsync do diário: " + e.getMessage());
+        }
+    }
+
+    private void recuperar() throws IOException {
+        if (!Files.exists(ficheiro)) {
+            return;
+        }
+        try (BufferedReader in = Files.newBufferedReader(ficheiro, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = in.readLine()) != null) {
+                String[] campos = linha.split("\t", -1);
+                // Uma linha incompleta no fim do ficheiro é uma escrita interrompida
+                if (campos.length < 2) {
+                    continue;
+                }
+                Entrada e = entradas.get(campos[1]);
+                switch (campos[0]) {
+                    case "L" -> {
+                        if (e == null && campos.length == 3) {
+                            try {
+                                acrescentar(campos[1], LocalDateTime.parse(campos[2]));
+                            } catch (DateTimeParseException ex) {
+                                // linha truncada
+                            }
+                        }
+                    }
+                    case "R" -> {
+                        if (e != null && campos.length == 3 && !campos[2].isEmpty()) {
+                            aplicar(e, campos[2]);
+                        }
+                    }
+                    default -> {
+                        // linhas S de versões anteriores do diário
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reescreve o diário só com o estado atual, através de um ficheiro
+     * temporário e de uma mudança de nome atómica.
+     */
+    private void compactar() throws IOException {
+        LocalDateTime limite = LocalDateTime.now().minusHours(RETENCAO_HORAS);
+        entradas.values().removeIf(e -> {
+            if (e.estado == Estado.PENDENTE || !e.dataLeitura.isBefore(limite)) {
+                return false;
+            }
+            if (e.estado == Estado.CONFIRMADO) {
+                confirmados--;
+            } else {
+                rejeitados--;
+            }
+            return true;
+        });
+
+        StringBuilder sb = new StringBuilder();
+        for (Entrada e : entradas.values()) {
+            sb.append("L\t").append(e.token).append('\t').append(e.dataLeitura).append('\n');
+            if (e.resultado != null) {
+                sb.append("R\t").append(e.token).append('\t').append(e.resultado).append('\n');
+            }
+        }
+
+        Path temp = ficheiro.resolveSibling(ficheiro.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        Files.move(temp, ficheiro, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
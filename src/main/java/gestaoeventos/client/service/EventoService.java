@@ -4,11 +4,14 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import gestaoeventos.dto.EventoDTO;
 import gestaoeventos.dto.EventoCreateDTO;
 import gestaoeventos.dto.EstatisticasEventoDTO;
+import gestaoeventos.dto.PaginaDTO;
 
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * Serviço cliente para comunicação com a API de eventos.
@@ -16,54 +19,95 @@ import java.util.List;
 public class EventoService extends ApiClient {
 
     /**
-     * Lista todos os eventos do sistema.
+     * Lista todos os eventos do sistema, percorrendo todas as páginas.
      */
     public List<EventoDTO> listarTodos() {
-        try {
-            HttpRequest request = getBuilder("/eventos").build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<EventoDTO>>() {
-                });
-            }
-            throw new RuntimeException("Erro ao listar eventos: " + response.statusCode());
-        } catch (Exception e) {
-            e.printStackTrace();
-            return Collections.emptyList();
-        }
+        return lerTodasPaginas("/eventos", new TypeReference<PaginaDTO<EventoDTO>>() {
+        });
+    }
+
+    /**
+     * Versão assíncrona de listarTodos, para combinar com outros pedidos em
+     * paralelo. Completa com uma lista vazia se o pedido falhar.
+     */
+    public CompletableFuture<List<EventoDTO>> listarTodosAsync() {
+        return ouSeFalhar(lerTodasPaginasAsync("/eventos", new TypeReference<PaginaDTO<EventoDTO>>() {
+        }), Collections.emptyList(), "listarTodos");
+    }
+
+    /**
+     * Iterador página a página sobre todos os eventos.
+     */
+    public PaginaIterator<EventoDTO> paginas() {
+        return iterarPaginas("/eventos", new TypeReference<PaginaDTO<EventoDTO>>() {
+        });
     }
 
     /**
      * Lista eventos de um organizador específico.
+     * A pesquisa no servidor é paginada, por isso percorre todas as páginas.
      */
     public List<EventoDTO> listarPorOrganizador(Integer organizadorNumero) {
-        try {
-            HttpRequest request = getBuilder("/eventos/search?organizadorNumero=" + organizadorNumero).build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<EventoDTO>>() {
+        return lerTodasPaginas("/eventos/search?organizadorNumero=" + organizadorNumero,
+                new TypeReference<PaginaDTO<EventoDTO>>() {
                 });
+    }
+
+    /**
+     * Versão assíncrona de listarPorOrganizador.
+     */
+    public CompletableFuture<List<EventoDTO>> listarPorOrganizadorAsync(Integer organizadorNumero) {
+        return ouSeFalhar(lerTodasPaginasAsync("/eventos/search?organizadorNumero=" + organizadorNumero,
+                new TypeReference<PaginaDTO<EventoDTO>>() {
+                }), Collections.emptyList(), "listarPorOrganizador");
+    }
+
+    /**
+     * Obtém as estatísticas de um evento.
+     */
+    public EstatisticasEventoDTO obterEstatisticas(Integer eventoId) {
+        try {
+            EstatisticasEventoDTO dto = getComCache("/eventos/" + eventoId + "/estatisticas",
+                    EstatisticasEventoDTO.class, "obterEstatisticas");
+            if (dto != null) {
+                return dto;
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
-        return Collections.emptyList();
+        return null;
     }
 
     /**
-     * Obtém as estatísticas de um evento.
+     * Obtém as estatísticas de vários eventos num único pedido.
      */
-    public EstatisticasEventoDTO obterEstatisticas(Integer eventoId) {
+    public List<EstatisticasEventoDTO> obterEstatisticasEmLote(List<Integer> eventoIds) {
+        if (eventoIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String ids = eventoIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return lerEstatisticas("/eventos/estatisticas?ids=" + ids);
+    }
+
+    /**
+     * Obtém as estatísticas de todos os eventos de um organizador num único pedido.
+     */
+    public List<EstatisticasEventoDTO> obterEstatisticasPorOrganizador(Integer organizadorNumero) {
+        return lerEstatisticas("/eventos/estatisticas?organizadorNumero=" + organizadorNumero);
+    }
+
+    private List<EstatisticasEventoDTO> lerEstatisticas(String endpoint) {
         try {
-            HttpRequest request = getBuilder("/eventos/" + eventoId + "/estatisticas").build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), EstatisticasEventoDTO.class);
+            List<EstatisticasEventoDTO> lista = getComCache(endpoint,
+                    new TypeReference<List<EstatisticasEventoDTO>>() {
+                    }, "obterEstatisticasEmLote");
+            if (lista != null) {
+                return lista;
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
-        return null;
+        return Collections.emptyList();
     }
 
     /**
@@ -77,7 +121,7 @@ public class EventoService extends ApiClient {
                     .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), gestaoeventos.client.model.InscricaoResultado.class);
+                return ler(response.body(), gestaoeventos.client.model.InscricaoResultado.class);
             }
             gestaoeventos.client.model.InscricaoResultado erro = new gestaoeventos.client.model.InscricaoResultado();
             erro.setResultado("ERRO: " + response.statusCode());
@@ -95,13 +139,13 @@ public class EventoService extends ApiClient {
      */
     public EventoDTO criar(EventoCreateDTO dto) {
         try {
-            String json = mapper.writeValueAsString(dto);
+            String json = escrever(dto);
             HttpRequest request = postBuilder("/eventos")
                     .POST(HttpRequest.BodyPublishers.ofString(json))
                     .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200 || response.statusCode() == 201) {
-                return mapper.readValue(response.body(), EventoDTO.class);
+                return ler(response.body(), EventoDTO.class);
             }
             System.err.println("Erro ao criar evento: " + response.statusCode() + " - " + response.body());
         } catch (Exception e) {
@@ -115,7 +159,7 @@ public class EventoService extends ApiClient {
      */
     public EventoDTO atualizar(Integer id, EventoCreateDTO dto) {
         try {
-            String json = mapper.writeValueAsString(dto);
+            String json = escrever(dto);
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(java.net.URI.create(BASE_URL + "/eventos/" + id))
                     .header("Content-Type", "application/json")
@@ -123,7 +167,7 @@ public class EventoService extends ApiClient {
                     .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), EventoDTO.class);
+                return ler(response.body(), EventoDTO.class);
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -136,10 +180,9 @@ public class EventoService extends ApiClient {
      */
     public EventoDTO obterPorId(Integer id) {
         try {
-            HttpRequest request = getBuilder("/eventos/" + id).build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), EventoDTO.class);
+            EventoDTO dto = getComCache("/eventos/" + id, EventoDTO.class, "obterPorId");
+            if (dto != null) {
+                return dto;
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -147,6 +190,14 @@ public class EventoService extends ApiClient {
         return null;
     }
 
+    /**
+     * Versão assíncrona de obterPorId. Completa com null se o evento não
+     * existir ou o pedido falhar.
+     */
+    public CompletableFuture<EventoDTO> obterPorIdAsync(Integer id) {
+        return ouSeFalhar(getComCacheAsync("/eventos/" + id, EventoDTO.class, "obterPorId"), null, "obterPorId");
+    }
+
     /**
      * Apaga um evento.
      */
@@ -1,6 +1,9 @@
 package gestaoeventos.client.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import gestaoeventos.dto.CheckinLeituraDTO;
+import gestaoeventos.dto.CheckinLoteDTO;
+import gestaoeventos.dto.CheckinResultadoDTO;
 import gestaoeventos.dto.InscricaoDTO;
 
 import java.net.http.HttpRequest;
@@ -9,6 +12,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Serviço cliente para operações de Inscrições na API
@@ -28,38 +32,55 @@ public class InscricaoService extends ApiClient {
      */
     public List<InscricaoDTO> listarPorUtilizador(Integer numeroUtilizador) {
         try {
-            HttpRequest request = getBuilder("/inscricoes/utilizador/" + numeroUtilizador).build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<InscricaoDTO>>() { // TypeReference - para preservar o tipo em Json
-                });
+            List<InscricaoDTO> lista = getComCache("/inscricoes/utilizador/" + numeroUtilizador,
+                    new TypeReference<List<InscricaoDTO>>() {
+                    }, "listarPorUtilizador");
+            if (lista != null) {
+                return lista;
             }
-            logError("listarPorUtilizador", response.statusCode(), response.body());
         } catch (Exception e) {
             e.printStackTrace();
         }
         return Collections.emptyList();
     }
 
+    /**
+     * Versão assíncrona de listarPorUtilizador. Completa com uma lista vazia
+     * se o pedido falhar.
+     */
+    public CompletableFuture<List<InscricaoDTO>> listarPorUtilizadorAsync(Integer numeroUtilizador) {
+        return ouSeFalhar(getComCacheAsync("/inscricoes/utilizador/" + numeroUtilizador,
+                new TypeReference<List<InscricaoDTO>>() {
+                }, "listarPorUtilizador"), Collections.emptyList(), "listarPorUtilizador");
+    }
+
     /**
      * Lista todas as inscrições de um evento.
      * 
      */
     public List<InscricaoDTO> listarPorEvento(Integer eventoId) {
         try {
-            HttpRequest request = getBuilder("/inscricoes/evento/" + eventoId).build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<InscricaoDTO>>() {
-                });
+            List<InscricaoDTO> lista = getComCache("/inscricoes/evento/" + eventoId,
+                    new TypeReference<List<InscricaoDTO>>() {
+                    }, "listarPorEvento");
+            if (lista != null) {
+                return lista;
             }
-            logError("listarPorEvento", response.statusCode(), response.body());
         } catch (Exception e) {
             e.printStackTrace();
         }
         return Collections.emptyList();
     }
 
+    /**
+     * Versão assíncrona de listarPorEvento.
+     */
+    public CompletableFuture<List<InscricaoDTO>> listarPorEventoAsync(Integer eventoId) {
+        return ouSeFalhar(getComCacheAsync("/inscricoes/evento/" + eventoId,
+                new TypeReference<List<InscricaoDTO>>() {
+                }, "listarPorEvento"), Collections.emptyList(), "listarPorEvento");
+    }
+
     /**
      * Cancela uma inscrição existente.
      * 
@@ -87,7 +108,7 @@ public class InscricaoService extends ApiClient {
                     .POST(HttpRequest.BodyPublishers.noBody()).build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), InscricaoDTO.class);
+                return ler(response.body(), InscricaoDTO.class);
             }
             logError("fazerCheckin", response.statusCode(), response.body());
         } catch (Exception e) {
@@ -104,7 +125,7 @@ public class InscricaoService extends ApiClient {
         try {
             Map<String, String> bodyMap = new HashMap<>();
             bodyMap.put("token", token);
-            String json = mapper.writeValueAsString(bodyMap);
+            String json = escrever(bodyMap);
 
             HttpRequest request = postBuilder("/inscricoes/checkin/qrcode")
                     .POST(HttpRequest.BodyPublishers.ofString(json))
@@ -113,7 +134,7 @@ public class InscricaoService extends ApiClient {
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
 
             if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), InscricaoDTO.class);
+                return ler(response.body(), InscricaoDTO.class);
             }
             logError("checkinPorQrCode", response.statusCode(), response.body());
         } catch (Exception e) {
@@ -121,4 +142,29 @@ public class InscricaoService extends ApiClient {
         }
         return null;
     }
+
+    /**
+     * Envia um lote de leituras de QR code para check-in numa só transação.
+     * Devolve um resultado por leitura, pela mesma ordem, ou null em caso de erro.
+     */
+    public List<CheckinResultadoDTO> checkinEmLote(List<CheckinLeituraDTO> leituras) {
+        try {
+            String json = escrever(new CheckinLoteDTO(leituras));
+
+            HttpRequest request = postBuilder("/inscricoes/checkin/batch")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            if (response.statusCode() == 200) {
+                return ler(response.body(), new TypeReference<List<CheckinResultadoDTO>>() {
+                });
+            }
+            logError("checkinEmLote", response.statusCode(), response.body());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
 }
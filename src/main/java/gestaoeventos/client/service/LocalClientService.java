@@ -8,6 +8,7 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Serviço cliente para operações de Locais na API REST.
@@ -28,31 +29,38 @@ public class LocalClientService extends ApiClient {
      */
     public List<LocalDTO> listarTodos() {
         try {
-            HttpRequest request = getBuilder("/locais").build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<LocalDTO>>() {
-                });
+            List<LocalDTO> lista = getComCache("/locais",
+                    new TypeReference<List<LocalDTO>>() {
+                    }, "listarTodos");
+            if (lista != null) {
+                return lista;
             }
-            logError("listarTodos", response.statusCode(), response.body());
         } catch (Exception e) {
             e.printStackTrace();
         }
         return Collections.emptyList();
     }
 
+    /**
+     * Versão assíncrona de listarTodos. Completa com uma lista vazia se o
+     * pedido falhar.
+     */
+    public CompletableFuture<List<LocalDTO>> listarTodosAsync() {
+        return ouSeFalhar(getComCacheAsync("/locais",
+                new TypeReference<List<LocalDTO>>() {
+                }, "listarTodos"), Collections.emptyList(), "listarTodos");
+    }
+
     /**
      * Obtém os detalhes de um local específico.
      * 
      */
     public LocalDTO obterPorId(Integer id) {
         try {
-            HttpRequest request = getBuilder("/locais/" + id).build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), LocalDTO.class);
+            LocalDTO dto = getComCache("/locais/" + id, LocalDTO.class, "obterPorId");
+            if (dto != null) {
+                return dto;
             }
-            logError("obterPorId", response.statusCode(), response.body());
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -66,13 +74,13 @@ public class LocalClientService extends ApiClient {
      */
     public LocalDTO criar(LocalCreateDTO dto) {
         try {
-            String json = mapper.writeValueAsString(dto);
+            String json = escrever(dto);
             HttpRequest request = postBuilder("/locais")
                     .POST(HttpRequest.BodyPublishers.ofString(json))
                     .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200 || response.statusCode() == 201) {
-                return mapper.readValue(response.body(), LocalDTO.class);
+                return ler(response.body(), LocalDTO.class);
             }
             logError("criar", response.statusCode(), response.body());
         } catch (Exception e) {
@@ -87,7 +95,7 @@ public class LocalClientService extends ApiClient {
      */
     public LocalDTO atualizar(Integer id, LocalCreateDTO dto) {
         try {
-            String json = mapper.writeValueAsString(dto);
+            String json = escrever(dto);
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(java.net.URI.create(BASE_URL + "/locais/" + id))
                     .header("Content-Type", "application/json")
@@ -95,7 +103,7 @@ public class LocalClientService extends ApiClient {
                     .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), LocalDTO.class);
+                return ler(response.body(), LocalDTO.class);
             }
             logError("atualizar", response.statusCode(), response.body());
         } catch (Exception e) {
@@ -2,9 +2,14 @@ package gestaoeventos.client.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import gestaoeventos.dto.LogAuditoriaDTO;
+import gestaoeventos.dto.PaginaDTO;
 
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
 
@@ -15,6 +20,7 @@ import java.util.List;
  * - Listar todos os logs
  * - Filtrar por entidade
  * - Filtrar por autor
+ * - Exportar para ficheiro (NDJSON ou CSV)
  * 
  * Apenas utilizadores com perfil Admin têm acesso a estes recursos
  * 
@@ -22,22 +28,21 @@ import java.util.List;
 public class LogAuditoriaClientService extends ApiClient {
 
     /**
-     * Lista todos os logs de auditoria do sistema.
+     * Lista todos os logs de auditoria do sistema, percorrendo todas as páginas.
      * 
      */
     public List<LogAuditoriaDTO> listarTodos() {
-        try {
-            HttpRequest request = getBuilder("/logs").build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<LogAuditoriaDTO>>() {
-                });
-            }
-            logError("listarTodos", response.statusCode(), response.body());
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return Collections.emptyList();
+        return lerTodasPaginas("/logs", new TypeReference<PaginaDTO<LogAuditoriaDTO>>() {
+        });
+    }
+
+    /**
+     * Iterador página a página sobre os logs, do mais recente para o mais antigo.
+     * 
+     */
+    public PaginaIterator<LogAuditoriaDTO> paginas() {
+        return iterarPaginas("/logs", new TypeReference<PaginaDTO<LogAuditoriaDTO>>() {
+        });
     }
 
     /**
@@ -46,13 +51,12 @@ public class LogAuditoriaClientService extends ApiClient {
      */
     public List<LogAuditoriaDTO> listarPorEntidade(String entidade, Integer id) {
         try {
-            HttpRequest request = getBuilder("/logs/entidade/" + entidade + "/" + id).build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<LogAuditoriaDTO>>() {
-                });
+            List<LogAuditoriaDTO> lista = getComCache("/logs/entidade/" + entidade + "/" + id,
+                    new TypeReference<List<LogAuditoriaDTO>>() {
+                    }, "listarPorEntidade");
+            if (lista != null) {
+                return lista;
             }
-            logError("listarPorEntidade", response.statusCode(), response.body());
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -65,16 +69,45 @@ public class LogAuditoriaClientService extends ApiClient {
      */
     public List<LogAuditoriaDTO> listarPorAutor(Integer numero) {
         try {
-            HttpRequest request = getBuilder("/logs/autor/" + numero).build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<LogAuditoriaDTO>>() {
-                });
+            List<LogAuditoriaDTO> lista = getComCache("/logs/autor/" + numero,
+                    new TypeReference<List<LogAuditoriaDTO>>() {
+                    }, "listarPorAutor");
+            if (lista != null) {
+                return lista;
             }
-            logError("listarPorAutor", response.statusCode(), response.body());
         } catch (Exception e) {
             e.printStackTrace();
         }
         return Collections.emptyList();
     }
+
+    /**
+     * Exporta os logs do intervalo [de, ate[ (limites opcionais) para o
+     * ficheiro indicado. O corpo da resposta é escrito diretamente no disco,
+     * sem passar pela memória. Formato: "ndjson" ou "csv".
+     * 
+     */
+    public boolean exportar(String formato, LocalDateTime de, LocalDateTime ate, Path destino) {
+        StringBuilder endpoint = new StringBuilder("/logs/export?format=").append(formato);
+        if (de != null) {
+            endpoint.append("&from=").append(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(de));
+        }
+        if (ate != null) {
+            endpoint.append("&to=").append(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(ate));
+        }
+        try {
+            HttpRequest request = getBuilder(endpoint.toString()).header("Accept", "*/*").build();
+            HttpResponse<Path> response = client.send(request, info -> info.statusCode() == 200
+                    ? HttpResponse.BodySubscribers.ofFile(destino)
+                    : HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8),
+                            body -> {
+                                logError("exportar", info.statusCode(), body);
+                                return null;
+                            }));
+            return response.statusCode() == 200;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
 }
@@ -2,6 +2,7 @@ package gestaoeventos.client.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import gestaoeventos.dto.NotificacaoDTO;
+import gestaoeventos.dto.PaginaDTO;
 
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
@@ -11,6 +12,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Serviço cliente para operações de Notificações na API REST.
@@ -22,43 +24,71 @@ public class NotificacaoClientService extends ApiClient {
      */
     public List<NotificacaoDTO> listarPorUtilizador(Integer numero) {
         try {
-            HttpRequest request = getBuilder("/notificacoes/utilizador/" + numero).build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<NotificacaoDTO>>() {
-                });
+            List<NotificacaoDTO> lista = getComCache("/notificacoes/utilizador/" + numero,
+                    new TypeReference<List<NotificacaoDTO>>() {
+                    }, "listarPorUtilizador");
+            if (lista != null) {
+                return lista;
             }
-            logError("listarPorUtilizador", response.statusCode(), response.body());
         } catch (Exception e) {
             e.printStackTrace();
         }
         return Collections.emptyList();
     }
 
+    /**
+     * Versão assíncrona de listarPorUtilizador. Completa com uma lista vazia
+     * se o pedido falhar.
+     */
+    public CompletableFuture<List<NotificacaoDTO>> listarPorUtilizadorAsync(Integer numero) {
+        return ouSeFalhar(getComCacheAsync("/notificacoes/utilizador/" + numero,
+                new TypeReference<List<NotificacaoDTO>>() {
+                }, "listarPorUtilizador"), Collections.emptyList(), "listarPorUtilizador");
+    }
+
     /**
      * Lista todos os anúncios visíveis no momento atual.
      */
     public List<NotificacaoDTO> listarAnunciosVisiveis() {
         try {
-            HttpRequest request = getBuilder("/notificacoes/anuncios/visiveis").build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<NotificacaoDTO>>() {
-                });
+            List<NotificacaoDTO> lista = getComCache("/notificacoes/anuncios/visiveis",
+                    new TypeReference<List<NotificacaoDTO>>() {
+                    }, "listarAnunciosVisiveis");
+            if (lista != null) {
+                return lista;
             }
-            logError("listarAnunciosVisiveis", response.statusCode(), response.body());
         } catch (Exception e) {
             e.printStackTrace();
         }
         return Collections.emptyList();
     }
 
+    /**
+     * Versão assíncrona de listarAnunciosVisiveis.
+     */
+    public CompletableFuture<List<NotificacaoDTO>> listarAnunciosVisiveisAsync() {
+        return ouSeFalhar(getComCacheAsync("/notificacoes/anuncios/visiveis",
+                new TypeReference<List<NotificacaoDTO>>() {
+                }, "listarAnunciosVisiveis"), Collections.emptyList(), "listarAnunciosVisiveis");
+    }
+
     /**
      * Marca uma notificação como lida.
      */
     public boolean marcarComoLida(Integer id) {
+        return marcarComoLida(id, null);
+    }
+
+    /**
+     * Marca uma notificação ou anúncio como lido pelo utilizador indicado.
+     */
+    public boolean marcarComoLida(Integer id, Integer utilizadorNumero) {
         try {
-            HttpRequest request = postBuilder("/notificacoes/" + id + "/lida")
+            String url = "/notificacoes/" + id + "/lida";
+            if (utilizadorNumero != null) {
+                url += "?utilizadorNumero=" + utilizadorNumero;
+            }
+            HttpRequest request = postBuilder(url)
                     .POST(HttpRequest.BodyPublishers.noBody())
                     .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
@@ -86,7 +116,7 @@ public class NotificacaoClientService extends ApiClient {
                 body.put("dataFimExibicao", dataFim.toString());
             }
 
-            String json = mapper.writeValueAsString(body);
+            String json = escrever(body);
 
             HttpRequest request = postBuilder("/notificacoes/broadcast")
                     .POST(HttpRequest.BodyPublishers.ofString(json))
@@ -103,21 +133,19 @@ public class NotificacaoClientService extends ApiClient {
     }
 
     /**
-     * Lista todos os anuncios do sistema.
+     * Lista todos os anuncios do sistema, percorrendo todas as paginas.
      */
     public List<NotificacaoDTO> listarTodosAnuncios() {
-        try {
-            HttpRequest request = getBuilder("/notificacoes/anuncios").build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<NotificacaoDTO>>() {
-                });
-            }
-            logError("listarTodosAnuncios", response.statusCode(), response.body());
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return Collections.emptyList();
+        return lerTodasPaginas("/notificacoes/anuncios", new TypeReference<PaginaDTO<NotificacaoDTO>>() {
+        });
+    }
+
+    /**
+     * Iterador pagina a pagina sobre os anuncios do sistema.
+     */
+    public PaginaIterator<NotificacaoDTO> paginasAnuncios() {
+        return iterarPaginas("/notificacoes/anuncios", new TypeReference<PaginaDTO<NotificacaoDTO>>() {
+        });
     }
 
     /**
@@ -136,14 +164,14 @@ public class NotificacaoClientService extends ApiClient {
                 body.put("dataFimExibicao", dataFim.toString());
             }
 
-            String json = mapper.writeValueAsString(body);
+            String json = escrever(body);
 
             HttpRequest request = putBuilder("/notificacoes/" + id)
                     .PUT(HttpRequest.BodyPublishers.ofString(json))
                     .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), NotificacaoDTO.class);
+                return ler(response.body(), NotificacaoDTO.class);
             }
             logError("atualizarAnuncio", response.statusCode(), response.body());
         } catch (Exception e) {
@@ -0,0 +1,48 @@
+package gestaoeventos.client.service;
+
+import gestaoeventos.dto.PaginaDTO;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Iterador sobre as páginas de um endpoint paginado por cursor.
+ *
+ * Cada chamada a next() faz um pedido ao servidor com o nextCursor da
+ * página anterior, pelo que só uma página de cada vez fica em memória.
+ *
+ */
+public class PaginaIterator<T> implements Iterator<List<T>> {
+
+    private final Function<String, PaginaDTO<T>> carregarPagina;
+    private String cursor;
+    private boolean terminou;
+
+    /**
+     * @param carregarPagina função que recebe o cursor (null na primeira
+     *                       página) e devolve a página; em caso de erro lança
+     *                       uma exceção, que next() deixa passar
+     */
+    public PaginaIterator(Function<String, PaginaDTO<T>> carregarPagina) {
+        this.carregarPagina = carregarPagina;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !terminou;
+    }
+
+    @Override
+    public List<T> next() {
+        if (terminou) {
+            throw new NoSuchElementException();
+        }
+        // se falhar, o cursor não avança e um novo next() repete o pedido
+        PaginaDTO<T> pagina = carregarPagina.apply(cursor);
+        cursor = pagina.getNextCursor();
+        terminou = cursor == null;
+        return pagina.getItens();
+    }
+}
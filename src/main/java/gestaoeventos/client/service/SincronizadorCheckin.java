@@ -0,0 +1,277 @@
+package gestaoeventos.client.service;
+
+import gestaoeventos.client.model.LeituraPosto;
+import gestaoeventos.dto.CheckinLeituraDTO;
+import gestaoeventos.dto.CheckinResultadoDTO;
+import javafx.application.Platform;
+import javafx.beans.Observable;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posto de check-in com funcionamento offline.
+ *
+ * As leituras são aceites de imediato e guardadas no DiarioCheckin; as
+ * pendentes são enviadas ao servidor em segundo plano através de
+ * POST /inscricoes/checkin/batch, com até MAXIMO_ENVIOS_EM_VOO lotes em
+ * simultâneo para que uma resposta lenta não atrase as leituras seguintes.
+ * Se o servidor não responder, os envios são suspensos com espera
+ * exponencial (de ESPERA_MINIMA_MS até ESPERA_MAXIMA_MS) sem bloquear o posto.
+ *
+ * Os contadores e o registo de leituras são propriedades e listas JavaFX,
+ * alteradas apenas na thread da interface, para que a vista possa fazer
+ * bind diretamente. O registo pertence ao posto e não à vista, por isso
+ * sobrevive à navegação entre páginas.
+ */
+public class SincronizadorCheckin {
+
+    static final int TAMANHO_LOTE = 100;
+    static final int MAXIMO_ENVIOS_EM_VOO = 3;
+    static final long ESPERA_MINIMA_MS = 1_000;
+    static final long ESPERA_MAXIMA_MS = 30_000;
+    static final int TAMANHO_REGISTO = 200;
+    static final long JANELA_RITMO_MS = 60_000;
+
+    private static SincronizadorCheckin instance;
+
+    private final DiarioCheckin diario;
+    private final InscricaoService inscricaoService = new InscricaoService();
+    private final ScheduledThreadPoolExecutor executor;
+
+    // Estado dos envios, protegido pelo monitor do sincronizador
+    private int enviosEmVoo;
+    private int falhasSeguidas;
+    private long retomarEm;
+    private boolean encerrado;
+
+    // Estado da interface, só acedido na thread JavaFX
+    // O extractor faz a lista notificar quando o estado de uma linha muda
+    private final ObservableList<LeituraPosto> registo = FXCollections.observableArrayList(
+            l -> new Observable[] { l.estadoProperty() });
+    private final Map<String, LeituraPosto> porResolver = new HashMap<>();
+    private final Deque<Long> instantesLeitura = new ArrayDeque<>();
+
+    private final ReadOnlyIntegerWrapper pendentes = new ReadOnlyIntegerWrapper();
+    private final ReadOnlyIntegerWrapper confirmados = new ReadOnlyIntegerWrapper();
+    private final ReadOnlyIntegerWrapper rejeitados = new ReadOnlyIntegerWrapper();
+    private final ReadOnlyIntegerWrapper leiturasPorMinuto = new ReadOnlyIntegerWrapper();
+    private final ReadOnlyBooleanWrapper online = new ReadOnlyBooleanWrapper(true);
+
+    private SincronizadorCheckin(DiarioCheckin diario) {
+        this.diario = diario;
+        this.executor = new ScheduledThreadPoolExecutor(MAXIMO_ENVIOS_EM_VOO, r -> {
+            Thread t = new Thread(r, "checkin-sincronizacao");
+            t.setDaemon(true);
+            return t;
+        });
+        // O ritmo também tem de descer quando não há leituras
+        executor.scheduleAtFixedRate(() -> Platform.runLater(this::atualizarRitmo), 5, 5, TimeUnit.SECONDS);
+        atualizarContadores();
+        acordar();
+    }
+
+    public static synchronized SincronizadorCheckin getInstance() {
+        if (instance == null) {
+            try {
+                instance = new SincronizadorCheckin(DiarioCheckin.abrir(ficheiroDiario()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Não foi possível abrir o diário de check-in", e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Fecha o diário, se o posto chegou a ser usado. Chamado ao sair da aplicação.
+     */
+    public static synchronized void encerrar() {
+        if (instance == null) {
+            return;
+        }
+        synchronized (instance) {
+            instance.encerrado = true;
+        }
+        instance.executor.shutdownNow();
+        try {
+            instance.diario.close();
+        } catch (IOException e) {
+            System.err.println("[SincronizadorCheckin] Erro ao fechar o diário: " + e.getMessage());
+        }
+        instance = null;
+    }
+
+    /**
+     * Regista uma leitura no posto. Deve ser chamado na thread JavaFX.
+     * Devolve o resultado da validação local; as leituras aceites são
+     * enviadas ao servidor em segundo plano e a respetiva linha do registo
+     * é atualizada quando o servidor responder.
+     */
+    public DiarioCheckin.ResultadoLocal registar(String token) throws IOException {
+        DiarioCheckin.ResultadoLocal resultado = diario.registar(token, LocalDateTime.now());
+
+        instantesLeitura.addLast(System.currentTimeMillis());
+        atualizarRitmo();
+
+        LeituraPosto linha = new LeituraPosto(token, LocalTime.now().withNano(0),
+                descricao(resultado), resultado == DiarioCheckin.ResultadoLocal.ACEITE);
+        registo.add(0, linha);
+        if (registo.size() > TAMANHO_REGISTO) {
+            LeituraPosto removida = registo.remove(registo.size() - 1);
+            porResolver.remove(removida.getToken(), removida);
+        }
+
+        if (resultado == DiarioCheckin.ResultadoLocal.ACEITE) {
+            porResolver.put(token, linha);
+            atualizarContadores();
+            acordar();
+        }
+        return resultado;
+    }
+
+    /** Últimas leituras do posto, da mais recente para a mais antiga. */
+    public ObservableList<LeituraPosto> getRegisto() {
+        return FXCollections.unmodifiableObservableList(registo);
+    }
+
+    public ReadOnlyIntegerProperty pendentesProperty() {
+        return pendentes.getReadOnlyProperty();
+    }
+
+    public ReadOnlyIntegerProperty confirmadosProperty() {
+        return confirmados.getReadOnlyProperty();
+    }
+
+    public ReadOnlyIntegerProperty rejeitadosProperty() {
+        return rejeitados.getReadOnlyProperty();
+    }
+
+    /** Leituras feitas no posto no último minuto, incluindo as rejeitadas localmente. */
+    public ReadOnlyIntegerProperty leiturasPorMinutoProperty() {
+        return leiturasPorMinuto.getReadOnlyProperty();
+    }
+
+    public ReadOnlyBooleanProperty onlineProperty() {
+        return online.getReadOnlyProperty();
+    }
+
+    /**
+     * Lança novos envios enquanto houver leituras por reservar e lugares
+     * livres, exceto durante a espera após uma falha.
+     */
+    private synchronized void acordar() {
+        if (encerrado || System.currentTimeMillis() < retomarEm) {
+            return;
+        }
+        while (enviosEmVoo < MAXIMO_ENVIOS_EM_VOO) {
+            List<CheckinLeituraDTO> lote = diario.reservar(TAMANHO_LOTE);
+            if (lote.isEmpty()) {
+                return;
+            }
+            enviosEmVoo++;
+            executor.execute(() -> enviar(lote));
+        }
+    }
+
+    private void enviar(List<CheckinLeituraDTO> lote) {
+        Map<String, String> aplicados = null;
+        List<CheckinResultadoDTO> resultados = inscricaoService.checkinEmLote(lote);
+        if (resultados != null && resultados.size() == lote.size()) {
+            try {
+                aplicados = diario.registarResultados(resultados);
+            } catch (IOException e) {
+                System.err.println("[SincronizadorCheckin] Erro ao escrever no diário: " + e.getMessage());
+            }
+        }
+        if (aplicados == null) {
+            diario.libertar(lote);
+        }
+
+        synchronized (this) {
+            enviosEmVoo--;
+            if (aplicados == null) {
+                falhasSeguidas++;
+                long espera = Math.min(ESPERA_MAXIMA_MS, ESPERA_MINIMA_MS << Math.min(falhasSeguidas - 1, 5));
+                retomarEm = System.currentTimeMillis() + espera;
+                if (!encerrado) {
+                    executor.schedule(this::acordar, espera, TimeUnit.MILLISECONDS);
+                }
+            } else {
+                falhasSeguidas = 0;
+                retomarEm = 0;
+            }
+        }
+
+        boolean ligado = aplicados != null;
+        Map<String, String> respostas = ligado ? aplicados : Map.of();
+        Platform.runLater(() -> {
+            online.set(ligado);
+            respostas.forEach((token, resultado) -> {
+                LeituraPosto linha = porResolver.remove(token);
+                if (linha != null) {
+                    linha.atualizar(descricao(resultado), CheckinResultadoDTO.OK.equals(resultado));
+                }
+            });
+        });
+        atualizarContadores();
+        acordar();
+    }
+
+    private void atualizarContadores() {
+        int p = diario.getPendentes();
+        int c = diario.getConfirmados();
+        int r = diario.getRejeitados();
+        Platform.runLater(() -> {
+            pendentes.set(p);
+            confirmados.set(c);
+            rejeitados.set(r);
+        });
+    }
+
+    private void atualizarRitmo() {
+        long limite = System.currentTimeMillis() - JANELA_RITMO_MS;
+        while (!instantesLeitura.isEmpty() && instantesLeitura.peekFirst() < limite) {
+            instantesLeitura.removeFirst();
+        }
+        leiturasPorMinuto.set(instantesLeitura.size());
+    }
+
+    private static String descricao(DiarioCheckin.ResultadoLocal resultado) {
+        return switch (resultado) {
+            case ACEITE -> "Pendente";
+            case DUPLICADO -> "Já lido neste posto";
+            case EXPIRADO -> "Expirado";
+            case INVALIDO -> "Código inválido";
+        };
+    }
+
+    private static String descricao(String resultado) {
+        return switch (resultado) {
+            case CheckinResultadoDTO.OK -> "Confirmado";
+            case CheckinResultadoDTO.DUPLICADO -> "Check-in já feito";
+            case CheckinResultadoDTO.EXPIRADO -> "Expirado";
+            default -> "Código inválido";
+        };
+    }
+
+    private static Path ficheiroDiario() {
+        return Paths.get(System.getProperty("user.home"), ".gestaoeventos", "checkin-diario.log");
+    }
+}
@@ -0,0 +1,195 @@
+package gestaoeventos.client.service;
+
+import gestaoeventos.dto.AlteracaoDTO;
+import javafx.application.Platform;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Subscrição única da aplicação a /api/stream/changes (Server-Sent Events).
+ *
+ * Os controllers registam ouvintes e atualizam os seus dados com as
+ * alterações recebidas, em vez de voltarem a pedir as listas completas.
+ * Os ouvintes são chamados na thread JavaFX. Um REINICIAR indica que houve
+ * alterações perdidas e que os dados locais devem ser recarregados.
+ *
+ * Se a ligação cair, ou ficar mais de SILENCIO_MAXIMO_MS sem receber nada
+ * (o servidor envia heartbeats), volta a ligar com espera exponencial e
+ * envia o id do último evento em Last-Event-ID para receber o que perdeu.
+ * O corte por silêncio fecha diretamente o InputStream da resposta, o que
+ * faz falhar a leitura em curso sem esperar pelo leitor de linhas.
+ */
+public class SubscricaoAlteracoes extends ApiClient {
+
+    static final long ESPERA_MINIMA_MS = 1_000;
+    static final long ESPERA_MAXIMA_MS = 30_000;
+    static final long SILENCIO_MAXIMO_MS = 45_000;
+
+    private static SubscricaoAlteracoes instance;
+
+    private final List<Consumer<AlteracaoDTO>> ouvintes = new CopyOnWriteArrayList<>();
+    private final ScheduledThreadPoolExecutor executor;
+
+    // Só alterados pela thread que lê o stream
+    private String ultimoId;
+    private int falhasSeguidas;
+
+    private volatile long ultimaLinhaEm;
+    private volatile InputStream ligacao;
+    private volatile boolean encerrado;
+
+    private SubscricaoAlteracoes() {
+        this.executor = new ScheduledThreadPoolExecutor(2, r -> {
+            Thread t = new Thread(r, "alteracoes-subscricao");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleAtFixedRate(this::verificarSilencio, SILENCIO_MAXIMO_MS / 3, SILENCIO_MAXIMO_MS / 3,
+                TimeUnit.MILLISECONDS);
+        executor.execute(this::ligar);
+    }
+
+    public static synchronized SubscricaoAlteracoes getInstance() {
+        if (instance == null) {
+            instance = new SubscricaoAlteracoes();
+        }
+        return instance;
+    }
+
+    /**
+     * Fecha a ligação, se chegou a ser aberta. Chamado ao sair da aplicação.
+     */
+    public static synchronized void encerrar() {
+        if (instance == null) {
+            return;
+        }
+        instance.encerrado = true;
+        instance.fecharLigacao();
+        instance.executor.shutdownNow();
+        instance = null;
+    }
+
+    /**
+     * Regista um ouvinte das alterações. Devolve a ação que o remove, a
+     * chamar quando a vista que o registou deixar de estar visível.
+     */
+    public Runnable subscrever(Consumer<AlteracaoDTO> ouvinte) {
+        ouvintes.add(ouvinte);
+        return () -> ouvintes.remove(ouvinte);
+    }
+
+    private void ligar() {
+        if (encerrado) {
+            return;
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(BASE_URL + "/stream/changes"))
+                .header("Accept", "text/event-stream")
+                .GET();
+        if (ultimoId != null) {
+            builder.header("Last-Event-ID", ultimoId);
+        }
+
+        try {
+            HttpResponse<InputStream> response = client.send(builder.build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream corpo = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new IOException("Status " + response.statusCode());
+                }
+                falhasSeguidas = 0;
+                ultimaLinhaEm = System.currentTimeMillis();
+                ligacao = corpo;
+                lerEventos(new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8)));
+            }
+        } catch (IOException e) {
+            if (!encerrado) {
+                falhasSeguidas++;
+                System.err.println("[SubscricaoAlteracoes] Ligação perdida: " + e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            ligacao = null;
+        }
+
+        if (!encerrado) {
+            long espera = falhasSeguidas == 0 ? ESPERA_MINIMA_MS
+                    : Math.min(ESPERA_MAXIMA_MS, ESPERA_MINIMA_MS << Math.min(falhasSeguidas - 1, 5));
+            executor.schedule(this::ligar, espera, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Lê os eventos SSE: campos id, event e data até uma linha vazia.
+     * Linhas começadas por ':' são comentários (heartbeats).
+     */
+    private void lerEventos(BufferedReader linhas) throws IOException {
+        StringBuilder dados = new StringBuilder();
+        String id = null;
+        String linha;
+        while ((linha = linhas.readLine()) != null) {
+            ultimaLinhaEm = System.currentTimeMillis();
+            if (linha.isEmpty()) {
+                if (id != null) {
+                    ultimoId = id;
+                }
+                if (dados.length() > 0) {
+                    entregar(dados.toString());
+                }
+                dados.setLength(0);
+                id = null;
+            } else if (linha.startsWith("id:")) {
+                id = linha.substring(3).strip();
+            } else if (linha.startsWith("data:")) {
+                if (dados.length() > 0) {
+                    dados.append('\n');
+                }
+                dados.append(linha.substring(5).strip());
+            }
+        }
+    }
+
+    private void entregar(String json) {
+        AlteracaoDTO alteracao;
+        try {
+            alteracao = ler(json, AlteracaoDTO.class);
+        } catch (IOException e) {
+            System.err.println("[SubscricaoAlteracoes] Evento inválido ignorado: " + e.getMessage());
+            return;
+        }
+        Platform.runLater(() -> ouvintes.forEach(o -> o.accept(alteracao)));
+    }
+
+    private void verificarSilencio() {
+        if (ligacao != null && System.currentTimeMillis() - ultimaLinhaEm > SILENCIO_MAXIMO_MS) {
+            System.err.println("[SubscricaoAlteracoes] Sem heartbeat do servidor, a voltar a ligar");
+            fecharLigacao();
+        }
+    }
+
+    private void fecharLigacao() {
+        InputStream atual = ligacao;
+        if (atual == null) {
+            return;
+        }
+        try {
+            atual.close();
+        } catch (IOException e) {
+            // a leitura em curso falha de qualquer forma
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package gestaoeventos.client.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Transporte HTTP partilhado por todos os serviços cliente.
+ *
+ * Os serviços são criados por cada controller, e os controllers a cada
+ * navegação; por isso o HttpClient (e o seu conjunto de ligações), o
+ * executor e o ObjectMapper existem uma só vez na aplicação. O HttpClient
+ * pede HTTP/2 (h2c) e, se o servidor não o suportar, fica em HTTP/1.1 com
+ * ligações keep-alive reutilizadas entre pedidos.
+ *
+ * Os ObjectReader e ObjectWriter de cada tipo são criados uma vez e
+ * guardados: o (de)serializador do tipo só é construído no primeiro uso.
+ */
+public final class TransporteHttp {
+
+    private static final int THREADS = 4;
+
+    private static TransporteHttp instance;
+
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final ObjectMapper mapper;
+    private final Map<JavaType, ObjectReader> leitores = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> escritores = new ConcurrentHashMap<>();
+
+    private TransporteHttp() {
+        this.executor = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread t = new Thread(r, "api-http");
+            t.setDaemon(true);
+            return t;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(executor)
+                .build();
+        this.mapper = new ObjectMapper();
+        this.mapper.registerModule(new JavaTimeModule()); // Para suporte a LocalDateTime
+    }
+
+    public static synchronized TransporteHttp getInstance() {
+        if (instance == null) {
+            instance = new TransporteHttp();
+        }
+        return instance;
+    }
+
+    public HttpClient getClient() {
+        return client;
+    }
+
+    public ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    public ObjectReader leitor(JavaType tipo) {
+        return leitores.computeIfAbsent(tipo, mapper::readerFor);
+    }
+
+    public ObjectReader leitor(Class<?> tipo) {
+        return leitor(mapper.constructType(tipo));
+    }
+
+    public ObjectWriter escritor(Class<?> tipo) {
+        return escritores.computeIfAbsent(tipo, mapper::writerFor);
+    }
+
+    /**
+     * Abre a primeira ligação ao servidor e prepara os leitores dos tipos
+     * indicados, em segundo plano, para que o primeiro pedido do utilizador
+     * não pague esse custo.
+     */
+    public CompletableFuture<Void> aquecer(String url, JavaType... tipos) {
+        HttpRequest pedido = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        CompletableFuture<Void> ligacao = client.sendAsync(pedido, HttpResponse.BodyHandlers.discarding())
+                .handle((resposta, erro) -> {
+                    if (erro != null) {
+                        System.err.println("[TransporteHttp] Servidor indisponível no arranque: " + erro.getMessage());
+                    }
+                    return null;
+                });
+        CompletableFuture<Void> leitoresProntos = CompletableFuture.runAsync(() -> {
+            for (JavaType tipo : tipos) {
+                leitor(tipo);
+            }
+        }, executor);
+        return CompletableFuture.allOf(ligacao, leitoresProntos);
+    }
+
+    /**
+     * Termina o executor. Chamado ao sair da aplicação.
+     */
+    public static synchronized void encerrar() {
+        if (instance != null) {
+            instance.executor.shutdownNow();
+            instance = null;
+        }
+    }
+}
@@ -3,10 +3,10 @@ package gestaoeventos.client.service;
 import com.fasterxml.jackson.core.type.TypeReference;
 import gestaoeventos.dto.UtilizadorDTO;
 import gestaoeventos.dto.UtilizadorCreateDTO;
+import gestaoeventos.dto.PaginaDTO;
 
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -24,22 +24,21 @@ import java.util.List;
 public class UtilizadorClientService extends ApiClient {
 
     /**
-     * Lista todos os utilizadores do sistema.
+     * Lista todos os utilizadores do sistema, percorrendo todas as páginas.
      * 
      */
     public List<UtilizadorDTO> listarTodos() {
-        try {
-            HttpRequest request = getBuilder("/utilizadores").build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), new TypeReference<List<UtilizadorDTO>>() {
-                });
-            }
-            logError("listarTodos", response.statusCode(), response.body());
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return Collections.emptyList();
+        return lerTodasPaginas("/utilizadores", new TypeReference<PaginaDTO<UtilizadorDTO>>() {
+        });
+    }
+
+    /**
+     * Iterador página a página sobre os utilizadores, ordenados por número.
+     * 
+     */
+    public PaginaIterator<UtilizadorDTO> paginas() {
+        return iterarPaginas("/utilizadores", new TypeReference<PaginaDTO<UtilizadorDTO>>() {
+        });
     }
 
     /**
@@ -48,12 +47,10 @@ public class UtilizadorClientService extends ApiClient {
      */
     public UtilizadorDTO obterPorNumero(Integer numero) {
         try {
-            HttpRequest request = getBuilder("/utilizadores/" + numero).build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), UtilizadorDTO.class);
+            UtilizadorDTO dto = getComCache("/utilizadores/" + numero, UtilizadorDTO.class, "obterPorNumero");
+            if (dto != null) {
+                return dto;
             }
-            logError("obterPorNumero", response.statusCode(), response.body());
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -67,13 +64,13 @@ public class UtilizadorClientService extends ApiClient {
      */
     public UtilizadorDTO criar(UtilizadorCreateDTO dto) {
         try {
-            String json = mapper.writeValueAsString(dto);
+            String json = escrever(dto);
             HttpRequest request = postBuilder("/utilizadores")
                     .POST(HttpRequest.BodyPublishers.ofString(json))
                     .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200 || response.statusCode() == 201) {
-                return mapper.readValue(response.body(), UtilizadorDTO.class);
+                return ler(response.body(), UtilizadorDTO.class);
             }
             logError("criar", response.statusCode(), response.body());
         } catch (Exception e) {
@@ -88,7 +85,7 @@ public class UtilizadorClientService extends ApiClient {
      */
     public UtilizadorDTO atualizar(Integer numero, UtilizadorCreateDTO dto) {
         try {
-            String json = mapper.writeValueAsString(dto);
+            String json = escrever(dto);
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(java.net.URI.create(BASE_URL + "/utilizadores/" + numero))
                     .header("Content-Type", "application/json")
@@ -96,7 +93,7 @@ public class UtilizadorClientService extends ApiClient {
                     .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), UtilizadorDTO.class);
+                return ler(response.body(), UtilizadorDTO.class);
             }
             logError("atualizar", response.statusCode(), response.body());
         } catch (Exception e) {
@@ -139,7 +136,7 @@ public class UtilizadorClientService extends ApiClient {
                     .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), UtilizadorDTO.class);
+                return ler(response.body(), UtilizadorDTO.class);
             }
             logError("ativar", response.statusCode(), response.body());
         } catch (Exception e) {
@@ -161,7 +158,7 @@ public class UtilizadorClientService extends ApiClient {
                     .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
-                return mapper.readValue(response.body(), UtilizadorDTO.class);
+                return ler(response.body(), UtilizadorDTO.class);
             }
             logError("desativar", response.statusCode(), response.body());
         } catch (Exception e) {
@@ -0,0 +1,25 @@
+package gestaoeventos.client.util;
+
+import gestaoeventos.dto.EstatisticasEventoDTO;
+
+/**
+ * Classe utilitária para formatar dados de eventos nas tabelas.
+ */
+public class EventoFormatoHelper {
+
+    /**
+     * Texto da coluna de ocupação: inscritos/lotação (percentagem), só os
+     * inscritos se o evento não tiver lotação, ou vazio se as estatísticas
+     * ainda não chegaram.
+     */
+    public static String formatarOcupacao(EstatisticasEventoDTO stats) {
+        if (stats == null) {
+            return "";
+        }
+        if (stats.getMaxParticipantes() == null) {
+            return String.valueOf(stats.getInscricoesAtivas());
+        }
+        return stats.getInscricoesAtivas() + "/" + stats.getMaxParticipantes()
+                + String.format(" (%.0f%%)", stats.getPercentualOcupacao());
+    }
+}
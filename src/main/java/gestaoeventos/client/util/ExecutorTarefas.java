@@ -0,0 +1,279 @@
+package gestaoeventos.client.util;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Executor partilhado das tarefas em segundo plano dos controllers.
+ *
+ * As tarefas correm num conjunto limitado de threads daemon, em vez de uma
+ * thread nova por pedido. Os carregamentos de uma vista ficam associados ao
+ * seu controller (o "dono"): quando o PageNavigator troca de página cancela
+ * os que ainda estão em curso, e os seus resultados já não chegam à vista.
+ * Pedidos já enviados ao servidor terminam, mas o resultado é descartado.
+ *
+ * As operações de escrita (inscrever, cancelar, check-in) usam executar e
+ * não são canceladas, para não ficarem a meio sem o utilizador saber.
+ *
+ * Cada carregamento mais lento que LIMITE_LENTO_MS fica registado no log, e
+ * quandoConcluidas permite ao PageNavigator medir quanto tempo a página
+ * demorou até ter todos os dados.
+ */
+public final class ExecutorTarefas {
+
+    static final int THREADS = 4;
+    static final long LIMITE_LENTO_MS = 1_000;
+
+    private static ExecutorTarefas instance;
+
+    private final ExecutorService executor;
+    private final ScheduledExecutorService agendador;
+
+    // Protegido pelo monitor do executor
+    private final Map<Object, Vista> vistas = new IdentityHashMap<>();
+
+    private ExecutorTarefas() {
+        this.executor = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread t = new Thread(r, "ui-tarefas");
+            t.setDaemon(true);
+            return t;
+        });
+        this.agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ui-agendador");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static synchronized ExecutorTarefas getInstance() {
+        if (instance == null) {
+            instance = new ExecutorTarefas();
+        }
+        return instance;
+    }
+
+    /**
+     * Termina as threads. Chamado ao sair da aplicação.
+     */
+    public static synchronized void encerrar() {
+        if (instance != null) {
+            instance.executor.shutdownNow();
+            instance.agendador.shutdownNow();
+            instance = null;
+        }
+    }
+
+    /**
+     * Corre um carregamento da vista do dono. Se a vista for fechada antes
+     * de terminar, a tarefa fica CANCELLED e os seus onSucceeded/onFailed
+     * não são chamados.
+     */
+    public <T> Task<T> carregar(Object dono, String nome, Task<T> task) {
+        Registo registo = registar(dono, nome, true);
+        FutureTask<Void> execucao = new FutureTask<>(() -> {
+            try {
+                task.run();
+            } finally {
+                concluir(registo);
+            }
+        }, null);
+        registo.cancelar = () -> {
+            task.cancel(false);
+            if (execucao.cancel(false)) {
+                // nunca chegou a correr
+                concluir(registo);
+            }
+        };
+        executor.execute(execucao);
+        return task;
+    }
+
+    /**
+     * Entrega na thread JavaFX o resultado de um pedido assíncrono da vista
+     * do dono, a não ser que a vista tenha sido fechada entretanto.
+     */
+    public <T> void carregar(Object dono, String nome, CompletableFuture<T> pedido,
+            Consumer<T> aoConcluir, Consumer<Throwable> aoFalhar) {
+        Registo registo = registar(dono, nome, true);
+        registo.cancelar = () -> pedido.cancel(false);
+        pedido.whenComplete((valor, erro) -> {
+            concluir(registo);
+            if (registo.cancelado) {
+                return;
+            }
+            Platform.runLater(() -> {
+                if (registo.cancelado) {
+                    return;
+                }
+                if (erro != null) {
+                    aoFalhar.accept(erro);
+                } else {
+                    aoConcluir.accept(valor);
+                }
+            });
+        });
+    }
+
+    /**
+     * Corre uma operação que deve terminar mesmo que o utilizador mude de
+     * página entretanto.
+     */
+    public <T> Task<T> executar(String nome, Task<T> task) {
+        long inicio = System.nanoTime();
+        executor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                reportar(nome, inicio);
+            }
+        });
+        return task;
+    }
+
+    /**
+     * Corre a ação na thread JavaFX depois do atraso indicado, se a vista do
+     * dono ainda estiver aberta. Devolve a ação que a cancela.
+     */
+    public Runnable depois(Object dono, Duration atraso, Runnable acao) {
+        Registo registo = registar(dono, "depois", false);
+        ScheduledFuture<?> agendada = agendador.schedule(() -> {
+            concluir(registo);
+            Platform.runLater(() -> {
+                if (!registo.cancelado) {
+                    acao.run();
+                }
+            });
+        }, atraso.toMillis(), TimeUnit.MILLISECONDS);
+        registo.cancelar = () -> {
+            if (agendada.cancel(false)) {
+                concluir(registo);
+            }
+        };
+        return registo::cancelarSoEste;
+    }
+
+    /**
+     * Chama a ação na thread JavaFX quando o dono deixar de ter
+     * carregamentos em curso, ou logo, se já não tiver nenhum.
+     */
+    public void quandoConcluidas(Object dono, Runnable acao) {
+        synchronized (this) {
+            Vista vista = vistas.get(dono);
+            if (vista != null && vista.pendentes() > 0) {
+                vista.aoConcluir.add(acao);
+                return;
+            }
+        }
+        Platform.runLater(acao);
+    }
+
+    /**
+     * Cancela tudo o que está em curso para a vista do dono.
+     */
+    public void cancelar(Object dono) {
+        List<Registo> registos;
+        synchronized (this) {
+            Vista vista = vistas.remove(dono);
+            if (vista == null) {
+                return;
+            }
+            registos = new ArrayList<>(vista.emCurso);
+        }
+        for (Registo registo : registos) {
+            registo.cancelado = true;
+            if (registo.cancelar != null) {
+                registo.cancelar.run();
+            }
+        }
+    }
+
+    private synchronized Registo registar(Object dono, String nome, boolean medir) {
+        Registo registo = new Registo(dono, nome, medir);
+        vistas.computeIfAbsent(dono, d -> new Vista()).emCurso.add(registo);
+        return registo;
+    }
+
+    private void concluir(Registo registo) {
+        List<Runnable> prontas = null;
+        synchronized (this) {
+            Vista vista = vistas.get(registo.dono);
+            if (vista == null || !vista.emCurso.remove(registo)) {
+                return;
+            }
+            if (vista.pendentes() == 0) {
+                prontas = new ArrayList<>(vista.aoConcluir);
+                vista.aoConcluir.clear();
+                if (vista.emCurso.isEmpty()) {
+                    vistas.remove(registo.dono);
+                }
+            }
+        }
+        if (registo.medir && !registo.cancelado) {
+            reportar(registo.nome, registo.inicio);
+        }
+        if (prontas != null && !registo.cancelado) {
+            prontas.forEach(Platform::runLater);
+        }
+    }
+
+    private void reportar(String nome, long inicio) {
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        if (ms > LIMITE_LENTO_MS) {
+            System.err.println("[ExecutorTarefas] " + nome + " demorou " + ms + " ms");
+        }
+    }
+
+    private static final class Vista {
+        private final Set<Registo> emCurso = new HashSet<>();
+        private final List<Runnable> aoConcluir = new ArrayList<>();
+
+        /** Carregamentos em curso, sem contar as ações adiadas. */
+        int pendentes() {
+            int n = 0;
+            for (Registo registo : emCurso) {
+                if (registo.medir) {
+                    n++;
+                }
+            }
+            return n;
+        }
+    }
+
+    private static final class Registo {
+        private final Object dono;
+        private final String nome;
+        private final boolean medir;
+        private final long inicio = System.nanoTime();
+        private volatile Runnable cancelar;
+        private volatile boolean cancelado;
+
+        Registo(Object dono, String nome, boolean medir) {
+            this.dono = dono;
+            this.nome = nome;
+            this.medir = medir;
+        }
+
+        void cancelarSoEste() {
+            cancelado = true;
+            if (cancelar != null) {
+                cancelar.run();
+            }
+        }
+    }
+}
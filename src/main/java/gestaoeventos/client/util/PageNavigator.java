@@ -8,12 +8,17 @@ import javafx.util.Duration;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Classe utilitária para navegação entre páginas na aplicação.
  * 
  * O PageNavigator é responsável por carregar diferentes views FXML
  * para a área de conteúdo principal, com animações suaves de transição.
+ *
+ * Ao trocar de página cancela os carregamentos da página anterior que
+ * ainda estejam em curso (ver ExecutorTarefas) e regista quanto tempo a
+ * nova página demorou a ficar pronta, com todos os seus dados.
  * 
  */
 public class PageNavigator {
@@ -21,6 +26,9 @@ public class PageNavigator {
     /** Área de conteúdo principal onde as páginas são carregadas */
     private static StackPane mainContentArea;
 
+    /** Controller da página mostrada, dono das suas tarefas */
+    private static Object controllerAtual;
+
     /**
      * Define a área de conteúdo onde as páginas serão carregadas.
      * Deve ser chamado uma vez durante a inicialização da aplicação.
@@ -41,6 +49,9 @@ public class PageNavigator {
             return;
         }
 
+        fecharPaginaAtual();
+        long inicio = System.nanoTime();
+
         try {
             URL resource = PageNavigator.class.getResource("/view/" + fxmlName);
             if (resource == null) {
@@ -49,6 +60,19 @@ public class PageNavigator {
 
             FXMLLoader loader = new FXMLLoader(resource);
             Parent view = loader.load();
+            long vistaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+            Object controller = loader.getController();
+            if (controller != null) {
+                controllerAtual = controller;
+                ExecutorTarefas.getInstance().quandoConcluidas(controller, () -> {
+                    if (controllerAtual == controller) {
+                        long totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                        System.err.println("[PageNavigator] " + fxmlName + " pronta em " + totalMs
+                                + " ms (vista " + vistaMs + " ms)");
+                    }
+                });
+            }
 
             // Animação
             view.setOpacity(0);
@@ -71,6 +95,17 @@ public class PageNavigator {
         }
     }
 
+    /**
+     * Cancela as tarefas em curso da página mostrada. Chamado antes de
+     * carregar outra página e ao terminar a sessão.
+     */
+    public static void fecharPaginaAtual() {
+        if (controllerAtual != null) {
+            ExecutorTarefas.getInstance().cancelar(controllerAtual);
+            controllerAtual = null;
+        }
+    }
+
     /**
      * Obtém um FXMLLoader para carregar views manualmente.
      * Útil para abrir modais ou obter acesso ao controller.
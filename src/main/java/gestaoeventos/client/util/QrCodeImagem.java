@@ -0,0 +1,53 @@
+package gestaoeventos.client.util;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Desenha QR codes diretamente numa imagem JavaFX a partir do token,
+ * sem pedir a imagem ao servidor nem a serviços externos.
+ */
+public class QrCodeImagem {
+
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(
+            EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M,
+            EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name(),
+            EncodeHintType.MARGIN, 2);
+
+    private QrCodeImagem() {
+    }
+
+    /**
+     * Gera a imagem do QR code com o lado indicado em píxeis.
+     * Devolve null se o token não puder ser codificado.
+     */
+    public static Image gerar(String token, int lado) {
+        BitMatrix matriz;
+        try {
+            matriz = new QRCodeWriter().encode(token, BarcodeFormat.QR_CODE, lado, lado, HINTS);
+        } catch (WriterException | IllegalArgumentException e) {
+            System.err.println("[QrCodeImagem] Erro ao gerar QR code: " + e.getMessage());
+            return null;
+        }
+
+        WritableImage imagem = new WritableImage(matriz.getWidth(), matriz.getHeight());
+        PixelWriter pw = imagem.getPixelWriter();
+        for (int y = 0; y < matriz.getHeight(); y++) {
+            for (int x = 0; x < matriz.getWidth(); x++) {
+                pw.setColor(x, y, matriz.get(x, y) ? Color.BLACK : Color.WHITE);
+            }
+        }
+        return imagem;
+    }
+}
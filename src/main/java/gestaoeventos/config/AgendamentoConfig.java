@@ -0,0 +1,12 @@
+package gestaoeventos.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Ativa as tarefas periódicas (@Scheduled), como a retenção da auditoria.
+ */
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+}
@@ -0,0 +1,68 @@
+package gestaoeventos.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache com Caffeine, em memória).
+ *
+ * Cada região é criada aqui com tamanho máximo e TTL explícitos; regiões
+ * não declaradas fazem falhar o arranque em vez de serem criadas sem limites.
+ * As escritas feitas pelo Hibernate (save/delete nos repositórios) atualizam
+ * ou removem as entradas; UPDATE/DELETE em JPQL limpam a região inteira.
+ */
+@Configuration
+public class CacheConfig {
+
+    // Nomes usados em @Cache(region = ...) nas entidades Local e Utilizador
+    public static final String REGIAO_LOCAL = "local";
+    public static final String REGIAO_UTILIZADOR = "utilizador";
+    public static final String REGIAO_CONSULTAS = "default-query-results-region";
+    public static final String REGIAO_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate(
+            @Value("${cache.local.tamanho:1000}") long tamanhoLocal,
+            @Value("${cache.local.ttl:PT1H}") Duration ttlLocal,
+            @Value("${cache.utilizador.tamanho:20000}") long tamanhoUtilizador,
+            @Value("${cache.utilizador.ttl:PT10M}") Duration ttlUtilizador,
+            @Value("${cache.consultas.tamanho:200}") long tamanhoConsultas,
+            @Value("${cache.consultas.ttl:PT10M}") Duration ttlConsultas) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        cacheManager.createCache(REGIAO_LOCAL, regiao(tamanhoLocal, ttlLocal));
+        cacheManager.createCache(REGIAO_UTILIZADOR, regiao(tamanhoUtilizador, ttlUtilizador));
+        cacheManager.createCache(REGIAO_CONSULTAS, regiao(tamanhoConsultas, ttlConsultas));
+        // Os timestamps de atualização das tabelas não podem expirar nem ser
+        // despejados antes dos resultados que validam: sem limites
+        cacheManager.createCache(REGIAO_TIMESTAMPS, new CaffeineConfiguration<>().setStatisticsEnabled(true));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager cacheManagerHibernate) {
+        return propriedades -> {
+            propriedades.put("hibernate.cache.use_second_level_cache", true);
+            propriedades.put("hibernate.cache.use_query_cache", true);
+            propriedades.put("hibernate.cache.region.factory_class", "jcache");
+            propriedades.put("hibernate.javax.cache.cache_manager", cacheManagerHibernate);
+            propriedades.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            // necessário para as métricas de hits/misses por região
+            propriedades.put("hibernate.generate_statistics", true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> regiao(long tamanho, Duration ttl) {
+        return new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(tamanho))
+                .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()))
+                .setStatisticsEnabled(true);
+    }
+}
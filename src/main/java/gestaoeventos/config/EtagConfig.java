@@ -0,0 +1,31 @@
+package gestaoeventos.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETags e pedidos condicionais para as leituras da API.
+ *
+ * O filtro calcula um ETag forte a partir do hash do corpo de cada resposta
+ * 200 a um GET e responde 304, sem corpo, quando o If-None-Match coincide.
+ * O servidor continua a gerar a resposta, mas o cliente deixa de a
+ * descarregar e de a converter quando nada mudou.
+ *
+ * As respostas que já trazem ETag próprio (imagens de QR code) passam sem
+ * ser copiadas; as respostas em streaming devem chamar
+ * ShallowEtagHeaderFilter.disableContentCaching no início do pedido.
+ */
+@Configuration
+public class EtagConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> filtroEtag() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registo =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registo.addUrlPatterns("/api/*");
+        registo.setName("filtroEtag");
+        return registo;
+    }
+}
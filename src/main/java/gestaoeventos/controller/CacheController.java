@@ -0,0 +1,25 @@
+package gestaoeventos.controller;
+
+import gestaoeventos.dto.MetricasCacheDTO;
+import gestaoeventos.service.CacheService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final CacheService cacheService;
+
+    public CacheController(CacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @GetMapping("/metricas")
+    public List<MetricasCacheDTO> obterMetricas() {
+        return cacheService.obterMetricas();
+    }
+}
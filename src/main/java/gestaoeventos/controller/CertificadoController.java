@@ -1,6 +1,8 @@
 package gestaoeventos.controller;
 
 import gestaoeventos.dto.CertificadoDTO;
+import gestaoeventos.dto.EmissaoCertificadosDTO;
+import gestaoeventos.dto.PaginaDTO;
 import gestaoeventos.entity.TipoCertificado;
 import gestaoeventos.service.CertificadoService;
 import org.springframework.http.HttpStatus;
@@ -25,8 +27,10 @@ public class CertificadoController {
     }
 
     @GetMapping("/evento/{eventoId}")
-    public List<CertificadoDTO> listarPorEvento(@PathVariable Integer eventoId) {
-        return certificadoService.listarPorEvento(eventoId);
+    public PaginaDTO<CertificadoDTO> listarPorEvento(@PathVariable Integer eventoId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        return certificadoService.listarPorEvento(eventoId, cursor, tamanho);
     }
 
     @GetMapping("/verificar/{codigo}")
@@ -55,7 +59,7 @@ public class CertificadoController {
     }
 
     @PostMapping("/emitir-em-massa/{eventoId}")
-    public ResponseEntity<String> emitirCertificadosEmMassa(
+    public ResponseEntity<EmissaoCertificadosDTO> emitirCertificadosEmMassa(
             @PathVariable Integer eventoId,
             @RequestParam Integer emitidoPorNumero,
             @RequestParam(required = false) String tipo) {
@@ -69,7 +73,8 @@ public class CertificadoController {
             }
         }
 
-        certificadoService.emitirCertificadosEmMassaComTipo(eventoId, emitidoPorNumero, tipoCert);
-        return ResponseEntity.ok("Certificados emitidos com sucesso para todos os participantes com check-in");
+        EmissaoCertificadosDTO resultado = certificadoService.emitirCertificadosEmMassaComTipo(eventoId,
+                emitidoPorNumero, tipoCert);
+        return ResponseEntity.ok(resultado);
     }
 }
@@ -4,6 +4,7 @@ import gestaoeventos.dto.EventoCreateDTO;
 import gestaoeventos.dto.EventoDTO;
 import gestaoeventos.dto.EstatisticasEventoDTO;
 import gestaoeventos.dto.InscricaoResultadoDTO;
+import gestaoeventos.dto.PaginaDTO;
 import gestaoeventos.service.EventoService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,18 +27,22 @@ public class EventoController {
     }
 
     @GetMapping("/search")
-    public List<EventoDTO> pesquisar(
+    public PaginaDTO<EventoDTO> pesquisar(
             @RequestParam(required = false) String inicio,
             @RequestParam(required = false) String fim,
             @RequestParam(required = false) String tipo,
             @RequestParam(required = false) Integer localId,
-            @RequestParam(required = false) Integer organizadorNumero) {
-        return eventoService.pesquisar(inicio, fim, tipo, localId, organizadorNumero);
+            @RequestParam(required = false) Integer organizadorNumero,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        return eventoService.pesquisar(inicio, fim, tipo, localId, organizadorNumero, cursor, tamanho);
     }
 
     @GetMapping
-    public List<EventoDTO> listar() {
-        return eventoService.listarTodos();
+    public PaginaDTO<EventoDTO> listar(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        return eventoService.listarTodos(cursor, tamanho);
     }
 
     @GetMapping("/{id}")
@@ -77,6 +82,13 @@ public class EventoController {
         return ResponseEntity.ok(resultado);
     }
 
+    @GetMapping("/estatisticas")
+    public List<EstatisticasEventoDTO> obterEstatisticasEmLote(
+            @RequestParam(required = false) List<Integer> ids,
+            @RequestParam(required = false) Integer organizadorNumero) {
+        return eventoService.obterEstatisticasEmLote(ids, organizadorNumero);
+    }
+
     @GetMapping("/{id}/estatisticas")
     public EstatisticasEventoDTO obterEstatisticas(@PathVariable Integer id) {
         return eventoService.obterEstatisticas(id);
@@ -1,11 +1,17 @@
 package gestaoeventos.controller;
 
+import gestaoeventos.dto.CheckinLoteDTO;
+import gestaoeventos.dto.CheckinResultadoDTO;
 import gestaoeventos.dto.InscricaoDTO;
 import gestaoeventos.exception.BusinessException;
 import gestaoeventos.service.InscricaoService;
+import gestaoeventos.service.QrCodeService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -69,6 +75,31 @@ public class InscricaoController {
         );
     }
 
+    // --- QR CODE: IMAGEM GERADA NO SERVIDOR ---
+
+    // O Spring responde 304 sozinho quando o If-None-Match coincide com o ETag
+    @GetMapping("/{id}/qrcode.png")
+    public ResponseEntity<byte[]> obterQrCodePng(@PathVariable Integer id,
+            @RequestParam(required = false) Integer tamanho) {
+        return imagemQrCode(inscricaoService.obterQrCodeImagem(id, QrCodeService.Formato.PNG, tamanho),
+                MediaType.IMAGE_PNG);
+    }
+
+    @GetMapping("/{id}/qrcode.svg")
+    public ResponseEntity<byte[]> obterQrCodeSvg(@PathVariable Integer id,
+            @RequestParam(required = false) Integer tamanho) {
+        return imagemQrCode(inscricaoService.obterQrCodeImagem(id, QrCodeService.Formato.SVG, tamanho),
+                MediaType.valueOf("image/svg+xml"));
+    }
+
+    private static ResponseEntity<byte[]> imagemQrCode(QrCodeService.ImagemQrCode imagem, MediaType tipo) {
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .eTag(imagem.etag())
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePrivate())
+                .body(imagem.dados());
+    }
+
     // --- CHECK-IN POR TOKEN DE QR CODE ---
 
     @PostMapping("/checkin/qrcode")
@@ -79,4 +110,9 @@ public class InscricaoController {
         }
         return inscricaoService.fazerCheckinPorToken(token);
     }
+
+    @PostMapping("/checkin/batch")
+    public List<CheckinResultadoDTO> checkinEmLote(@RequestBody CheckinLoteDTO lote) {
+        return inscricaoService.fazerCheckinEmLote(lote.getLeituras());
+    }
 }
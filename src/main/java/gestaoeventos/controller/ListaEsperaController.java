@@ -2,6 +2,7 @@ package gestaoeventos.controller;
 
 import gestaoeventos.dto.ListaEsperaDTO;
 import gestaoeventos.service.ListaEsperaService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -20,4 +21,15 @@ public class ListaEsperaController {
     public List<ListaEsperaDTO> listarPorEvento(@PathVariable Integer eventoId) {
         return listaEsperaService.listarPorEvento(eventoId);
     }
+
+    @GetMapping("/evento/{eventoId}/utilizador/{numero}")
+    public ListaEsperaDTO obterPosicao(@PathVariable Integer eventoId, @PathVariable Integer numero) {
+        return listaEsperaService.obterPosicao(eventoId, numero);
+    }
+
+    @DeleteMapping("/evento/{eventoId}/utilizador/{numero}")
+    public ResponseEntity<Void> sair(@PathVariable Integer eventoId, @PathVariable Integer numero) {
+        listaEsperaService.sair(eventoId, numero);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,9 +1,23 @@
 package gestaoeventos.controller;
 
 import gestaoeventos.dto.LogAuditoriaDTO;
+import gestaoeventos.dto.MetricasAuditoriaDTO;
+import gestaoeventos.dto.PaginaDTO;
+import gestaoeventos.exception.BusinessException;
+import gestaoeventos.service.AuditoriaAppender;
 import gestaoeventos.service.LogAuditoriaService;
+import gestaoeventos.service.LogAuditoriaService.FormatoExportacao;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -11,14 +25,19 @@ import java.util.List;
 public class LogAuditoriaController {
 
     private final LogAuditoriaService logAuditoriaService;
+    private final AuditoriaAppender auditoriaAppender;
 
-    public LogAuditoriaController(LogAuditoriaService logAuditoriaService) {
+    public LogAuditoriaController(LogAuditoriaService logAuditoriaService,
+            AuditoriaAppender auditoriaAppender) {
         this.logAuditoriaService = logAuditoriaService;
+        this.auditoriaAppender = auditoriaAppender;
     }
 
     @GetMapping
-    public List<LogAuditoriaDTO> listarTodos() {
-        return logAuditoriaService.listarTodos();
+    public PaginaDTO<LogAuditoriaDTO> listarTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        return logAuditoriaService.listarTodos(cursor, tamanho);
     }
 
     @GetMapping("/entidade/{entidade}/{id}")
@@ -31,4 +50,54 @@ public class LogAuditoriaController {
     public List<LogAuditoriaDTO> listarPorAutor(@PathVariable Integer numero) {
         return logAuditoriaService.listarPorAutor(numero);
     }
+
+    /**
+     * Logs do intervalo [from, to[, incluindo os já arquivados pela retenção.
+     */
+    @GetMapping("/intervalo")
+    public List<LogAuditoriaDTO> listarPorIntervalo(
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate) {
+        return logAuditoriaService.listarPorIntervalo(de, ate);
+    }
+
+    /**
+     * Exporta os logs do intervalo [from, to[ em NDJSON ou CSV. A resposta é
+     * escrita à medida que as linhas são lidas, numa thread do executor
+     * assíncrono do Spring MVC, pelo que não é limitada pela memória.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(name = "format", defaultValue = "ndjson") String formato,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            HttpServletRequest request) {
+        FormatoExportacao f = switch (formato.toLowerCase()) {
+            case "ndjson" -> FormatoExportacao.NDJSON;
+            case "csv" -> FormatoExportacao.CSV;
+            default -> throw new BusinessException("Formato de exportação inválido: use ndjson ou csv");
+        };
+        // O filtro de ETags guardaria a resposta inteira em memória
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+
+        MediaType tipo = f == FormatoExportacao.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.parseMediaType("application/x-ndjson");
+        String ficheiro = "auditoria." + (f == FormatoExportacao.CSV ? "csv" : "ndjson");
+
+        StreamingResponseBody corpo = out -> logAuditoriaService.exportar(f, de, ate, out);
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + ficheiro + "\"")
+                .body(corpo);
+    }
+
+    @GetMapping("/metricas")
+    public MetricasAuditoriaDTO obterMetricas() {
+        return auditoriaAppender.obterMetricas();
+    }
 }
@@ -1,6 +1,7 @@
 package gestaoeventos.controller;
 
 import gestaoeventos.dto.NotificacaoDTO;
+import gestaoeventos.dto.PaginaDTO;
 import gestaoeventos.service.NotificacaoService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -29,13 +30,16 @@ public class NotificacaoController {
     }
 
     @GetMapping("/anuncios")
-    public List<NotificacaoDTO> listarTodosAnuncios() {
-        return notificacaoService.listarTodosAnuncios();
+    public PaginaDTO<NotificacaoDTO> listarTodosAnuncios(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        return notificacaoService.listarTodosAnuncios(cursor, tamanho);
     }
 
     @PostMapping("/{id}/lida")
-    public NotificacaoDTO marcarComoLida(@PathVariable Integer id) {
-        return notificacaoService.marcarComoLida(id);
+    public NotificacaoDTO marcarComoLida(@PathVariable Integer id,
+            @RequestParam(required = false) Integer utilizadorNumero) {
+        return notificacaoService.marcarComoLida(id, utilizadorNumero);
     }
 
     @PutMapping("/{id}")
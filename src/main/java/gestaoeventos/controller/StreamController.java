@@ -0,0 +1,36 @@
+package gestaoeventos.controller;
+
+import gestaoeventos.service.CanalAlteracoes;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stream")
+public class StreamController {
+
+    private final CanalAlteracoes canalAlteracoes;
+
+    public StreamController(CanalAlteracoes canalAlteracoes) {
+        this.canalAlteracoes = canalAlteracoes;
+    }
+
+    /**
+     * Alterações a eventos, inscrições, notificações e locais, em
+     * Server-Sent Events. Ao voltar a ligar, o cliente indica o último
+     * evento recebido em Last-Event-ID.
+     */
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter alteracoes(
+            @RequestHeader(name = "Last-Event-ID", required = false) String ultimoId,
+            HttpServletRequest request) {
+        // O filtro de ETags guardaria o stream em memória até ao fim
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return canalAlteracoes.subscrever(ultimoId);
+    }
+}
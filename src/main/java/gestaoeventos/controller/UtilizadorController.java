@@ -1,5 +1,6 @@
 package gestaoeventos.controller;
 
+import gestaoeventos.dto.PaginaDTO;
 import gestaoeventos.dto.UtilizadorCreateDTO;
 import gestaoeventos.dto.UtilizadorDTO;
 import gestaoeventos.service.UtilizadorService;
@@ -7,8 +8,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/utilizadores")
 public class UtilizadorController {
@@ -30,8 +29,10 @@ public class UtilizadorController {
     }
 
     @GetMapping
-    public List<UtilizadorDTO> listar() {
-        return utilizadorService.listarTodos();
+    public PaginaDTO<UtilizadorDTO> listar(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        return utilizadorService.listarTodos(cursor, tamanho);
     }
 
     @GetMapping("/{numero}")
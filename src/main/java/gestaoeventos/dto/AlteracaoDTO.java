@@ -0,0 +1,67 @@
+package gestaoeventos.dto;
+
+/**
+ * DTO de uma alteração publicada em /api/stream/changes.
+ *
+ * Só identifica o registo alterado; quem precisar dos dados pede-o ao
+ * endpoint da entidade. A versão é o número de sequência da alteração no
+ * servidor e cresce sempre, por isso também serve para ordenar alterações.
+ * REINICIAR não se refere a nenhum registo: indica que houve alterações
+ * perdidas e que os dados locais devem ser carregados de novo.
+ */
+public class AlteracaoDTO {
+
+    public static final String CRIADO = "CRIADO";
+    public static final String ATUALIZADO = "ATUALIZADO";
+    public static final String APAGADO = "APAGADO";
+    public static final String REINICIAR = "REINICIAR";
+
+    private String entidade;
+    private Integer id;
+    private long versao;
+    private String operacao;
+
+    public AlteracaoDTO() {
+    }
+
+    public AlteracaoDTO(String entidade, Integer id, long versao, String operacao) {
+        this.entidade = entidade;
+        this.id = id;
+        this.versao = versao;
+        this.operacao = operacao;
+    }
+
+    // GETTERS E SETTERS
+
+    public String getEntidade() {
+        return entidade;
+    }
+
+    public void setEntidade(String entidade) {
+        this.entidade = entidade;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(long versao) {
+        this.versao = versao;
+    }
+
+    public String getOperacao() {
+        return operacao;
+    }
+
+    public void setOperacao(String operacao) {
+        this.operacao = operacao;
+    }
+}
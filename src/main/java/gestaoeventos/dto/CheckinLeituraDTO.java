@@ -0,0 +1,39 @@
+package gestaoeventos.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com um token lido num posto de check-in e o instante da leitura
+ * segundo o relógio do posto.
+ */
+public class CheckinLeituraDTO {
+
+    private String token;
+    private LocalDateTime dataLeitura;
+
+    public CheckinLeituraDTO() {
+    }
+
+    public CheckinLeituraDTO(String token, LocalDateTime dataLeitura) {
+        this.token = token;
+        this.dataLeitura = dataLeitura;
+    }
+
+    // GETTERS E SETTERS
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public LocalDateTime getDataLeitura() {
+        return dataLeitura;
+    }
+
+    public void setDataLeitura(LocalDateTime dataLeitura) {
+        this.dataLeitura = dataLeitura;
+    }
+}
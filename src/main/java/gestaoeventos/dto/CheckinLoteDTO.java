@@ -0,0 +1,29 @@
+package gestaoeventos.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO com um lote de leituras enviado por um posto de check-in.
+ */
+public class CheckinLoteDTO {
+
+    private List<CheckinLeituraDTO> leituras = new ArrayList<>();
+
+    public CheckinLoteDTO() {
+    }
+
+    public CheckinLoteDTO(List<CheckinLeituraDTO> leituras) {
+        this.leituras = leituras;
+    }
+
+    // GETTERS E SETTERS
+
+    public List<CheckinLeituraDTO> getLeituras() {
+        return leituras;
+    }
+
+    public void setLeituras(List<CheckinLeituraDTO> leituras) {
+        this.leituras = leituras;
+    }
+}
@@ -0,0 +1,63 @@
+package gestaoeventos.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com o resultado do check-in de um token de um lote.
+ */
+public class CheckinResultadoDTO {
+
+    public static final String OK = "OK";
+    public static final String DUPLICADO = "DUPLICADO";
+    public static final String EXPIRADO = "EXPIRADO";
+    public static final String INVALIDO = "INVALIDO";
+
+    private String token;
+    private String resultado;
+    private Integer inscricaoId;
+    private LocalDateTime dataCheckin;
+
+    public CheckinResultadoDTO() {
+    }
+
+    public CheckinResultadoDTO(String token, String resultado, Integer inscricaoId, LocalDateTime dataCheckin) {
+        this.token = token;
+        this.resultado = resultado;
+        this.inscricaoId = inscricaoId;
+        this.dataCheckin = dataCheckin;
+    }
+
+    // GETTERS E SETTERS
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getResultado() {
+        return resultado;
+    }
+
+    public void setResultado(String resultado) {
+        this.resultado = resultado;
+    }
+
+    public Integer getInscricaoId() {
+        return inscricaoId;
+    }
+
+    public void setInscricaoId(Integer inscricaoId) {
+        this.inscricaoId = inscricaoId;
+    }
+
+    public LocalDateTime getDataCheckin() {
+        return dataCheckin;
+    }
+
+    public void setDataCheckin(LocalDateTime dataCheckin) {
+        this.dataCheckin = dataCheckin;
+    }
+}
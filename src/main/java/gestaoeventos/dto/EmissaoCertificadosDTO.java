@@ -0,0 +1,58 @@
+package gestaoeventos.dto;
+
+/**
+ * DTO com o resultado de uma emissão de certificados em massa.
+ */
+public class EmissaoCertificadosDTO {
+
+    private Integer eventoId;
+    private int emitidos;
+    private int ignorados;
+    // inscrições cujo certificado não pôde ser inserido (ex.: a inscrição foi
+    // apagada entretanto); as restantes são emitidas na mesma
+    private int falhados;
+
+    public EmissaoCertificadosDTO() {
+    }
+
+    public EmissaoCertificadosDTO(Integer eventoId, int emitidos, int ignorados, int falhados) {
+        this.eventoId = eventoId;
+        this.emitidos = emitidos;
+        this.ignorados = ignorados;
+        this.falhados = falhados;
+    }
+
+    // GETTERS E SETTERS
+
+    public Integer getEventoId() {
+        return eventoId;
+    }
+
+    public void setEventoId(Integer eventoId) {
+        this.eventoId = eventoId;
+    }
+
+    public int getEmitidos() {
+        return emitidos;
+    }
+
+    public void setEmitidos(int emitidos) {
+        this.emitidos = emitidos;
+    }
+
+    public int getIgnorados() {
+        return ignorados;
+    }
+
+    public void setIgnorados(int ignorados) {
+        this.ignorados = ignorados;
+    }
+
+    public int getFalhados() {
+        return falhados;
+    }
+
+    public void setFalhados(int falhados) {
+        this.falhados = falhados;
+    }
+}
@@ -3,7 +3,7 @@ package gestaoeventos.dto;
 /**
  * DTO para devolver o resultado de uma inscrição.
  * Contém informação sobre se a inscrição foi bem sucedida e o QR code para
- * check-in.
+ * check-in ou, com o evento lotado, a posição na lista de espera.
  */
 public class InscricaoResultadoDTO {
 
@@ -11,6 +11,7 @@ public class InscricaoResultadoDTO {
     private Integer inscricaoId;
     private String qrCodeToken;
     private String qrCodeUrl;
+    private Integer posicaoListaEspera;
 
     public InscricaoResultadoDTO() {
     }
@@ -54,4 +55,12 @@ public class InscricaoResultadoDTO {
     public void setQrCodeUrl(String qrCodeUrl) {
         this.qrCodeUrl = qrCodeUrl;
     }
+
+    public Integer getPosicaoListaEspera() {
+        return posicaoListaEspera;
+    }
+
+    public void setPosicaoListaEspera(Integer posicaoListaEspera) {
+        this.posicaoListaEspera = posicaoListaEspera;
+    }
 }
@@ -15,6 +15,18 @@ public class LogAuditoriaDTO {
 
     public LogAuditoriaDTO() {}
 
+    public LogAuditoriaDTO(Integer id, String acao, String entidade, Integer entidadeId, String motivo,
+            String ipOrigem, LocalDateTime dataHora, Integer autorNumero) {
+        this.id = id;
+        this.acao = acao;
+        this.entidade = entidade;
+        this.entidadeId = entidadeId;
+        this.motivo = motivo;
+        this.ipOrigem = ipOrigem;
+        this.dataHora = dataHora;
+        this.autorNumero = autorNumero;
+    }
+
     // getters e setters ...
     
 	public Integer getId() {
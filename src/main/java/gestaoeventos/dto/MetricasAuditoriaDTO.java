@@ -0,0 +1,77 @@
+package gestaoeventos.dto;
+
+/**
+ * DTO com o estado da escrita assíncrona dos registos de auditoria.
+ */
+public class MetricasAuditoriaDTO {
+
+    private String modo;
+    private int profundidadeFila;
+    private int capacidadeFila;
+    private long gravados;
+    private long descartados;
+    private long falhados;
+
+    public MetricasAuditoriaDTO() {
+    }
+
+    public MetricasAuditoriaDTO(String modo, int profundidadeFila, int capacidadeFila,
+            long gravados, long descartados, long falhados) {
+        this.modo = modo;
+        this.profundidadeFila = profundidadeFila;
+        this.capacidadeFila = capacidadeFila;
+        this.gravados = gravados;
+        this.descartados = descartados;
+        this.falhados = falhados;
+    }
+
+    // GETTERS E SETTERS
+
+    public String getModo() {
+        return modo;
+    }
+
+    public void setModo(String modo) {
+        this.modo = modo;
+    }
+
+    public int getProfundidadeFila() {
+        return profundidadeFila;
+    }
+
+    public void setProfundidadeFila(int profundidadeFila) {
+        this.profundidadeFila = profundidadeFila;
+    }
+
+    public int getCapacidadeFila() {
+        return capacidadeFila;
+    }
+
+    public void setCapacidadeFila(int capacidadeFila) {
+        this.capacidadeFila = capacidadeFila;
+    }
+
+    public long getGravados() {
+        return gravados;
+    }
+
+    public void setGravados(long gravados) {
+        this.gravados = gravados;
+    }
+
+    public long getDescartados() {
+        return descartados;
+    }
+
+    public void setDescartados(long descartados) {
+        this.descartados = descartados;
+    }
+
+    public long getFalhados() {
+        return falhados;
+    }
+
+    public void setFalhados(long falhados) {
+        this.falhados = falhados;
+    }
+}
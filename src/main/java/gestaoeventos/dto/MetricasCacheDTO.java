@@ -0,0 +1,66 @@
+package gestaoeventos.dto;
+
+/**
+ * DTO com os contadores de uma região da cache de segundo nível.
+ */
+public class MetricasCacheDTO {
+
+    private String regiao;
+    private long hits;
+    private long misses;
+    private long puts;
+    private long elementos;
+
+    public MetricasCacheDTO() {
+    }
+
+    public MetricasCacheDTO(String regiao, long hits, long misses, long puts, long elementos) {
+        this.regiao = regiao;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.elementos = elementos;
+    }
+
+    // GETTERS E SETTERS
+
+    public String getRegiao() {
+        return regiao;
+    }
+
+    public void setRegiao(String regiao) {
+        this.regiao = regiao;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    public void setPuts(long puts) {
+        this.puts = puts;
+    }
+
+    public long getElementos() {
+        return elementos;
+    }
+
+    public void setElementos(long elementos) {
+        this.elementos = elementos;
+    }
+}
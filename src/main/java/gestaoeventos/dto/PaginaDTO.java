@@ -0,0 +1,50 @@
+package gestaoeventos.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO genérico para respostas paginadas por cursor (keyset).
+ * O cliente envia o nextCursor no pedido seguinte até este vir a null.
+ */
+public class PaginaDTO<T> {
+
+    private List<T> itens = new ArrayList<>();
+    private String nextCursor;
+    private int tamanho;
+
+    public PaginaDTO() {
+    }
+
+    public PaginaDTO(List<T> itens, String nextCursor) {
+        this.itens = itens;
+        this.nextCursor = nextCursor;
+        this.tamanho = itens.size();
+    }
+
+    // GETTERS E SETTERS
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    public void setItens(List<T> itens) {
+        this.itens = itens;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public void setTamanho(int tamanho) {
+        this.tamanho = tamanho;
+    }
+}
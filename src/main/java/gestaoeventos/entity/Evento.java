@@ -35,6 +35,20 @@ public class Evento {
     @Column(name = "max_participantes")
     private Integer maxParticipantes;
 
+    // Contador de inscrições ativas, alterado apenas por UPDATE condicional
+    // no repositório (reservarVaga/libertarVaga) para evitar overbooking.
+    @Column(name = "vagas_ocupadas", updatable = false)
+    private Integer vagasOcupadas = 0;
+
+    // Último número de senha atribuído na lista de espera (cauda da fila).
+    @Column(name = "seq_lista_espera", updatable = false)
+    private Integer seqListaEspera = 0;
+
+    // Cabeça da lista de espera: todas as senhas até ela já saíram da fila.
+    // As saídas do meio da fila ficam em SaidasListaEspera.
+    @Column(name = "cabeca_lista_espera", updatable = false)
+    private Integer cabecaListaEspera = 0;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "estado", nullable = false, length = 20)
     private EstadoEvento estado = EstadoEvento.RASCUNHO;
@@ -132,6 +146,30 @@ public class Evento {
         this.maxParticipantes = maxParticipantes;
     }
 
+    public Integer getVagasOcupadas() {
+        return vagasOcupadas;
+    }
+
+    public void setVagasOcupadas(Integer vagasOcupadas) {
+        this.vagasOcupadas = vagasOcupadas;
+    }
+
+    public Integer getSeqListaEspera() {
+        return seqListaEspera;
+    }
+
+    public void setSeqListaEspera(Integer seqListaEspera) {
+        this.seqListaEspera = seqListaEspera;
+    }
+
+    public Integer getCabecaListaEspera() {
+        return cabecaListaEspera;
+    }
+
+    public void setCabecaListaEspera(Integer cabecaListaEspera) {
+        this.cabecaListaEspera = cabecaListaEspera;
+    }
+
     public EstadoEvento getEstado() {
         return estado;
     }
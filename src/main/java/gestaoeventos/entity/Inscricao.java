@@ -5,6 +5,9 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "inscricao",
+        indexes = {
+                @Index(name = "idx_inscricao_qrcode", columnList = "qr_code_checkin")
+        },
         uniqueConstraints = @UniqueConstraint(
                 name = "uk_inscricao_utilizador_evento",
                 columnNames = {"utilizador_numero", "evento_id"}
@@ -0,0 +1,74 @@
+package gestaoeventos.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recibo de leitura de um anúncio por um utilizador.
+ *
+ * Os anúncios são guardados uma única vez (sem destinatário); só quem os lê
+ * ganha uma linha aqui, pelo que a tabela é esparsa.
+ */
+@Entity
+@Table(
+        name = "leitura_anuncio",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_leitura_anuncio_utilizador",
+                columnNames = {"notificacao_id", "utilizador_numero"}
+        )
+)
+public class LeituraAnuncio {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "notificacao_id", nullable = false)
+    private Notificacao notificacao;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "utilizador_numero", nullable = false)
+    private Utilizador utilizador;
+
+    @Column(name = "data_leitura", nullable = false)
+    private LocalDateTime dataLeitura = LocalDateTime.now();
+
+    public LeituraAnuncio() {
+    }
+
+    // GETTERS & SETTERS
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Notificacao getNotificacao() {
+        return notificacao;
+    }
+
+    public void setNotificacao(Notificacao notificacao) {
+        this.notificacao = notificacao;
+    }
+
+    public Utilizador getUtilizador() {
+        return utilizador;
+    }
+
+    public void setUtilizador(Utilizador utilizador) {
+        this.utilizador = utilizador;
+    }
+
+    public LocalDateTime getDataLeitura() {
+        return dataLeitura;
+    }
+
+    public void setDataLeitura(LocalDateTime dataLeitura) {
+        this.dataLeitura = dataLeitura;
+    }
+}
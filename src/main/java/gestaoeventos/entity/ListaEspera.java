@@ -5,7 +5,16 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "lista_espera")
+@Table(
+        name = "lista_espera",
+        indexes = {
+                @Index(name = "idx_listaespera_evento_posicao", columnList = "evento_id,posicao")
+        },
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_listaespera_utilizador_evento",
+                columnNames = {"utilizador_numero", "evento_id"}
+        )
+)
 public class ListaEspera {
 
     @Id
@@ -15,6 +24,8 @@ public class ListaEspera {
     @Column(name = "data_entrada", nullable = false)
     private LocalDateTime dataEntrada = LocalDateTime.now();
 
+    // Senha atribuída à entrada, que não muda enquanto está na fila. A posição
+    // real é calculada a partir da cabeça da fila e das saídas do meio.
     @Column(name = "posicao")
     private Integer posicao;
 
@@ -5,7 +5,12 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "log_auditoria")
+@Table(
+        name = "log_auditoria",
+        indexes = {
+                @Index(name = "idx_logauditoria_data_hora", columnList = "data_hora")
+        }
+)
 public class LogAuditoria {
 
     @Id
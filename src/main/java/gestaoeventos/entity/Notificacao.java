@@ -4,15 +4,22 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notificacao")
+@Table(
+        name = "notificacao",
+        indexes = {
+                @Index(name = "idx_notificacao_tipo_exibicao",
+                        columnList = "tipo,data_inicio_exibicao,data_fim_exibicao")
+        }
+)
 public class Notificacao {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
-    @ManyToOne(optional = false)
-    @JoinColumn(name = "destinatario_numero", nullable = false)
+    // null nos anúncios, que são guardados uma vez para todos os utilizadores
+    @ManyToOne
+    @JoinColumn(name = "destinatario_numero")
     private Utilizador destinatario;
 
     @ManyToOne
@@ -0,0 +1,77 @@
+package gestaoeventos.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Nó da árvore de Fenwick que conta, por evento, as senhas da lista de
+ * espera que saíram do meio da fila.
+ *
+ * O nó n guarda o número de saídas com senha em ]n - lsb(n), n]; só existem
+ * linhas para os nós com alguma saída, pelo que a tabela é esparsa. Contar as
+ * saídas até uma senha, ou registar uma saída, lê ou escreve no máximo um nó
+ * por bit da senha.
+ */
+@Entity
+@Table(
+        name = "lista_espera_saidas",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_listaespera_saidas_evento_nodo",
+                columnNames = {"evento_id", "nodo"}
+        )
+)
+public class SaidasListaEspera {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(
+            name = "evento_id",
+            foreignKey = @ForeignKey(name = "fk_listaespera_saidas_evento")
+    )
+    private Evento evento;
+
+    @Column(name = "nodo", nullable = false)
+    private Integer nodo;
+
+    @Column(name = "saidas", nullable = false)
+    private Integer saidas = 0;
+
+    public SaidasListaEspera() {
+    }
+
+    // GETTERS & SETTERS
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Evento getEvento() {
+        return evento;
+    }
+
+    public void setEvento(Evento evento) {
+        this.evento = evento;
+    }
+
+    public Integer getNodo() {
+        return nodo;
+    }
+
+    public void setNodo(Integer nodo) {
+        this.nodo = nodo;
+    }
+
+    public Integer getSaidas() {
+        return saidas;
+    }
+
+    public void setSaidas(Integer saidas) {
+        this.saidas = saidas;
+    }
+}
@@ -2,12 +2,16 @@ package gestaoeventos.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "utilizador")
 @Table(
         name = "utilizador",
         uniqueConstraints = @UniqueConstraint(
@@ -58,6 +62,10 @@ public class Utilizador {
     @OneToMany(mappedBy = "destinatario", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Notificacao> notificacoes = new HashSet<>();
 
+    @JsonIgnore
+    @OneToMany(mappedBy = "utilizador", cascade = CascadeType.ALL, orphanRemoval = true)
+    private Set<LeituraAnuncio> leiturasAnuncios = new HashSet<>();
+
     @JsonIgnore
     @OneToMany(mappedBy = "autor")
     private Set<LogAuditoria> logsCriados = new HashSet<>();
@@ -0,0 +1,14 @@
+package gestaoeventos.repository;
+
+import gestaoeventos.entity.Notificacao;
+
+/**
+ * Projeção de um anúncio com o estado de leitura de um utilizador,
+ * obtido por LEFT JOIN aos recibos de leitura.
+ */
+public interface AnuncioLeitura {
+
+    Notificacao getNotificacao();
+
+    boolean isLida();
+}
@@ -0,0 +1,132 @@
+package gestaoeventos.repository;
+
+import gestaoeventos.entity.TipoCertificado;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inserção de certificados em lotes JDBC.
+ *
+ * A entidade Certificado usa IDENTITY, o que impede o Hibernate de agrupar
+ * INSERTs; aqui os INSERTs são enviados diretamente em lotes de TAMANHO_LOTE.
+ * Em MySQL convém ativar rewriteBatchedStatements=true no URL da ligação.
+ *
+ * Cada lote corre sob um savepoint da transação em curso: se falhar, o lote
+ * é desfeito e repetido linha a linha, cada uma com o seu savepoint, e só as
+ * linhas que voltam a falhar ficam de fora (e são contadas como falhadas).
+ */
+@Repository
+public class CertificadoBatchRepository {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CertificadoBatchRepository.class);
+
+    public static final int TAMANHO_LOTE = 500;
+
+    private static final String INSERT = "INSERT INTO certificado "
+            + "(inscricao_id, data_emissao, codigo_verificacao, emitido_por_numero, tipo) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CertificadoBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Linhas inseridas e linhas que falharam mesmo quando inseridas sozinhas.
+     */
+    public record ResultadoLote(int inseridos, int falhados) {
+    }
+
+    /**
+     * Insere um certificado por inscrição, com os códigos de verificação
+     * indicados (mesma ordem). Tem de ser chamado dentro de uma transação.
+     */
+    public ResultadoLote inserirEmLote(List<Integer> inscricaoIds, List<String> codigos, Integer emitidoPorNumero,
+            TipoCertificado tipo, LocalDateTime dataEmissao) {
+        Timestamp data = Timestamp.valueOf(dataEmissao);
+        return jdbcTemplate.execute((ConnectionCallback<ResultadoLote>) con -> {
+            int inseridos = 0;
+            int falhados = 0;
+            try (PreparedStatement ps = con.prepareStatement(INSERT)) {
+                for (int inicio = 0; inicio < inscricaoIds.size(); inicio += TAMANHO_LOTE) {
+                    int fim = Math.min(inicio + TAMANHO_LOTE, inscricaoIds.size());
+                    Savepoint lote = con.setSavepoint();
+                    try {
+                        for (int i = inicio; i < fim; i++) {
+                            preencher(ps, inscricaoIds.get(i), codigos.get(i), emitidoPorNumero, tipo, data);
+                            ps.addBatch();
+                        }
+                        inseridos += contar(ps.executeBatch());
+                        con.releaseSavepoint(lote);
+                        continue;
+                    } catch (SQLException e) {
+                        ps.clearBatch();
+                        con.rollback(lote);
+                        LOG.warn("Falha ao inserir lote de {} certificados, a inserir individualmente",
+                                fim - inicio, e);
+                    }
+                    for (int i = inicio; i < fim; i++) {
+                        if (inserirUm(con, ps, inscricaoIds.get(i), codigos.get(i), emitidoPorNumero, tipo, data)) {
+                            inseridos++;
+                        } else {
+                            falhados++;
+                        }
+                    }
+                }
+            }
+            return new ResultadoLote(inseridos, falhados);
+        });
+    }
+
+    private boolean inserirUm(Connection con, PreparedStatement ps, Integer inscricaoId, String codigo,
+            Integer emitidoPorNumero, TipoCertificado tipo, Timestamp data) throws SQLException {
+        Savepoint linha = con.setSavepoint();
+        try {
+            preencher(ps, inscricaoId, codigo, emitidoPorNumero, tipo, data);
+            ps.executeUpdate();
+            con.releaseSavepoint(linha);
+            return true;
+        } catch (SQLException e) {
+            con.rollback(linha);
+            LOG.error("Certificado não emitido para a inscrição {}", inscricaoId, e);
+            return false;
+        }
+    }
+
+    private static void preencher(PreparedStatement ps, Integer inscricaoId, String codigo,
+            Integer emitidoPorNumero, TipoCertificado tipo, Timestamp data) throws SQLException {
+        ps.setInt(1, inscricaoId);
+        ps.setTimestamp(2, data);
+        ps.setString(3, codigo);
+        if (emitidoPorNumero != null) {
+            ps.setInt(4, emitidoPorNumero);
+        } else {
+            ps.setNull(4, Types.INTEGER);
+        }
+        ps.setString(5, tipo.name());
+    }
+
+    private static int contar(int[] resultados) {
+        int inseridos = 0;
+        for (int r : resultados) {
+            // SUCCESS_NO_INFO quando o driver reescreve o lote num único INSERT
+            if (r > 0 || r == Statement.SUCCESS_NO_INFO) {
+                inseridos++;
+            }
+        }
+        return inseridos;
+    }
+}
@@ -1,26 +1,43 @@
 package gestaoeventos.repository;
 
 import gestaoeventos.entity.Certificado;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CertificadoRepository extends JpaRepository<Certificado, Integer> {
 
+    // As listagens trazem inscrição, evento e utilizador no mesmo SELECT (sem N+1 no toDTO)
+    @EntityGraph(attributePaths = {"inscricao", "inscricao.evento", "inscricao.utilizador"})
     @Query("SELECT c FROM Certificado c WHERE c.inscricao.utilizador.numero = :numero")
     List<Certificado> findByUtilizadorNumero(Integer numero);
 
+    @EntityGraph(attributePaths = {"inscricao", "inscricao.evento", "inscricao.utilizador"})
     @Query("SELECT c FROM Certificado c WHERE c.inscricao.evento.id = :eventoId")
     List<Certificado> findByEventoId(Integer eventoId);
 
+    @EntityGraph(attributePaths = {"inscricao", "inscricao.evento", "inscricao.utilizador"})
+    @Query("SELECT c FROM Certificado c WHERE c.inscricao.evento.id = :eventoId AND c.id > :id ORDER BY c.id")
+    List<Certificado> findByEventoIdAposId(Integer eventoId, Integer id, Limit limit);
+
     Optional<Certificado> findByCodigoVerificacao(String codigoVerificacao);
 
     @Query("SELECT c FROM Certificado c WHERE c.inscricao.id = :inscricaoId")
     Optional<Certificado> findByInscricaoId(Integer inscricaoId);
 
     boolean existsByInscricaoId(Integer inscricaoId);
+
+    @Query("SELECT COUNT(c) FROM Certificado c WHERE c.inscricao.evento.id = :eventoId")
+    long countByEventoId(Integer eventoId);
+
+    @Query("SELECT c.inscricao.evento.id AS eventoId, COUNT(c) AS total FROM Certificado c "
+            + "WHERE c.inscricao.evento.id IN :eventoIds GROUP BY c.inscricao.evento.id")
+    List<ContagemPorEvento> contarPorEventos(Collection<Integer> eventoIds);
 }
@@ -0,0 +1,82 @@
+package gestaoeventos.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Check-in de um lote de tokens com SQL direto: um SELECT ... FOR UPDATE e
+ * um único UPDATE ... WHERE qr_code_checkin IN (...), em vez de carregar e
+ * gravar cada Inscricao.
+ */
+@Repository
+public class CheckinBatchRepository {
+
+    /**
+     * Estado atual de uma inscrição, lido com a linha bloqueada.
+     */
+    public record EstadoCheckin(Integer inscricaoId, String token, boolean checkIn,
+            LocalDateTime validade, LocalDateTime dataCheckin) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CheckinBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Lê e bloqueia até ao fim da transação as inscrições dos tokens dados.
+     */
+    public Map<String, EstadoCheckin> bloquearPorTokens(Collection<String> tokens) {
+        if (tokens.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        String sql = "SELECT id, qr_code_checkin, check_in, validade_qrcode, data_checkin FROM inscricao "
+                + "WHERE qr_code_checkin IN (" + marcadores(tokens.size()) + ") FOR UPDATE";
+        Map<String, EstadoCheckin> estados = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            Timestamp validade = rs.getTimestamp("validade_qrcode");
+            Timestamp dataCheckin = rs.getTimestamp("data_checkin");
+            EstadoCheckin e = new EstadoCheckin(rs.getInt("id"), rs.getString("qr_code_checkin"),
+                    rs.getBoolean("check_in"),
+                    validade != null ? validade.toLocalDateTime() : null,
+                    dataCheckin != null ? dataCheckin.toLocalDateTime() : null);
+            estados.put(e.token(), e);
+        }, tokens.toArray());
+        return estados;
+    }
+
+    /**
+     * Marca o check-in dos tokens indicados, cada um com a sua data, num só
+     * UPDATE. Devolve o número de inscrições atualizadas.
+     */
+    public int marcarCheckins(Map<String, LocalDateTime> datasPorToken) {
+        if (datasPorToken.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("UPDATE inscricao SET check_in = TRUE, data_checkin = CASE qr_code_checkin");
+        List<Object> parametros = new ArrayList<>();
+        datasPorToken.forEach((token, data) -> {
+            sql.append(" WHEN ? THEN ?");
+            parametros.add(token);
+            parametros.add(Timestamp.valueOf(data));
+        });
+        sql.append(" END WHERE check_in = FALSE AND qr_code_checkin IN (")
+                .append(marcadores(datasPorToken.size())).append(')');
+        parametros.addAll(datasPorToken.keySet());
+        return jdbcTemplate.update(sql.toString(), parametros.toArray());
+    }
+
+    private static String marcadores(int n) {
+        return String.join(", ", Collections.nCopies(n, "?"));
+    }
+}
@@ -0,0 +1,18 @@
+package gestaoeventos.repository;
+
+import gestaoeventos.entity.EstadoInscricao;
+
+/**
+ * Projeção com o número de inscrições de um evento agrupadas por estado e
+ * check-in, usada para calcular estatísticas sem carregar as entidades.
+ */
+public interface ContagemInscricoes {
+
+    Integer getEventoId();
+
+    EstadoInscricao getEstado();
+
+    boolean isCheckIn();
+
+    long getTotal();
+}
@@ -0,0 +1,11 @@
+package gestaoeventos.repository;
+
+/**
+ * Projeção com uma contagem agrupada por evento.
+ */
+public interface ContagemPorEvento {
+
+    Integer getEventoId();
+
+    long getTotal();
+}
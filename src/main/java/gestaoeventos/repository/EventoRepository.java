@@ -2,14 +2,92 @@ package gestaoeventos.repository;
 
 import gestaoeventos.entity.EstadoEvento;
 import gestaoeventos.entity.Evento;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface EventoRepository extends JpaRepository<Evento, Integer> {
+public interface EventoRepository extends JpaRepository<Evento, Integer>, JpaSpecificationExecutor<Evento> {
 
     List<Evento> findByEstado(EstadoEvento estado);
 
     List<Evento> findByDataInicioBetween(LocalDateTime inicio, LocalDateTime fim);
+
+    List<Evento> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    Optional<EventoResumo> findResumoById(Integer id);
+
+    List<EventoResumo> findResumoByIdInOrderByIdAsc(Collection<Integer> ids);
+
+    List<EventoResumo> findResumoByCriadorNumeroOrderByIdAsc(Integer criadorNumero);
+
+    /**
+     * Ocupa uma vaga de forma atómica. Devolve 0 se o evento já está cheio.
+     */
+    @Modifying
+    @Query("UPDATE Evento e SET e.vagasOcupadas = e.vagasOcupadas + 1 WHERE e.id = :id "
+            + "AND (e.maxParticipantes IS NULL OR e.vagasOcupadas < e.maxParticipantes)")
+    int reservarVaga(Integer id);
+
+    @Modifying
+    @Query("UPDATE Evento e SET e.vagasOcupadas = e.vagasOcupadas - 1 WHERE e.id = :id AND e.vagasOcupadas > 0")
+    int libertarVaga(Integer id);
+
+    /**
+     * Preenche o contador de vagas de eventos anteriores à coluna vagas_ocupadas.
+     * Não faz nada se o contador já estiver inicializado.
+     */
+    @Modifying
+    @Query("UPDATE Evento e SET e.vagasOcupadas = (SELECT COUNT(i) FROM Inscricao i WHERE i.evento.id = e.id "
+            + "AND i.estado = gestaoeventos.entity.EstadoInscricao.ATIVA) WHERE e.id = :id AND e.vagasOcupadas IS NULL")
+    int inicializarVagasOcupadas(Integer id);
+
+    @Modifying
+    @Query("UPDATE Evento e SET e.seqListaEspera = e.seqListaEspera + 1 WHERE e.id = :id")
+    int avancarSeqListaEspera(Integer id);
+
+    @Query("SELECT e.seqListaEspera FROM Evento e WHERE e.id = :id")
+    Integer obterSeqListaEspera(Integer id);
+
+    /**
+     * Bloqueia a linha do evento até ao commit sem alterar nada, para
+     * serializar as alterações à lista de espera.
+     */
+    @Modifying
+    @Query("UPDATE Evento e SET e.seqListaEspera = e.seqListaEspera WHERE e.id = :id")
+    int bloquearListaEspera(Integer id);
+
+    @Modifying
+    @Query("UPDATE Evento e SET e.seqListaEspera = :seq WHERE e.id = :id")
+    int definirSeqListaEspera(Integer id, Integer seq);
+
+    @Modifying
+    @Query("UPDATE Evento e SET e.cabecaListaEspera = :cabeca WHERE e.id = :id")
+    int definirCabecaListaEspera(Integer id, Integer cabeca);
+
+    @Query("SELECT e.cabecaListaEspera FROM Evento e WHERE e.id = :id")
+    Integer obterCabecaListaEspera(Integer id);
+
+    /**
+     * Marca a cabeça da fila de eventos anteriores à coluna
+     * cabeca_lista_espera. Devolve 1 se a fila ainda tem de ser renumerada.
+     */
+    @Modifying
+    @Query("UPDATE Evento e SET e.cabecaListaEspera = 0 WHERE e.id = :id AND e.cabecaListaEspera IS NULL")
+    int inicializarCabecaListaEspera(Integer id);
+
+    /**
+     * Preenche a senha da lista de espera de eventos anteriores à coluna
+     * seq_lista_espera, a partir da maior posição já atribuída.
+     */
+    @Modifying
+    @Query("UPDATE Evento e SET e.seqListaEspera = (SELECT COALESCE(MAX(le.posicao), 0) FROM ListaEspera le "
+            + "WHERE le.evento.id = e.id) WHERE e.id = :id AND e.seqListaEspera IS NULL")
+    int inicializarSeqListaEspera(Integer id);
 }
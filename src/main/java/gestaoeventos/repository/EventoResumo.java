@@ -0,0 +1,13 @@
+package gestaoeventos.repository;
+
+/**
+ * Projeção com os campos de um evento necessários para as estatísticas.
+ */
+public interface EventoResumo {
+
+    Integer getId();
+
+    String getTitulo();
+
+    Integer getMaxParticipantes();
+}
@@ -0,0 +1,52 @@
+package gestaoeventos.repository;
+
+import gestaoeventos.entity.Evento;
+import gestaoeventos.entity.TipoEvento;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros de pesquisa de eventos traduzidos para predicados Criteria,
+ * para que a filtragem seja feita pela base de dados.
+ *
+ * Os filtros por local e organizador usam diretamente a FK (local_id /
+ * criador_numero), sem join às tabelas relacionadas.
+ */
+public final class EventoSpecifications {
+
+    private EventoSpecifications() {
+    }
+
+    public static Specification<Evento> iniciaDepoisDe(LocalDateTime inicio) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dataInicio"), inicio);
+    }
+
+    public static Specification<Evento> iniciaAntesDe(LocalDateTime fim) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("dataInicio"), fim);
+    }
+
+    public static Specification<Evento> doTipo(TipoEvento tipo) {
+        return (root, query, cb) -> cb.equal(root.get("tipo"), tipo);
+    }
+
+    public static Specification<Evento> noLocal(Integer localId) {
+        return (root, query, cb) -> cb.equal(root.get("local").get("id"), localId);
+    }
+
+    public static Specification<Evento> doOrganizador(Integer organizadorNumero) {
+        return (root, query, cb) -> cb.equal(root.get("criador").get("numero"), organizadorNumero);
+    }
+
+    /**
+     * Condição keyset para a ordenação (dataInicio, id): devolve apenas os
+     * eventos que vêm depois do último elemento da página anterior.
+     */
+    public static Specification<Evento> depoisDoCursor(LocalDateTime dataInicio, Integer id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("dataInicio"), dataInicio),
+                cb.and(
+                        cb.equal(root.get("dataInicio"), dataInicio),
+                        cb.greaterThan(root.get("id"), id)));
+    }
+}
@@ -2,20 +2,57 @@ package gestaoeventos.repository;
 
 import gestaoeventos.entity.EstadoInscricao;
 import gestaoeventos.entity.Inscricao;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface InscricaoRepository extends JpaRepository<Inscricao, Integer> {
 
+    // As listagens trazem evento e utilizador no mesmo SELECT (sem N+1 no toDTO)
+    @EntityGraph(attributePaths = {"evento", "utilizador"})
     List<Inscricao> findByEventoId(Integer eventoId);
 
+    @EntityGraph(attributePaths = {"evento", "utilizador"})
     List<Inscricao> findByUtilizadorNumero(Integer numero);
 
     int countByEventoIdAndEstado(Integer eventoId, EstadoInscricao estado);
 
+    boolean existsByEventoIdAndUtilizadorNumero(Integer eventoId, Integer utilizadorNumero);
+
+    @Query("SELECT i.evento.id AS eventoId, i.estado AS estado, i.checkIn AS checkIn, COUNT(i) AS total "
+            + "FROM Inscricao i WHERE i.evento.id = :eventoId GROUP BY i.evento.id, i.estado, i.checkIn")
+    List<ContagemInscricoes> contarPorEstadoECheckin(Integer eventoId);
+
+    @Query("SELECT i.evento.id AS eventoId, i.estado AS estado, i.checkIn AS checkIn, COUNT(i) AS total "
+            + "FROM Inscricao i WHERE i.evento.id IN :eventoIds GROUP BY i.evento.id, i.estado, i.checkIn")
+    List<ContagemInscricoes> contarPorEstadoECheckinDosEventos(Collection<Integer> eventoIds);
+
     Optional<Inscricao> findByQrCodeCheckin(String qrCodeCheckin);
 
+    /**
+     * Check-in pela chave primária. Só atualiza se o token ainda for o da
+     * inscrição e o check-in não tiver sido feito; devolve 0 caso contrário.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Inscricao i SET i.checkIn = true, i.dataCheckin = :agora "
+            + "WHERE i.id = :id AND i.qrCodeCheckin = :token AND i.checkIn = false")
+    int marcarCheckin(Integer id, String token, LocalDateTime agora);
+
     List<Inscricao> findByEventoIdAndCheckInTrue(Integer eventoId);
+
+    long countByEventoIdAndCheckInTrue(Integer eventoId);
+
+    /**
+     * Ids das inscrições com check-in que ainda não têm certificado,
+     * resolvido numa única query (anti-join) em vez de uma por inscrição.
+     */
+    @Query("SELECT i.id FROM Inscricao i WHERE i.evento.id = :eventoId AND i.checkIn = true "
+            + "AND NOT EXISTS (SELECT 1 FROM Certificado c WHERE c.inscricao = i) ORDER BY i.id")
+    List<Integer> findIdsComCheckinSemCertificado(Integer eventoId);
 }
@@ -0,0 +1,15 @@
+package gestaoeventos.repository;
+
+import gestaoeventos.entity.LeituraAnuncio;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface LeituraAnuncioRepository extends JpaRepository<LeituraAnuncio, Integer> {
+
+    boolean existsByNotificacaoIdAndUtilizadorNumero(Integer notificacaoId, Integer utilizadorNumero);
+
+    @Modifying
+    @Query("DELETE FROM LeituraAnuncio l WHERE l.notificacao.id = :notificacaoId")
+    int apagarPorNotificacao(Integer notificacaoId);
+}
@@ -8,9 +8,15 @@ import java.util.Optional;
 
 public interface ListaEsperaRepository extends JpaRepository<ListaEspera, Integer> {
 
-    List<ListaEspera> findByEventoIdOrderByDataEntradaAsc(Integer eventoId);
+    List<ListaEspera> findByEventoIdOrderByPosicaoAscIdAsc(Integer eventoId);
 
-    Optional<ListaEspera> findFirstByEventoIdOrderByPosicaoAsc(Integer eventoId);
-}
+    Optional<ListaEspera> findFirstByEventoIdOrderByPosicaoAscIdAsc(Integer eventoId);
+
+    Optional<ListaEspera> findByEventoIdAndUtilizadorNumero(Integer eventoId, Integer utilizadorNumero);
 
+    boolean existsByEventoIdAndUtilizadorNumero(Integer eventoId, Integer utilizadorNumero);
 
+    int countByEventoId(Integer eventoId);
+
+    int countByEventoIdAndPosicaoLessThan(Integer eventoId, Integer posicao);
+}
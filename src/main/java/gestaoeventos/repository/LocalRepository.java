@@ -1,8 +1,16 @@
 package gestaoeventos.repository;
 
 import gestaoeventos.entity.Local;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface LocalRepository extends JpaRepository<Local, Integer> {
-}
 
+    // Resultado na cache de consultas; invalidado pelo Hibernate a cada escrita em local_evento
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Local> findAllByOrderByIdAsc();
+}
@@ -0,0 +1,46 @@
+package gestaoeventos.repository;
+
+import gestaoeventos.entity.LogAuditoria;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Inserção de registos de auditoria em lotes JDBC, usada pelo
+ * AuditoriaAppender para despejar a fila de uma só vez.
+ */
+@Repository
+public class LogAuditoriaBatchRepository {
+
+    private static final String INSERT = "INSERT INTO log_auditoria "
+            + "(acao, entidade, entidade_id, data_hora, ip_origem, motivo, autor_numero) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LogAuditoriaBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void inserirEmLote(List<LogAuditoria> logs) {
+        jdbcTemplate.batchUpdate(INSERT, logs, logs.size(), (ps, log) -> {
+            ps.setString(1, log.getAcao());
+            ps.setString(2, log.getEntidade());
+            if (log.getEntidadeId() != null) {
+                ps.setInt(3, log.getEntidadeId());
+            } else {
+                ps.setNull(3, Types.INTEGER);
+            }
+            ps.setTimestamp(4, Timestamp.valueOf(log.getDataHora()));
+            ps.setString(5, log.getIpOrigem());
+            ps.setString(6, log.getMotivo());
+            if (log.getAutor() != null) {
+                ps.setInt(7, log.getAutor().getNumero());
+            } else {
+                ps.setNull(7, Types.INTEGER);
+            }
+        });
+    }
+}
@@ -1,14 +1,61 @@
 package gestaoeventos.repository;
 
+import gestaoeventos.dto.LogAuditoriaDTO;
 import gestaoeventos.entity.LogAuditoria;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface LogAuditoriaRepository extends JpaRepository<LogAuditoria, Integer> {
 
     List<LogAuditoria> findByEntidadeAndEntidadeIdOrderByDataHoraDesc(String entidade, Integer entidadeId);
 
     List<LogAuditoria> findByAutorNumeroOrderByDataHoraDesc(Integer autorNumero);
-}
 
+    List<LogAuditoria> findByIdLessThanOrderByIdDesc(Integer id, Limit limit);
+
+    /**
+     * Lê os logs do intervalo [de, ate[ diretamente como DTOs, sem entidades
+     * no contexto de persistência, e em blocos de fetch size linhas: a
+     * memória usada não depende do número de linhas. Limites a null não
+     * restringem. Tem de ser consumido dentro de uma transação e fechado.
+     * No MySQL o fetch size só é respeitado com useCursorFetch=true no URL.
+     */
+    @Query("""
+            select new gestaoeventos.dto.LogAuditoriaDTO(l.id, l.acao, l.entidade, l.entidadeId,
+                    l.motivo, l.ipOrigem, l.dataHora, a.numero)
+            from LogAuditoria l left join l.autor a
+            where (:de is null or l.dataHora >= :de) and (:ate is null or l.dataHora < :ate)
+            order by l.dataHora, l.id""")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<LogAuditoriaDTO> streamPorIntervalo(LocalDateTime de, LocalDateTime ate);
+
+    /**
+     * Próximo bloco de logs anteriores ao corte, por ordem de id, a partir
+     * do id seguinte a depoisDeId. Usado pela retenção para arquivar.
+     */
+    @Query("""
+            select new gestaoeventos.dto.LogAuditoriaDTO(l.id, l.acao, l.entidade, l.entidadeId,
+                    l.motivo, l.ipOrigem, l.dataHora, a.numero)
+            from LogAuditoria l left join l.autor a
+            where l.dataHora < :corte and l.id > :depoisDeId
+            order by l.id""")
+    List<LogAuditoriaDTO> findParaArquivo(LocalDateTime corte, Integer depoisDeId, Limit limit);
+
+    /**
+     * Apaga um bloco de logs já arquivados, numa transação própria.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LogAuditoria l WHERE l.id IN :ids")
+    int apagarPorIds(List<Integer> ids);
+}
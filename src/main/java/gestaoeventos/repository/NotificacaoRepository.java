@@ -1,12 +1,53 @@
 package gestaoeventos.repository;
 
 import gestaoeventos.entity.Notificacao;
+import gestaoeventos.entity.TipoNotificacao;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface NotificacaoRepository extends JpaRepository<Notificacao, Integer> {
 
+    @EntityGraph(attributePaths = {"destinatario", "evento"})
     List<Notificacao> findByDestinatarioNumeroOrderByDataCriacaoDesc(Integer destinatarioNumero);
+
+    @EntityGraph(attributePaths = {"destinatario", "evento"})
+    List<Notificacao> findByTipoAndIdGreaterThanOrderByIdAsc(TipoNotificacao tipo, Integer id, Limit limit);
+
+    /**
+     * Anúncios visíveis no instante indicado, servidos pelo índice
+     * (tipo, data_inicio_exibicao, data_fim_exibicao).
+     */
+    @Query("SELECT n FROM Notificacao n "
+            + "WHERE n.tipo = gestaoeventos.entity.TipoNotificacao.ANUNCIO AND n.destinatario IS NULL "
+            + "AND (n.dataInicioExibicao IS NULL OR n.dataInicioExibicao <= :agora) "
+            + "AND (n.dataFimExibicao IS NULL OR n.dataFimExibicao >= :agora) "
+            + "ORDER BY n.dataCriacao DESC")
+    List<Notificacao> findAnunciosVisiveis(LocalDateTime agora);
+
+    /**
+     * Início da próxima janela de exibição depois do instante indicado
+     * (null se nenhum anúncio agendado).
+     */
+    @Query("SELECT MIN(n.dataInicioExibicao) FROM Notificacao n "
+            + "WHERE n.tipo = gestaoeventos.entity.TipoNotificacao.ANUNCIO AND n.destinatario IS NULL "
+            + "AND n.dataInicioExibicao > :agora")
+    LocalDateTime findProximoInicioExibicao(LocalDateTime agora);
+
+    /**
+     * Anúncios visíveis no instante indicado, com o estado de leitura do
+     * utilizador resolvido por LEFT JOIN aos recibos de leitura.
+     */
+    @Query("SELECT n AS notificacao, CASE WHEN l.id IS NULL THEN false ELSE true END AS lida "
+            + "FROM Notificacao n LEFT JOIN LeituraAnuncio l ON l.notificacao = n AND l.utilizador.numero = :numero "
+            + "WHERE n.tipo = gestaoeventos.entity.TipoNotificacao.ANUNCIO AND n.destinatario IS NULL "
+            + "AND (n.dataInicioExibicao IS NULL OR n.dataInicioExibicao <= :agora) "
+            + "AND (n.dataFimExibicao IS NULL OR n.dataFimExibicao >= :agora) "
+            + "ORDER BY n.dataCriacao DESC")
+    List<AnuncioLeitura> findAnunciosVisiveisComLeitura(Integer numero, LocalDateTime agora);
 }
 
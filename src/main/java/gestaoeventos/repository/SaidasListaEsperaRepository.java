@@ -0,0 +1,17 @@
+package gestaoeventos.repository;
+
+import gestaoeventos.entity.SaidasListaEspera;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SaidasListaEsperaRepository extends JpaRepository<SaidasListaEspera, Integer> {
+
+    List<SaidasListaEspera> findByEventoIdAndNodoIn(Integer eventoId, Collection<Integer> nodos);
+
+    @Query("SELECT COALESCE(SUM(s.saidas), 0) FROM SaidasListaEspera s WHERE s.evento.id = :eventoId "
+            + "AND s.nodo IN :nodos")
+    long somar(Integer eventoId, Collection<Integer> nodos);
+}
@@ -1,12 +1,18 @@
 package gestaoeventos.repository;
 
 import gestaoeventos.entity.Utilizador;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UtilizadorRepository extends JpaRepository<Utilizador, Integer> {
 
     Optional<Utilizador> findByEmail(String email);
+
+    List<Utilizador> findByNumeroGreaterThanOrderByNumeroAsc(Integer numero, Limit limit);
+
+    long countByAtivoTrue();
 }
 
@@ -0,0 +1,301 @@
+package gestaoeventos.service;
+
+import gestaoeventos.dto.LogAuditoriaDTO;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Arquivo frio dos registos de auditoria retirados da tabela log_auditoria.
+ *
+ * Os registos são guardados em segmentos NDJSON comprimidos com gzip, que
+ * nunca são alterados depois de escritos. O ficheiro indice.ndjson, só de
+ * acréscimo, tem uma linha SEGMENTO por segmento (intervalo de ids e de
+ * datas e, por entidade, os ids referidos) e uma linha APAGADO quando as
+ * linhas do segmento já saíram da tabela. Uma pesquisa só descomprime os
+ * segmentos cujo índice pode conter resultados.
+ *
+ * Um segmento sem APAGADO (falha entre a escrita e a limpeza) tem linhas
+ * também presentes na tabela: idsPorApagar permite às consultas ignorá-las
+ * e a retenção termina a limpeza na execução seguinte.
+ */
+@Component
+public class ArquivoAuditoria {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArquivoAuditoria.class);
+
+    private static final String INDICE = "indice.ndjson";
+    static final String TIPO_SEGMENTO = "SEGMENTO";
+    static final String TIPO_APAGADO = "APAGADO";
+
+    /** Linha do índice. Os campos do segmento vêm a null nas linhas APAGADO. */
+    public record EntradaIndice(String tipo, String ficheiro, Integer primeiroId, Integer ultimoId,
+            LocalDateTime de, LocalDateTime ate, Integer linhas, Map<String, int[]> entidades) {
+
+        boolean sobrepoe(LocalDateTime inicio, LocalDateTime fim) {
+            return (inicio == null || !ate.isBefore(inicio)) && (fim == null || de.isBefore(fim));
+        }
+
+        boolean referencia(String entidade, Integer entidadeId) {
+            int[] ids = entidades.get(entidade);
+            return ids != null && entidadeId != null && Arrays.binarySearch(ids, entidadeId) >= 0;
+        }
+    }
+
+    private final Path pasta;
+    private final ObjectWriter escritorLog;
+    private final ObjectReader leitorLog;
+    private final ObjectWriter escritorIndice;
+    private final ObjectReader leitorIndice;
+
+    private final List<EntradaIndice> segmentos = new CopyOnWriteArrayList<>();
+    private final Set<String> porApagar = ConcurrentHashMap.newKeySet();
+
+    public ArquivoAuditoria(@Value("${auditoria.arquivo.pasta:auditoria-arquivo}") String pasta,
+            JsonMapper jsonMapper) {
+        this.pasta = Path.of(pasta);
+        this.escritorLog = jsonMapper.writerFor(LogAuditoriaDTO.class);
+        this.leitorLog = jsonMapper.readerFor(LogAuditoriaDTO.class);
+        this.escritorIndice = jsonMapper.writerFor(EntradaIndice.class);
+        this.leitorIndice = jsonMapper.readerFor(EntradaIndice.class);
+    }
+
+    @PostConstruct
+    void carregarIndice() throws IOException {
+        Path indice = pasta.resolve(INDICE);
+        if (!Files.exists(indice)) {
+            return;
+        }
+        descartarLinhaIncompleta(indice);
+        try (BufferedReader in = Files.newBufferedReader(indice, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = in.readLine()) != null) {
+                EntradaIndice entrada;
+                try {
+                    entrada = leitorIndice.readValue(linha);
+                } catch (RuntimeException e) {
+                    LOG.warn("Linha inválida no índice do arquivo de auditoria ignorada");
+                    continue;
+                }
+                if (TIPO_SEGMENTO.equals(entrada.tipo())) {
+                    segmentos.add(entrada);
+                    porApagar.add(entrada.ficheiro());
+                } else if (TIPO_APAGADO.equals(entrada.tipo())) {
+                    porApagar.remove(entrada.ficheiro());
+                }
+            }
+        }
+        LOG.info("Arquivo de auditoria: {} segmentos, {} por limpar", segmentos.size(), porApagar.size());
+    }
+
+    /**
+     * Escreve um novo segmento com os registos dados (por ordem de id) e
+     * acrescenta-o ao índice. Quando este método termina o segmento está em
+     * disco, pelo que as linhas podem ser apagadas da tabela.
+     */
+    public EntradaIndice escreverSegmento(List<LogAuditoriaDTO> logs) throws IOException {
+        Files.createDirectories(pasta);
+        int primeiroId = logs.get(0).getId();
+        int ultimoId = logs.get(logs.size() - 1).getId();
+        String nome = "segmento-" + primeiroId + "-" + ultimoId + ".ndjson.gz";
+
+        LocalDateTime de = null;
+        LocalDateTime ate = null;
+        Map<String, TreeSet<Integer>> porEntidade = new TreeMap<>();
+
+        Path temp = pasta.resolve(nome + ".tmp");
+        try (FileChannel canal = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(canal), 64 * 1024);
+            Writer out = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8));
+            for (LogAuditoriaDTO l : logs) {
+                out.write(escritorLog.writeValueAsString(l));
+                out.write('\n');
+                if (l.getDataHora() != null) {
+                    de = de == null || l.getDataHora().isBefore(de) ? l.getDataHora() : de;
+                    ate = ate == null || l.getDataHora().isAfter(ate) ? l.getDataHora() : ate;
+                }
+                if (l.getEntidade() != null && l.getEntidadeId() != null) {
+                    porEntidade.computeIfAbsent(l.getEntidade(), k -> new TreeSet<>()).add(l.getEntidadeId());
+                }
+            }
+            // fecha o gzip (escreve o trailer) sem fechar já o canal
+            out.flush();
+            gzip.finish();
+            canal.force(true);
+        }
+        Files.move(temp, pasta.resolve(nome), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Map<String, int[]> entidades = new TreeMap<>();
+        porEntidade.forEach((entidade, ids) -> entidades.put(entidade,
+                ids.stream().mapToInt(Integer::intValue).toArray()));
+        EntradaIndice entrada = new EntradaIndice(TIPO_SEGMENTO, nome, primeiroId, ultimoId,
+                de, ate, logs.size(), entidades);
+        acrescentarAoIndice(entrada);
+        segmentos.add(entrada);
+        porApagar.add(nome);
+        return entrada;
+    }
+
+    /**
+     * Marca no índice que as linhas do segmento já saíram da tabela.
+     */
+    public void marcarApagado(EntradaIndice segmento) throws IOException {
+        acrescentarAoIndice(new EntradaIndice(TIPO_APAGADO, segmento.ficheiro(), null, null, null, null, null, null));
+        porApagar.remove(segmento.ficheiro());
+    }
+
+    /** Segmentos escritos cujas linhas ainda podem estar na tabela. */
+    public List<EntradaIndice> segmentosPorApagar() {
+        return segmentos.stream().filter(s -> porApagar.contains(s.ficheiro())).toList();
+    }
+
+    /**
+     * Ids de registos que estão no arquivo e ainda podem estar na tabela.
+     * Normalmente vazio; as consultas usam-no para não os devolver duas vezes.
+     */
+    public Set<Integer> idsPorApagar() {
+        Set<Integer> ids = new HashSet<>();
+        for (EntradaIndice s : segmentosPorApagar()) {
+            ids.addAll(idsDoSegmento(s));
+        }
+        return ids;
+    }
+
+    /** Ids dos registos guardados num segmento, por ordem. */
+    public List<Integer> idsDoSegmento(EntradaIndice segmento) {
+        List<Integer> ids = new ArrayList<>(segmento.linhas());
+        ler(segmento, l -> true, l -> ids.add(l.getId()));
+        return ids;
+    }
+
+    /**
+     * Entrega, por ordem de arquivo, os registos arquivados do intervalo
+     * [de, ate[ (limites a null não restringem).
+     */
+    public void lerPorIntervalo(LocalDateTime de, LocalDateTime ate, Consumer<LogAuditoriaDTO> destino) {
+        for (EntradaIndice s : segmentos) {
+            if (s.de() != null && s.sobrepoe(de, ate)) {
+                ler(s, l -> l.getDataHora() != null
+                        && (de == null || !l.getDataHora().isBefore(de))
+                        && (ate == null || l.getDataHora().isBefore(ate)), destino);
+            }
+        }
+    }
+
+    /**
+     * Registos arquivados de uma entidade; só são lidos os segmentos cujo
+     * índice refere o id pedido.
+     */
+    public List<LogAuditoriaDTO> listarPorEntidade(String entidade, Integer entidadeId) {
+        List<LogAuditoriaDTO> resultado = new ArrayList<>();
+        for (EntradaIndice s : segmentos) {
+            if (s.referencia(entidade, entidadeId)) {
+                ler(s, l -> entidade.equals(l.getEntidade()) && entidadeId.equals(l.getEntidadeId()),
+                        resultado::add);
+            }
+        }
+        return resultado;
+    }
+
+    private void ler(EntradaIndice segmento, Predicate<LogAuditoriaDTO> filtro, Consumer<LogAuditoriaDTO> destino) {
+        Path ficheiro = pasta.resolve(segmento.ficheiro());
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(ficheiro), 64 * 1024), StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = in.readLine()) != null) {
+                LogAuditoriaDTO l = leitorLog.readValue(linha);
+                if (filtro.test(l)) {
+                    destino.accept(l);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o segmento de auditoria " + segmento.ficheiro(), e);
+        }
+    }
+
+    /**
+     * Corta o índice a seguir ao último fim de linha. Sem isto, a linha
+     * incompleta de uma escrita interrompida ficaria colada à próxima entrada
+     * acrescentada, e as duas seriam ignoradas na leitura.
+     */
+    private static void descartarLinhaIncompleta(Path indice) throws IOException {
+        try (FileChannel canal = FileChannel.open(indice, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long fim = canal.size();
+            ByteBuffer bloco = ByteBuffer.allocate(4096);
+            while (fim > 0) {
+                long inicio = Math.max(0, fim - bloco.capacity());
+                bloco.clear().limit((int) (fim - inicio));
+                while (bloco.hasRemaining()) {
+                    if (canal.read(bloco, inicio + bloco.position()) < 0) {
+                        break;
+                    }
+                }
+                for (int i = bloco.position() - 1; i >= 0; i--) {
+                    if (bloco.get(i) == '\n') {
+                        cortar(canal, inicio + i + 1);
+                        return;
+                    }
+                }
+                fim = inicio;
+            }
+            cortar(canal, 0);
+        }
+    }
+
+    private static void cortar(FileChannel canal, long tamanho) throws IOException {
+        if (tamanho < canal.size()) {
+            LOG.warn("Linha final incompleta no índice do arquivo de auditoria descartada");
+            canal.truncate(tamanho);
+            canal.force(true);
+        }
+    }
+
+    private synchronized void acrescentarAoIndice(EntradaIndice entrada) throws IOException {
+        byte[] linha = (escritorIndice.writeValueAsString(entrada) + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel canal = FileChannel.open(pasta.resolve(INDICE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(linha);
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(true);
+        }
+    }
+}
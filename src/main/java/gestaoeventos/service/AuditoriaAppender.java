@@ -0,0 +1,295 @@
+package gestaoeventos.service;
+
+import gestaoeventos.dto.MetricasAuditoriaDTO;
+import gestaoeventos.entity.LogAuditoria;
+import gestaoeventos.repository.LogAuditoriaBatchRepository;
+import gestaoeventos.repository.LogAuditoriaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escrita dos registos de auditoria fora do caminho das operações de negócio.
+ *
+ * Nos modos assíncronos o registo só entra na fila depois do commit da
+ * transação que o originou (um rollback não deixa rasto) e uma thread de
+ * fundo grava-o em lotes de auditoria.lote.tamanho registos ou a cada
+ * auditoria.lote.intervalo-ms. No fecho da aplicação a fila é despejada.
+ *
+ * No modo ASSINCRONO_WAL o registo é escrito no WAL ainda antes do commit,
+ * para que um commit confirmado nunca fique sem o seu registo; se a
+ * transação for revertida, a entrada é descartada do WAL.
+ *
+ * Com fila cheia, o modo ASSINCRONO descarta o registo (contado nas métricas);
+ * o modo ASSINCRONO_WAL espera por espaço até ESPERA_FILA_MS e, se não houver,
+ * grava o registo diretamente na thread que o originou.
+ */
+@Component
+public class AuditoriaAppender {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AuditoriaAppender.class);
+
+    static final long ESPERA_FILA_MS = 1_000;
+
+    private final LogAuditoriaRepository logAuditoriaRepository;
+    private final LogAuditoriaBatchRepository logAuditoriaBatchRepository;
+    private final ModoAuditoria modo;
+    private final int tamanhoLote;
+    private final long intervaloMs;
+    private final BlockingQueue<Entrada> fila;
+    private final AuditoriaWal wal;
+
+    private final AtomicLong gravados = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong falhados = new AtomicLong();
+
+    // aTerminar e aEnfileirar são alterados sob este monitor: depois de
+    // aTerminar ninguém entra na fila, e o escritor só sai (fechado) quando
+    // os que já estavam a entrar terminaram
+    private final Object estado = new Object();
+    private int aEnfileirar;
+    private volatile boolean aTerminar;
+    private volatile boolean fechado;
+    private Thread escritor;
+
+    public AuditoriaAppender(LogAuditoriaRepository logAuditoriaRepository,
+            LogAuditoriaBatchRepository logAuditoriaBatchRepository,
+            @Value("${auditoria.modo:ASSINCRONO}") ModoAuditoria modo,
+            @Value("${auditoria.fila.capacidade:10000}") int capacidade,
+            @Value("${auditoria.lote.tamanho:200}") int tamanhoLote,
+            @Value("${auditoria.lote.intervalo-ms:500}") long intervaloMs,
+            @Value("${auditoria.wal.ficheiro:auditoria.wal}") String ficheiroWal) {
+        this.logAuditoriaRepository = logAuditoriaRepository;
+        this.logAuditoriaBatchRepository = logAuditoriaBatchRepository;
+        this.modo = modo;
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloMs = intervaloMs;
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.wal = modo == ModoAuditoria.ASSINCRONO_WAL ? new AuditoriaWal(Path.of(ficheiroWal)) : null;
+    }
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        if (modo == ModoAuditoria.SINCRONO) {
+            return;
+        }
+        if (wal != null) {
+            List<LogAuditoria> pendentes = wal.recuperar();
+            if (!pendentes.isEmpty()) {
+                logAuditoriaBatchRepository.inserirEmLote(pendentes);
+                gravados.addAndGet(pendentes.size());
+                LOG.info("Recuperados {} registos de auditoria do WAL", pendentes.size());
+            }
+            wal.abrir();
+        }
+        escritor = new Thread(this::escrever, "auditoria-escritor");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Regista uma entrada de auditoria segundo o modo configurado.
+     */
+    public void registar(LogAuditoria log) {
+        if (modo == ModoAuditoria.SINCRONO) {
+            logAuditoriaRepository.save(log);
+            gravados.incrementAndGet();
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enfileirar(new Entrada(log, acrescentarAoWal(log)));
+            return;
+        }
+        if (wal == null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enfileirar(new Entrada(log, 0));
+                }
+            });
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long senha;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // se o WAL falhar, a transação é revertida
+                senha = acrescentarAoWal(log);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    enfileirar(new Entrada(log, senha));
+                    return;
+                }
+                try {
+                    wal.descartar(senha);
+                } catch (IOException e) {
+                    LOG.error("Falha ao descartar registo revertido do WAL de auditoria", e);
+                }
+            }
+        });
+    }
+
+    public MetricasAuditoriaDTO obterMetricas() {
+        return new MetricasAuditoriaDTO(modo.name(), fila.size(), fila.size() + fila.remainingCapacity(),
+                gravados.get(), descartados.get(), falhados.get());
+    }
+
+    private long acrescentarAoWal(LogAuditoria log) {
+        if (wal == null) {
+            return 0;
+        }
+        try {
+            return wal.acrescentar(log);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao escrever no WAL de auditoria", e);
+        }
+    }
+
+    private void enfileirar(Entrada entrada) {
+        boolean depoisDoFecho;
+        synchronized (estado) {
+            depoisDoFecho = aTerminar;
+            if (!depoisDoFecho) {
+                aEnfileirar++;
+            }
+        }
+        if (depoisDoFecho) {
+            // já depois do fecho: grava diretamente para não se perder
+            gravarLote(List.of(entrada));
+            return;
+        }
+        boolean aceite;
+        try {
+            aceite = wal == null ? fila.offer(entrada) : fila.offer(entrada, ESPERA_FILA_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aceite = false;
+        } finally {
+            synchronized (estado) {
+                aEnfileirar--;
+                estado.notifyAll();
+            }
+        }
+        if (aceite) {
+            return;
+        }
+        if (wal == null) {
+            descartados.incrementAndGet();
+        } else {
+            gravarLote(List.of(entrada));
+        }
+    }
+
+    private void escrever() {
+        List<Entrada> lote = new ArrayList<>(tamanhoLote);
+        while (!fechado || !fila.isEmpty()) {
+            try {
+                Entrada primeira = fila.poll(intervaloMs, TimeUnit.MILLISECONDS);
+                if (primeira == null) {
+                    continue;
+                }
+                lote.add(primeira);
+                // espera até completar o lote ou passar o intervalo
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+                while (lote.size() < tamanhoLote && !aTerminar) {
+                    fila.drainTo(lote, tamanhoLote - lote.size());
+                    long restante = limite - System.nanoTime();
+                    if (lote.size() >= tamanhoLote || restante <= 0) {
+                        break;
+                    }
+                    Entrada seguinte = fila.poll(restante, TimeUnit.NANOSECONDS);
+                    if (seguinte != null) {
+                        lote.add(seguinte);
+                    }
+                }
+                fila.drainTo(lote, tamanhoLote - lote.size());
+                gravarLote(lote);
+                lote.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void gravarLote(List<Entrada> lote) {
+        List<LogAuditoria> logs = new ArrayList<>(lote.size());
+        for (Entrada e : lote) {
+            logs.add(e.log());
+        }
+        try {
+            logAuditoriaBatchRepository.inserirEmLote(logs);
+            gravados.addAndGet(logs.size());
+        } catch (RuntimeException e) {
+            // um registo inválido não deve levar o lote inteiro: tenta um a um
+            LOG.warn("Falha ao gravar lote de {} registos de auditoria, a gravar individualmente", logs.size(), e);
+            for (LogAuditoria log : logs) {
+                try {
+                    logAuditoriaBatchRepository.inserirEmLote(List.of(log));
+                    gravados.incrementAndGet();
+                } catch (RuntimeException individual) {
+                    falhados.incrementAndGet();
+                    LOG.error("Registo de auditoria perdido: {} {} {}", log.getAcao(), log.getEntidade(),
+                            log.getEntidadeId(), individual);
+                }
+            }
+        }
+        if (wal == null) {
+            return;
+        }
+        List<Long> senhas = new ArrayList<>(lote.size());
+        for (Entrada e : lote) {
+            if (e.senha() > 0) {
+                senhas.add(e.senha());
+            }
+        }
+        if (!senhas.isEmpty()) {
+            try {
+                wal.checkpoint(senhas);
+            } catch (IOException e) {
+                LOG.error("Falha ao escrever checkpoint no WAL de auditoria", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void terminar() throws IOException, InterruptedException {
+        if (escritor == null) {
+            return;
+        }
+        synchronized (estado) {
+            aTerminar = true;
+            while (aEnfileirar > 0) {
+                estado.wait();
+            }
+        }
+        // o escritor acorda no máximo ao fim de um intervalo e despeja o resto
+        fechado = true;
+        escritor.join(TimeUnit.SECONDS.toMillis(30));
+        if (wal != null) {
+            wal.fechar();
+        }
+    }
+
+    private record Entrada(LogAuditoria log, long senha) {
+    }
+}
@@ -0,0 +1,289 @@
+package gestaoeventos.service;
+
+import gestaoeventos.entity.LogAuditoria;
+import gestaoeventos.entity.Utilizador;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Ficheiro write-ahead dos registos de auditoria assíncronos.
+ *
+ * Cada registo é acrescentado (e sincronizado para disco) antes do commit da
+ * transação que o originou, como uma linha "E seq campos...". Se a transação
+ * for revertida escreve-se "D seq". Como as transações terminam por ordem
+ * diferente da das senhas, as entradas são confirmadas uma a uma: depois de
+ * cada lote gravado na base de dados escreve-se "C seq" com a maior senha
+ * abaixo da qual já não há entradas pendentes. No arranque, as entradas
+ * posteriores ao último checkpoint e não descartadas são devolvidas para
+ * regravar; a entrega é pelo menos uma vez (uma falha entre o commit e o
+ * checkpoint pode duplicar um lote, e uma falha durante o commit regrava o
+ * registo mesmo que a transação não tenha chegado ao fim).
+ *
+ * O fsync é feito em grupo: quem escreve fica com o número da sua escrita e
+ * espera que um fsync a cubra. Se nenhum estiver a decorrer, essa thread faz
+ * o fsync de tudo o que já foi escrito, fora do monitor, e acorda as que
+ * ficaram cobertas; as transações que chegam entretanto juntam-se ao seguinte.
+ */
+final class AuditoriaWal {
+
+    private static final String NULO = "\\N";
+
+    private final Path ficheiro;
+    private FileChannel canal;
+    private long ultimaSenha;
+    private long ultimoCheckpoint;
+    private final TreeSet<Long> pendentes = new TreeSet<>();
+    private long escritas;
+    private long sincronizadas;
+    private boolean emFsync;
+
+    AuditoriaWal(Path ficheiro) {
+        this.ficheiro = ficheiro;
+    }
+
+    /**
+     * Lê as entradas por gravar deixadas por uma execução anterior.
+     */
+    synchronized List<LogAuditoria> recuperar() throws IOException {
+        if (!Files.exists(ficheiro)) {
+            return List.of();
+        }
+        Map<Long, LogAuditoria> entradas = new LinkedHashMap<>();
+        long checkpoint = 0;
+        for (String linha : Files.readAllLines(ficheiro, StandardCharsets.UTF_8)) {
+            String[] campos = linha.split("\t", -1);
+            try {
+                if (campos.length == 2 && campos[0].equals("C")) {
+                    checkpoint = Math.max(checkpoint, Long.parseLong(campos[1]));
+                } else if (campos.length == 2 && campos[0].equals("D")) {
+                    entradas.remove(Long.parseLong(campos[1]));
+                } else if (campos.length == 9 && campos[0].equals("E")) {
+                    entradas.put(Long.parseLong(campos[1]), ler(campos));
+                }
+            } catch (RuntimeException e) {
+                // linha truncada por uma falha a meio da escrita: ignorada
+            }
+        }
+        long gravadas = checkpoint;
+        entradas.keySet().removeIf(senha -> senha <= gravadas);
+        return new ArrayList<>(entradas.values());
+    }
+
+    /**
+     * Abre o ficheiro vazio para novas entradas.
+     */
+    synchronized void abrir() throws IOException {
+        canal = FileChannel.open(ficheiro, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ultimaSenha = 0;
+        ultimoCheckpoint = 0;
+        pendentes.clear();
+        escritas = 0;
+        sincronizadas = 0;
+    }
+
+    /**
+     * Acrescenta o registo e só regressa depois de estar em disco.
+     * Devolve a senha atribuída, ou 0 se o WAL já foi fechado.
+     */
+    long acrescentar(LogAuditoria log) throws IOException {
+        long senha;
+        long escrita;
+        synchronized (this) {
+            if (canal == null) {
+                return 0;
+            }
+            senha = ++ultimaSenha;
+            escrita = escrever(String.join("\t", "E", Long.toString(senha),
+                    escapar(log.getAcao()),
+                    escapar(log.getEntidade()),
+                    escapar(log.getEntidadeId()),
+                    escapar(log.getDataHora()),
+                    escapar(log.getIpOrigem()),
+                    escapar(log.getMotivo()),
+                    escapar(log.getAutor() != null ? log.getAutor().getNumero() : null)));
+            // pendente desde já, para que um checkpoint não esvazie o ficheiro
+            pendentes.add(senha);
+        }
+        sincronizar(escrita);
+        return senha;
+    }
+
+    /**
+     * Marca a entrada como revertida, para não ser regravada no arranque.
+     */
+    void descartar(long senha) throws IOException {
+        long escrita;
+        synchronized (this) {
+            if (canal == null || !pendentes.remove(senha)) {
+                return;
+            }
+            escrita = escrever("D\t" + senha);
+            avancarCheckpoint();
+        }
+        sincronizar(escrita);
+    }
+
+    /**
+     * Marca como gravadas as entradas com as senhas indicadas.
+     */
+    synchronized void checkpoint(List<Long> senhas) throws IOException {
+        if (canal == null || !pendentes.removeAll(senhas)) {
+            return;
+        }
+        avancarCheckpoint();
+    }
+
+    /**
+     * Sem entradas pendentes o ficheiro é esvaziado para não crescer; caso
+     * contrário fica registado o ponto até onde tudo está resolvido.
+     */
+    private void avancarCheckpoint() throws IOException {
+        if (pendentes.isEmpty()) {
+            canal.truncate(0);
+            canal.position(0);
+            canal.force(false);
+            sincronizadas = escritas;
+            ultimoCheckpoint = ultimaSenha;
+            return;
+        }
+        long resolvidas = pendentes.first() - 1;
+        if (resolvidas > ultimoCheckpoint) {
+            escrever("C\t" + resolvidas);
+            ultimoCheckpoint = resolvidas;
+        }
+    }
+
+    synchronized void fechar() throws IOException {
+        esperarFsync();
+        if (canal != null) {
+            canal.force(false);
+            sincronizadas = escritas;
+            canal.close();
+            canal = null;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Só regressa quando a escrita indicada estiver em disco.
+     */
+    private void sincronizar(long escrita) throws IOException {
+        FileChannel alvo;
+        long ate;
+        synchronized (this) {
+            while (sincronizadas < escrita && emFsync) {
+                esperarFsync();
+            }
+            if (sincronizadas >= escrita) {
+                return;
+            }
+            if (canal == null) {
+                throw new ClosedChannelException();
+            }
+            emFsync = true;
+            alvo = canal;
+            ate = escritas;
+        }
+        boolean feito = false;
+        try {
+            alvo.force(false);
+            feito = true;
+        } finally {
+            synchronized (this) {
+                emFsync = false;
+                if (feito) {
+                    sincronizadas = Math.max(sincronizadas, ate);
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private void esperarFsync() throws InterruptedIOException {
+        try {
+            while (emFsync) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido à espera do fsync do WAL de auditoria");
+        }
+    }
+
+    /**
+     * Devolve o número da escrita, para sincronizar.
+     */
+    private long escrever(String linha) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((linha + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        return ++escritas;
+    }
+
+    private static LogAuditoria ler(String[] campos) {
+        LogAuditoria log = new LogAuditoria();
+        log.setAcao(desescapar(campos[2]));
+        log.setEntidade(desescapar(campos[3]));
+        String entidadeId = desescapar(campos[4]);
+        log.setEntidadeId(entidadeId != null ? Integer.valueOf(entidadeId) : null);
+        log.setDataHora(LocalDateTime.parse(desescapar(campos[5])));
+        log.setIpOrigem(desescapar(campos[6]));
+        log.setMotivo(desescapar(campos[7]));
+        String autor = desescapar(campos[8]);
+        if (autor != null) {
+            Utilizador u = new Utilizador();
+            u.setNumero(Integer.valueOf(autor));
+            log.setAutor(u);
+        }
+        return log;
+    }
+
+    private static String escapar(Object valor) {
+        if (valor == null) {
+            return NULO;
+        }
+        return valor.toString()
+                .replace("\\", "\\\\")
+                .replace("\t", "\\t")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r");
+    }
+
+    private static String desescapar(String campo) {
+        if (campo.equals(NULO)) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(campo.length());
+        for (int i = 0; i < campo.length(); i++) {
+            char c = campo.charAt(i);
+            if (c == '\\' && i + 1 < campo.length()) {
+                char seguinte = campo.charAt(++i);
+                switch (seguinte) {
+                    case 't' -> sb.append('\t');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    default -> sb.append(seguinte);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
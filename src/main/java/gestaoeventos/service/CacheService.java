@@ -0,0 +1,44 @@
+package gestaoeventos.service;
+
+import gestaoeventos.config.CacheConfig;
+import gestaoeventos.dto.MetricasCacheDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Métricas das regiões da cache de segundo nível, a partir das estatísticas
+ * do Hibernate.
+ */
+@Service
+public class CacheService {
+
+    private static final List<String> REGIOES = List.of(
+            CacheConfig.REGIAO_LOCAL,
+            CacheConfig.REGIAO_UTILIZADOR,
+            CacheConfig.REGIAO_CONSULTAS);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheService(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public List<MetricasCacheDTO> obterMetricas() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<MetricasCacheDTO> metricas = new ArrayList<>();
+        for (String regiao : REGIOES) {
+            CacheRegionStatistics r = estatisticas.getCacheRegionStatistics(regiao);
+            if (r != null) {
+                metricas.add(new MetricasCacheDTO(regiao, r.getHitCount(), r.getMissCount(),
+                        r.getPutCount(), r.getElementCountInMemory()));
+            }
+        }
+        return metricas;
+    }
+}
@@ -0,0 +1,238 @@
+package gestaoeventos.service;
+
+import gestaoeventos.dto.AlteracaoDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Difusão das alterações aos dados para os clientes ligados a
+ * /api/stream/changes (Server-Sent Events).
+ *
+ * Os serviços chamam publicar depois de alterar um registo; dentro de uma
+ * transação a alteração só é difundida depois do commit. Cada alteração
+ * recebe uma versão sequencial e o id SSE "época-versão", em que a época
+ * identifica o arranque do servidor.
+ *
+ * As últimas HISTORICO alterações ficam em memória: um cliente que volte a
+ * ligar com Last-Event-ID recebe as que perdeu, ou um REINICIAR se já não
+ * for possível (servidor reiniciado ou alterações fora do histórico).
+ *
+ * Cada subscritor tem uma fila limitada a CAPACIDADE_SUBSCRITOR eventos,
+ * esvaziada por um pequeno conjunto de threads de envio, para que um
+ * cliente lento nunca atrase quem publica. Se a fila encher, o que lá está
+ * é descartado e substituído por um REINICIAR. Sem alterações, é enviado um
+ * comentário a cada stream.heartbeat-ms para manter a ligação aberta.
+ */
+@Component
+public class CanalAlteracoes {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CanalAlteracoes.class);
+
+    static final int HISTORICO = 1024;
+    static final int CAPACIDADE_SUBSCRITOR = 256;
+    private static final int THREADS_ENVIO = 2;
+    private static final String NOME_EVENTO = "alteracao";
+
+    private final long epoca = System.currentTimeMillis();
+    private final long timeoutMs;
+
+    // Protegidos pelo monitor do canal
+    private long versao;
+    private final ArrayDeque<AlteracaoDTO> historico = new ArrayDeque<>();
+
+    private final Set<Subscritor> subscritores = ConcurrentHashMap.newKeySet();
+    private final ExecutorService envio;
+    private final ScheduledExecutorService batimento;
+
+    public CanalAlteracoes(@Value("${stream.heartbeat-ms:15000}") long heartbeatMs,
+            @Value("${stream.timeout-ms:1800000}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+        this.envio = Executors.newFixedThreadPool(THREADS_ENVIO, r -> {
+            Thread t = new Thread(r, "alteracoes-envio");
+            t.setDaemon(true);
+            return t;
+        });
+        this.batimento = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "alteracoes-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        batimento.scheduleAtFixedRate(() -> subscritores.forEach(Subscritor::batimento),
+                heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publica a alteração de um registo. Dentro de uma transação só é
+     * difundida depois do commit, e não o é se a transação for desfeita.
+     */
+    public void publicar(String entidade, Integer id, String operacao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    difundir(entidade, id, operacao);
+                }
+            });
+        } else {
+            difundir(entidade, id, operacao);
+        }
+    }
+
+    /**
+     * Regista um novo subscritor. Com ultimoId (o Last-Event-ID do pedido)
+     * recebe primeiro as alterações posteriores a esse evento.
+     */
+    public SseEmitter subscrever(String ultimoId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscritor s = new Subscritor(emitter);
+        emitter.onCompletion(s::fechar);
+        emitter.onTimeout(s::fechar);
+        emitter.onError(e -> s.fechar());
+
+        synchronized (this) {
+            if (ultimoId != null && !ultimoId.isBlank()) {
+                long desde = versaoRetomavel(ultimoId);
+                if (desde < 0) {
+                    s.oferecer(new AlteracaoDTO(null, null, versao, AlteracaoDTO.REINICIAR));
+                } else {
+                    historico.stream().filter(a -> a.getVersao() > desde).forEach(s::oferecer);
+                }
+            }
+            subscritores.add(s);
+        }
+        return emitter;
+    }
+
+    public int getSubscritores() {
+        return subscritores.size();
+    }
+
+    /**
+     * Fecha os streams logo no início do fecho da aplicação: o encerramento
+     * gradual do servidor web esperaria por estes pedidos, que nunca acabam.
+     */
+    @EventListener(ContextClosedEvent.class)
+    void encerrar() {
+        batimento.shutdownNow();
+        envio.shutdownNow();
+        subscritores.forEach(s -> s.emitter.complete());
+    }
+
+    private synchronized void difundir(String entidade, Integer id, String operacao) {
+        AlteracaoDTO alteracao = new AlteracaoDTO(entidade, id, ++versao, operacao);
+        historico.addLast(alteracao);
+        if (historico.size() > HISTORICO) {
+            historico.removeFirst();
+        }
+        for (Subscritor s : subscritores) {
+            s.oferecer(alteracao);
+        }
+    }
+
+    /**
+     * Versão a partir da qual o histórico ainda permite retomar, ou -1 se o
+     * id não é deste arranque do servidor ou já saiu do histórico.
+     */
+    private long versaoRetomavel(String ultimoId) {
+        int separador = ultimoId.indexOf('-');
+        try {
+            if (separador < 0 || Long.parseLong(ultimoId.substring(0, separador)) != epoca) {
+                return -1;
+            }
+            long desde = Long.parseLong(ultimoId.substring(separador + 1));
+            return desde <= versao && desde >= versao - historico.size() ? desde : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Set<DataWithMediaType> evento(AlteracaoDTO alteracao) {
+        return SseEmitter.event()
+                .id(epoca + "-" + alteracao.getVersao())
+                .name(NOME_EVENTO)
+                .data(alteracao, MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private final class Subscritor {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Set<DataWithMediaType>> fila =
+                new ArrayBlockingQueue<>(CAPACIDADE_SUBSCRITOR);
+        private final AtomicBoolean agendado = new AtomicBoolean();
+        private volatile boolean fechado;
+
+        Subscritor(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void oferecer(AlteracaoDTO alteracao) {
+            if (!fila.offer(evento(alteracao))) {
+                // Cliente demasiado lento: em vez de crescer sem limite, pede-lhe para recarregar
+                fila.clear();
+                fila.offer(evento(new AlteracaoDTO(null, null, alteracao.getVersao(), AlteracaoDTO.REINICIAR)));
+                LOG.debug("Fila de um subscritor de alterações cheia; enviado REINICIAR");
+            }
+            agendar();
+        }
+
+        void batimento() {
+            if (fila.isEmpty() && fila.offer(SseEmitter.event().comment("ping").build())) {
+                agendar();
+            }
+        }
+
+        void fechar() {
+            fechado = true;
+            subscritores.remove(this);
+        }
+
+        private void agendar() {
+            if (!fechado && agendado.compareAndSet(false, true)) {
+                try {
+                    envio.execute(this::drenar);
+                } catch (RuntimeException e) {
+                    agendado.set(false);
+                }
+            }
+        }
+
+        private void drenar() {
+            try {
+                Set<DataWithMediaType> dados;
+                while (!fechado && (dados = fila.poll()) != null) {
+                    emitter.send(dados);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // ligação fechada pelo cliente; o Spring MVC termina o pedido
+                fechar();
+                return;
+            } finally {
+                agendado.set(false);
+            }
+            if (!fila.isEmpty()) {
+                agendar();
+            }
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package gestaoeventos.service;
 
 import gestaoeventos.dto.CertificadoDTO;
+import gestaoeventos.dto.EmissaoCertificadosDTO;
+import gestaoeventos.dto.PaginaDTO;
 import gestaoeventos.entity.Certificado;
 import gestaoeventos.entity.Inscricao;
 import gestaoeventos.entity.TipoCertificado;
 import gestaoeventos.exception.BusinessException;
 import gestaoeventos.exception.NotFoundException;
+import gestaoeventos.repository.CertificadoBatchRepository;
 import gestaoeventos.repository.CertificadoRepository;
 import gestaoeventos.repository.InscricaoRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -21,11 +26,14 @@ public class CertificadoService {
 
     private final CertificadoRepository certificadoRepository;
     private final InscricaoRepository inscricaoRepository;
+    private final CertificadoBatchRepository certificadoBatchRepository;
 
     public CertificadoService(CertificadoRepository certificadoRepository,
-            InscricaoRepository inscricaoRepository) {
+            InscricaoRepository inscricaoRepository,
+            CertificadoBatchRepository certificadoBatchRepository) {
         this.certificadoRepository = certificadoRepository;
         this.inscricaoRepository = inscricaoRepository;
+        this.certificadoBatchRepository = certificadoBatchRepository;
     }
 
     public List<CertificadoDTO> listarPorUtilizador(Integer utilizadorNumero) {
@@ -35,11 +43,12 @@ public class CertificadoService {
                 .collect(Collectors.toList());
     }
 
-    public List<CertificadoDTO> listarPorEvento(Integer eventoId) {
-        return certificadoRepository.findByEventoId(eventoId)
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    public PaginaDTO<CertificadoDTO> listarPorEvento(Integer eventoId, String cursor, Integer tamanhoPedido) {
+        int tamanho = Paginacao.tamanho(tamanhoPedido);
+        int aposId = Paginacao.chaveInteira(cursor, 0);
+        List<Certificado> lidos = certificadoRepository.findByEventoIdAposId(eventoId, aposId,
+                Limit.of(tamanho + 1));
+        return Paginacao.pagina(lidos, tamanho, c -> Paginacao.codificar(c.getId()), this::toDTO);
     }
 
     public CertificadoDTO obterPorCodigo(String codigoVerificacao) {
@@ -87,25 +96,35 @@ public class CertificadoService {
     }
 
     @Transactional
-    public void emitirCertificadosEmMassa(Integer eventoId, Integer emitidoPorNumero) {
-        emitirCertificadosEmMassaComTipo(eventoId, emitidoPorNumero, TipoCertificado.PRESENCA);
+    public EmissaoCertificadosDTO emitirCertificadosEmMassa(Integer eventoId, Integer emitidoPorNumero) {
+        return emitirCertificadosEmMassaComTipo(eventoId, emitidoPorNumero, TipoCertificado.PRESENCA);
     }
 
+    /**
+     * Emite certificados para todas as inscrições com check-in do evento que
+     * ainda não o tenham. As inscrições em falta são obtidas numa só query e
+     * os certificados inseridos em lotes JDBC, sem carregar entidades. Uma
+     * linha que falhe é contada em falhados sem desfazer as restantes.
+     */
     @Transactional
-    public void emitirCertificadosEmMassaComTipo(Integer eventoId, Integer emitidoPorNumero, TipoCertificado tipo) {
-        List<Inscricao> inscricoesComCheckin = inscricaoRepository.findByEventoIdAndCheckInTrue(eventoId);
-
-        for (Inscricao inscricao : inscricoesComCheckin) {
-            if (!certificadoRepository.existsByInscricaoId(inscricao.getId())) {
-                Certificado certificado = new Certificado();
-                certificado.setInscricao(inscricao);
-                certificado.setDataEmissao(LocalDateTime.now());
-                certificado.setCodigoVerificacao(gerarCodigoVerificacao());
-                certificado.setEmitidoPorNumero(emitidoPorNumero);
-                certificado.setTipo(tipo != null ? tipo : TipoCertificado.PRESENCA);
-                certificadoRepository.save(certificado);
-            }
+    public EmissaoCertificadosDTO emitirCertificadosEmMassaComTipo(Integer eventoId, Integer emitidoPorNumero,
+            TipoCertificado tipo) {
+        long comCheckin = inscricaoRepository.countByEventoIdAndCheckInTrue(eventoId);
+        List<Integer> pendentes = inscricaoRepository.findIdsComCheckinSemCertificado(eventoId);
+        int ignorados = (int) (comCheckin - pendentes.size());
+
+        if (pendentes.isEmpty()) {
+            return new EmissaoCertificadosDTO(eventoId, 0, ignorados, 0);
         }
+
+        List<String> codigos = new ArrayList<>(pendentes.size());
+        for (int i = 0; i < pendentes.size(); i++) {
+            codigos.add(gerarCodigoVerificacao());
+        }
+
+        CertificadoBatchRepository.ResultadoLote resultado = certificadoBatchRepository.inserirEmLote(pendentes,
+                codigos, emitidoPorNumero, tipo != null ? tipo : TipoCertificado.PRESENCA, LocalDateTime.now());
+        return new EmissaoCertificadosDTO(eventoId, resultado.inseridos(), ignorados, resultado.falhados());
     }
 
     private String gerarCodigoVerificacao() {
@@ -1,9 +1,11 @@
 package gestaoeventos.service;
 
+import gestaoeventos.dto.AlteracaoDTO;
 import gestaoeventos.dto.EventoCreateDTO;
 import gestaoeventos.dto.EventoDTO;
 import gestaoeventos.dto.EstatisticasEventoDTO;
 import gestaoeventos.dto.InscricaoResultadoDTO;
+import gestaoeventos.dto.PaginaDTO;
 import gestaoeventos.entity.EstadoEvento;
 import gestaoeventos.entity.EstadoInscricao;
 import gestaoeventos.entity.Evento;
@@ -15,20 +17,29 @@ import gestaoeventos.entity.TipoEvento;
 import gestaoeventos.entity.Utilizador;
 import gestaoeventos.exception.BusinessException;
 import gestaoeventos.exception.NotFoundException;
+import gestaoeventos.repository.CertificadoRepository;
+import gestaoeventos.repository.ContagemInscricoes;
+import gestaoeventos.repository.ContagemPorEvento;
 import gestaoeventos.repository.EventoRepository;
+import gestaoeventos.repository.EventoResumo;
+import gestaoeventos.repository.EventoSpecifications;
 import gestaoeventos.repository.InscricaoRepository;
 import gestaoeventos.repository.ListaEsperaRepository;
 import gestaoeventos.repository.LocalRepository;
-import gestaoeventos.repository.LogAuditoriaRepository;
 import gestaoeventos.repository.UtilizadorRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Serviço para gestão de eventos.
@@ -42,30 +53,45 @@ public class EventoService {
     private final LocalRepository localRepository;
     private final InscricaoRepository inscricaoRepository;
     private final ListaEsperaRepository listaEsperaRepository;
-    private final LogAuditoriaRepository logAuditoriaRepository;
+    private final ListaEsperaService listaEsperaService;
+    private final AuditoriaAppender auditoriaAppender;
+    private final CertificadoRepository certificadoRepository;
     private final QrCodeService qrCodeService;
+    private final TokenCheckinService tokenCheckinService;
+    private final CanalAlteracoes canalAlteracoes;
 
     public EventoService(EventoRepository eventoRepository,
             UtilizadorRepository utilizadorRepository,
             LocalRepository localRepository,
             InscricaoRepository inscricaoRepository,
             ListaEsperaRepository listaEsperaRepository,
-            LogAuditoriaRepository logAuditoriaRepository,
-            QrCodeService qrCodeService) {
+            ListaEsperaService listaEsperaService,
+            AuditoriaAppender auditoriaAppender,
+            CertificadoRepository certificadoRepository,
+            QrCodeService qrCodeService,
+            TokenCheckinService tokenCheckinService,
+            CanalAlteracoes canalAlteracoes) {
         this.eventoRepository = eventoRepository;
         this.utilizadorRepository = utilizadorRepository;
         this.localRepository = localRepository;
         this.inscricaoRepository = inscricaoRepository;
         this.listaEsperaRepository = listaEsperaRepository;
-        this.logAuditoriaRepository = logAuditoriaRepository;
+        this.listaEsperaService = listaEsperaService;
+        this.auditoriaAppender = auditoriaAppender;
+        this.certificadoRepository = certificadoRepository;
         this.qrCodeService = qrCodeService;
+        this.tokenCheckinService = tokenCheckinService;
+        this.canalAlteracoes = canalAlteracoes;
     }
 
-    public List<EventoDTO> listarTodos() {
-        return eventoRepository.findAll()
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    /**
+     * Lista os eventos por páginas, ordenados por id.
+     */
+    public PaginaDTO<EventoDTO> listarTodos(String cursor, Integer tamanhoPedido) {
+        int tamanho = Paginacao.tamanho(tamanhoPedido);
+        int aposId = Paginacao.chaveInteira(cursor, 0);
+        List<Evento> lidos = eventoRepository.findByIdGreaterThanOrderByIdAsc(aposId, Limit.of(tamanho + 1));
+        return Paginacao.pagina(lidos, tamanho, e -> Paginacao.codificar(e.getId()), this::toDTO);
     }
 
     public EventoDTO obterPorId(Integer id) {
@@ -108,6 +134,7 @@ public class EventoService {
 
         Evento salvo = eventoRepository.save(e);
         registarLog("CRIAR_EVENTO", "Evento", salvo.getId(), criador, null);
+        canalAlteracoes.publicar("Evento", salvo.getId(), AlteracaoDTO.CRIADO);
         return toDTO(salvo);
     }
 
@@ -152,6 +179,7 @@ public class EventoService {
 
         Evento salvo = eventoRepository.save(e);
         registarLog("ATUALIZAR_EVENTO", "Evento", salvo.getId(), autor, null);
+        canalAlteracoes.publicar("Evento", salvo.getId(), AlteracaoDTO.ATUALIZADO);
         return toDTO(salvo);
     }
 
@@ -169,6 +197,7 @@ public class EventoService {
         Evento salvo = eventoRepository.save(e);
 
         registarLog("PUBLICAR_EVENTO", "Evento", id, autor, null);
+        canalAlteracoes.publicar("Evento", id, AlteracaoDTO.ATUALIZADO);
         return toDTO(salvo);
     }
 
@@ -187,6 +216,7 @@ public class EventoService {
         Evento salvo = eventoRepository.save(e);
 
         registarLog("CANCELAR_EVENTO", "Evento", id, autor, motivo);
+        canalAlteracoes.publicar("Evento", id, AlteracaoDTO.ATUALIZADO);
         return toDTO(salvo);
     }
 
@@ -194,7 +224,11 @@ public class EventoService {
      * Inscreve um utilizador num evento.
      * Se o evento estiver cheio, adiciona à lista de espera.
      * Devolve o QR code para fazer check-in.
+     *
+     * A vaga é ocupada com um UPDATE condicional ao contador do evento, pelo
+     * que pedidos concorrentes nunca ultrapassam o máximo de participantes.
      */
+    @Transactional
     public InscricaoResultadoDTO inscreverEmEvento(Integer eventoId, Integer utilizadorNumero) {
         Evento evento = eventoRepository.findById(eventoId)
                 .orElseThrow(() -> new NotFoundException("Evento não encontrado"));
@@ -211,27 +245,23 @@ public class EventoService {
         Utilizador utilizador = utilizadorRepository.findById(utilizadorNumero)
                 .orElseThrow(() -> new BusinessException("Utilizador não encontrado"));
 
-        boolean jaInscrito = inscricaoRepository.findByEventoId(eventoId)
-                .stream()
-                .anyMatch(i -> i.getUtilizador().getNumero().equals(utilizadorNumero));
-
-        if (jaInscrito) {
+        // Usa o índice da constraint uk_inscricao_utilizador_evento
+        if (inscricaoRepository.existsByEventoIdAndUtilizadorNumero(eventoId, utilizadorNumero)) {
             throw new BusinessException("Utilizador já está inscrito neste evento");
         }
+        if (listaEsperaRepository.existsByEventoIdAndUtilizadorNumero(eventoId, utilizadorNumero)) {
+            throw new BusinessException("Utilizador já está na lista de espera deste evento");
+        }
 
-        int inscritosAtivos = inscricaoRepository.countByEventoIdAndEstado(eventoId, EstadoInscricao.ATIVA);
+        eventoRepository.inicializarVagasOcupadas(eventoId);
 
         // Se não há vagas, vai para a lista de espera
-        if (evento.getMaxParticipantes() != null && inscritosAtivos >= evento.getMaxParticipantes()) {
-            ListaEspera le = new ListaEspera();
-            le.setEvento(evento);
-            le.setUtilizador(utilizador);
-            int posicao = listaEsperaRepository.findByEventoIdOrderByDataEntradaAsc(eventoId).size() + 1;
-            le.setPosicao(posicao);
-
-            listaEsperaRepository.save(le);
+        if (eventoRepository.reservarVaga(eventoId) == 0) {
+            int posicao = listaEsperaService.entrar(evento, utilizador);
             registarLog("ENTRADA_LISTA_ESPERA", "Evento", eventoId, utilizador, null);
-            return new InscricaoResultadoDTO("EVENTO_LOTADO_LISTA_ESPERA", null, null, null);
+            InscricaoResultadoDTO resultado = new InscricaoResultadoDTO("EVENTO_LOTADO_LISTA_ESPERA", null, null, null);
+            resultado.setPosicaoListaEspera(posicao);
+            return resultado;
         }
 
         // Criar inscrição
@@ -241,36 +271,44 @@ public class EventoService {
         insc.setEstado(EstadoInscricao.ATIVA);
         insc.setDataInscricao(LocalDateTime.now());
 
-        Inscricao salvo = inscricaoRepository.save(insc);
-
-        // Gerar token do QR code
-        String token = "CHK-" + salvo.getId() + "-" + UUID.randomUUID();
-        salvo.setQrCodeCheckin(token);
-
-        // QR code válido até 2 horas após o início
-        if (evento.getDataInicio() != null) {
-            salvo.setValidadeQrcode(evento.getDataInicio().plusHours(2));
+        Inscricao salvo;
+        try {
+            salvo = inscricaoRepository.saveAndFlush(insc);
+        } catch (DataIntegrityViolationException ex) {
+            // Dois pedidos simultâneos do mesmo utilizador: a constraint única
+            // rejeita o segundo e a transação desfaz a vaga reservada.
+            throw new BusinessException("Utilizador já está inscrito neste evento");
         }
 
+        String token = atribuirTokenCheckin(salvo, evento);
         inscricaoRepository.save(salvo);
         registarLog("INSCRICAO_EVENTO", "Evento", eventoId, utilizador, null);
+        canalAlteracoes.publicar("Inscricao", salvo.getId(), AlteracaoDTO.CRIADO);
 
-        String qrCodeUrl = qrCodeService.gerarUrlQrCode(token);
+        String qrCodeUrl = qrCodeService.gerarUrlQrCode(salvo.getId());
         return new InscricaoResultadoDTO("INSCRICAO_OK", salvo.getId(), token, qrCodeUrl);
     }
 
     /**
-     * Promove o primeiro da lista de espera para inscrição ativa.
+     * Promove o primeiro da lista de espera para inscrição ativa,
+     * se houver uma vaga livre.
      */
+    @Transactional
     public void promoverDaListaEspera(Integer eventoId) {
+        listaEsperaService.bloquearFila(eventoId);
         ListaEspera proximo = listaEsperaRepository
-                .findFirstByEventoIdOrderByPosicaoAsc(eventoId)
+                .findFirstByEventoIdOrderByPosicaoAscIdAsc(eventoId)
                 .orElse(null);
 
         if (proximo == null) {
             return;
         }
 
+        eventoRepository.inicializarVagasOcupadas(eventoId);
+        if (eventoRepository.reservarVaga(eventoId) == 0) {
+            return;
+        }
+
         Evento evento = eventoRepository.findById(eventoId)
                 .orElseThrow(() -> new NotFoundException("Evento não encontrado"));
 
@@ -281,34 +319,93 @@ public class EventoService {
         nova.setDataInscricao(LocalDateTime.now());
 
         Inscricao salvo = inscricaoRepository.save(nova);
-        String token = "CHK-" + salvo.getId() + "-" + UUID.randomUUID();
-        salvo.setQrCodeCheckin(token);
-
-        if (evento.getDataInicio() != null) {
-            salvo.setValidadeQrcode(evento.getDataInicio().plusHours(2));
-        }
+        atribuirTokenCheckin(salvo, evento);
         inscricaoRepository.save(salvo);
 
-        listaEsperaRepository.delete(proximo);
+        listaEsperaService.retirar(proximo);
         registarLog("PROMOVER_LISTA_ESPERA", "Evento", eventoId, proximo.getUtilizador(), null);
+        canalAlteracoes.publicar("Inscricao", salvo.getId(), AlteracaoDTO.CRIADO);
+    }
+
+    /**
+     * Liberta a vaga ocupada por uma inscrição ativa que foi cancelada.
+     */
+    @Transactional
+    public void libertarVaga(Integer eventoId) {
+        eventoRepository.inicializarVagasOcupadas(eventoId);
+        eventoRepository.libertarVaga(eventoId);
     }
 
     /**
      * Calcula as estatísticas de um evento.
+     * Usa uma consulta agregada (GROUP BY estado, check_in) e uma contagem de
+     * certificados, sem carregar as inscrições.
      */
     public EstatisticasEventoDTO obterEstatisticas(Integer eventoId) {
-        Evento evento = eventoRepository.findById(eventoId)
+        EventoResumo evento = eventoRepository.findResumoById(eventoId)
                 .orElseThrow(() -> new NotFoundException("Evento não encontrado"));
 
-        List<Inscricao> inscricoes = inscricaoRepository.findByEventoId(eventoId);
+        return montarEstatisticas(evento,
+                inscricaoRepository.contarPorEstadoECheckin(eventoId),
+                certificadoRepository.countByEventoId(eventoId));
+    }
 
-        int totalInscricoes = inscricoes.size();
-        int inscricoesAtivas = (int) inscricoes.stream()
-                .filter(i -> i.getEstado() == EstadoInscricao.ATIVA).count();
-        int inscricoesCanceladas = (int) inscricoes.stream()
-                .filter(i -> i.getEstado() == EstadoInscricao.CANCELADA).count();
-        int checkInsRealizados = (int) inscricoes.stream()
-                .filter(Inscricao::isCheckIn).count();
+    /**
+     * Calcula as estatísticas de vários eventos de uma vez: uma consulta
+     * agrupada por evento para as inscrições e outra para os certificados,
+     * independentemente do número de eventos.
+     * Indicar os ids ou o organizador (ids tem prioridade).
+     */
+    public List<EstatisticasEventoDTO> obterEstatisticasEmLote(List<Integer> ids, Integer organizadorNumero) {
+        List<EventoResumo> eventos;
+        if (ids != null && !ids.isEmpty()) {
+            if (ids.size() > Paginacao.TAMANHO_MAXIMO) {
+                throw new BusinessException("No máximo " + Paginacao.TAMANHO_MAXIMO + " eventos por pedido");
+            }
+            eventos = eventoRepository.findResumoByIdInOrderByIdAsc(ids);
+        } else if (organizadorNumero != null) {
+            eventos = eventoRepository.findResumoByCriadorNumeroOrderByIdAsc(organizadorNumero);
+        } else {
+            throw new BusinessException("Indique os ids dos eventos ou o organizador");
+        }
+        if (eventos.isEmpty()) {
+            return List.of();
+        }
+
+        List<Integer> eventoIds = eventos.stream().map(EventoResumo::getId).toList();
+        Map<Integer, List<ContagemInscricoes>> contagens = inscricaoRepository
+                .contarPorEstadoECheckinDosEventos(eventoIds)
+                .stream()
+                .collect(Collectors.groupingBy(ContagemInscricoes::getEventoId));
+        Map<Integer, Long> certificados = certificadoRepository.contarPorEventos(eventoIds)
+                .stream()
+                .collect(Collectors.toMap(ContagemPorEvento::getEventoId, ContagemPorEvento::getTotal));
+
+        return eventos.stream()
+                .map(e -> montarEstatisticas(e,
+                        contagens.getOrDefault(e.getId(), List.of()),
+                        certificados.getOrDefault(e.getId(), 0L)))
+                .toList();
+    }
+
+    private EstatisticasEventoDTO montarEstatisticas(EventoResumo evento,
+            List<ContagemInscricoes> contagens, long certificados) {
+        int totalInscricoes = 0;
+        int inscricoesAtivas = 0;
+        int inscricoesCanceladas = 0;
+        int checkInsRealizados = 0;
+        for (ContagemInscricoes c : contagens) {
+            int total = (int) c.getTotal();
+            totalInscricoes += total;
+            if (c.getEstado() == EstadoInscricao.ATIVA) {
+                inscricoesAtivas += total;
+            } else if (c.getEstado() == EstadoInscricao.CANCELADA) {
+                inscricoesCanceladas += total;
+            }
+            if (c.isCheckIn()) {
+                checkInsRealizados += total;
+            }
+        }
 
         Integer maxParticipantes = evento.getMaxParticipantes();
         int vagasDisponiveis = maxParticipantes != null ? Math.max(0, maxParticipantes - inscricoesAtivas) : -1;
@@ -326,19 +423,19 @@ public class EventoService {
         dto.setMaxParticipantes(maxParticipantes);
         dto.setVagasDisponiveis(vagasDisponiveis);
         dto.setPercentualOcupacao(percentualOcupacao);
-        dto.setCertificadosEmitidos(0);
+        dto.setCertificadosEmitidos((int) certificados);
 
         return dto;
     }
 
     /**
      * Pesquisa eventos com filtros opcionais.
+     * Os filtros e a paginação (keyset sobre dataInicio, id) são aplicados na
+     * base de dados, pelo que o custo depende do tamanho da página e não do
+     * número total de eventos.
      */
-    public List<EventoDTO> pesquisar(String inicioStr, String fimStr, String tipoStr,
-            Integer localId, Integer organizadorNumero) {
-
-        List<Evento> todos = eventoRepository.findAll();
-        Stream<Evento> stream = todos.stream();
+    public PaginaDTO<EventoDTO> pesquisar(String inicioStr, String fimStr, String tipoStr,
+            Integer localId, Integer organizadorNumero, String cursor, Integer tamanhoPedido) {
 
         // Filtrar por datas
         LocalDateTime inicio = null;
@@ -354,20 +451,18 @@ public class EventoService {
             throw new BusinessException("Formato de data inválido. Use ISO-8601, ex: 2025-12-01T10:00:00");
         }
 
+        List<Specification<Evento>> filtros = new ArrayList<>();
         if (inicio != null) {
-            LocalDateTime finalInicio = inicio;
-            stream = stream.filter(e -> e.getDataInicio() != null && !e.getDataInicio().isBefore(finalInicio));
+            filtros.add(EventoSpecifications.iniciaDepoisDe(inicio));
         }
         if (fim != null) {
-            LocalDateTime finalFim = fim;
-            stream = stream.filter(e -> e.getDataInicio() != null && !e.getDataInicio().isAfter(finalFim));
+            filtros.add(EventoSpecifications.iniciaAntesDe(fim));
         }
 
         // Filtrar por tipo
         if (tipoStr != null && !tipoStr.isBlank()) {
             try {
-                TipoEvento tipoEnum = TipoEvento.valueOf(tipoStr);
-                stream = stream.filter(e -> e.getTipo() == tipoEnum);
+                filtros.add(EventoSpecifications.doTipo(TipoEvento.valueOf(tipoStr)));
             } catch (IllegalArgumentException ex) {
                 throw new BusinessException("Tipo de evento inválido");
             }
@@ -375,15 +470,45 @@ public class EventoService {
 
         // Filtrar por local
         if (localId != null) {
-            stream = stream.filter(e -> e.getLocal() != null && e.getLocal().getId().equals(localId));
+            filtros.add(EventoSpecifications.noLocal(localId));
         }
 
         // Filtrar por organizador
         if (organizadorNumero != null) {
-            stream = stream.filter(e -> e.getCriador() != null && e.getCriador().getNumero().equals(organizadorNumero));
+            filtros.add(EventoSpecifications.doOrganizador(organizadorNumero));
+        }
+
+        // Continuar a partir da última página devolvida
+        String[] chave = Paginacao.descodificar(cursor, 2);
+        if (chave != null) {
+            try {
+                filtros.add(EventoSpecifications.depoisDoCursor(
+                        LocalDateTime.parse(chave[0]), Integer.valueOf(chave[1])));
+            } catch (DateTimeParseException | NumberFormatException ex) {
+                throw new BusinessException("Cursor inválido");
+            }
         }
 
-        return stream.map(this::toDTO).collect(Collectors.toList());
+        int tamanho = Paginacao.tamanho(tamanhoPedido);
+        Sort ordem = Sort.by(Sort.Order.asc("dataInicio"), Sort.Order.asc("id"));
+        List<Evento> lidos = eventoRepository.findBy(Specification.allOf(filtros),
+                q -> q.sortBy(ordem).limit(tamanho + 1).all());
+
+        return Paginacao.pagina(lidos, tamanho,
+                e -> Paginacao.codificar(e.getDataInicio(), e.getId()),
+                this::toDTO);
+    }
+
+    /**
+     * Gera o token assinado do QR code, válido até 2 horas após o início.
+     */
+    private String atribuirTokenCheckin(Inscricao inscricao, Evento evento) {
+        if (evento.getDataInicio() != null) {
+            inscricao.setValidadeQrcode(evento.getDataInicio().plusHours(2));
+        }
+        String token = tokenCheckinService.gerar(inscricao.getId(), inscricao.getValidadeQrcode());
+        inscricao.setQrCodeCheckin(token);
+        return token;
     }
 
     private void registarLog(String acao, String entidade, Integer entidadeId,
@@ -394,7 +519,7 @@ public class EventoService {
         log.setEntidadeId(entidadeId);
         log.setAutor(autor);
         log.setMotivo(motivo);
-        logAuditoriaRepository.save(log);
+        auditoriaAppender.registar(log);
     }
 
     private EventoDTO toDTO(Evento e) {
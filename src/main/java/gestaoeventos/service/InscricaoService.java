@@ -1,30 +1,54 @@
 package gestaoeventos.service;
 
+import gestaoeventos.dto.AlteracaoDTO;
+import gestaoeventos.dto.CheckinLeituraDTO;
+import gestaoeventos.dto.CheckinResultadoDTO;
 import gestaoeventos.dto.InscricaoDTO;
 import gestaoeventos.entity.Inscricao;
 import gestaoeventos.entity.EstadoInscricao;
 import gestaoeventos.exception.BusinessException;
 import gestaoeventos.exception.NotFoundException;
+import gestaoeventos.repository.CheckinBatchRepository;
+import gestaoeventos.repository.CheckinBatchRepository.EstadoCheckin;
 import gestaoeventos.repository.InscricaoRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class InscricaoService {
 
+    static final int MAXIMO_LEITURAS_LOTE = 500;
+    static final Duration DESVIO_MAXIMO_LEITURA = Duration.ofMinutes(15);
+
     private final InscricaoRepository inscricaoRepository;
+    private final CheckinBatchRepository checkinBatchRepository;
     private final EventoService eventoService;
     private final QrCodeService qrCodeService;
+    private final TokenCheckinService tokenCheckinService;
+    private final CanalAlteracoes canalAlteracoes;
 
     public InscricaoService(InscricaoRepository inscricaoRepository,
+            CheckinBatchRepository checkinBatchRepository,
             EventoService eventoService,
-            QrCodeService qrCodeService) {
+            QrCodeService qrCodeService,
+            TokenCheckinService tokenCheckinService,
+            CanalAlteracoes canalAlteracoes) {
         this.inscricaoRepository = inscricaoRepository;
+        this.checkinBatchRepository = checkinBatchRepository;
         this.eventoService = eventoService;
         this.qrCodeService = qrCodeService;
+        this.tokenCheckinService = tokenCheckinService;
+        this.canalAlteracoes = canalAlteracoes;
     }
 
     public List<InscricaoDTO> listarPorEvento(Integer eventoId) {
@@ -50,18 +74,24 @@ public class InscricaoService {
     /**
      * Cancela a inscrição e tenta promover alguém da lista de espera.
      */
+    @Transactional
     public InscricaoDTO cancelarInscricao(Integer id) {
         Inscricao i = inscricaoRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Inscrição não encontrada"));
 
+        boolean estavaAtiva = i.getEstado() == EstadoInscricao.ATIVA;
         i.setEstado(EstadoInscricao.CANCELADA);
         Inscricao salvo = inscricaoRepository.save(i);
 
-        // tentar promover alguém da lista de espera
+        // libertar a vaga e tentar promover alguém da lista de espera
         if (i.getEvento() != null && i.getEvento().getId() != null) {
+            if (estavaAtiva) {
+                eventoService.libertarVaga(i.getEvento().getId());
+            }
             eventoService.promoverDaListaEspera(i.getEvento().getId());
         }
 
+        canalAlteracoes.publicar("Inscricao", salvo.getId(), AlteracaoDTO.ATUALIZADO);
         return toDTO(salvo);
     }
 
@@ -79,6 +109,7 @@ public class InscricaoService {
         i.setCheckIn(true);
         i.setDataCheckin(LocalDateTime.now());
         Inscricao salvo = inscricaoRepository.save(i);
+        canalAlteracoes.publicar("Inscricao", salvo.getId(), AlteracaoDTO.ATUALIZADO);
         return toDTO(salvo);
     }
 
@@ -93,7 +124,14 @@ public class InscricaoService {
             throw new BusinessException("Inscrição não tem QR code associado");
         }
 
-        return qrCodeService.gerarUrlQrCode(i.getQrCodeCheckin());
+        return qrCodeService.gerarUrlQrCode(i.getId());
+    }
+
+    /**
+     * Devolve a imagem do QR code da inscrição, gerada localmente.
+     */
+    public QrCodeService.ImagemQrCode obterQrCodeImagem(Integer id, QrCodeService.Formato formato, Integer tamanho) {
+        return qrCodeService.renderizar(obterQrCodeToken(id), formato, tamanho);
     }
 
     /**
@@ -112,8 +150,17 @@ public class InscricaoService {
 
     /**
      * Faz check-in a partir de um token lido do QR code.
+     *
+     * Os tokens assinados são verificados (assinatura e validade) sem acesso
+     * à base de dados e aplicados com um UPDATE pela chave primária; os
+     * tokens antigos continuam a ser procurados pela coluna qr_code_checkin.
      */
+    @Transactional
     public InscricaoDTO fazerCheckinPorToken(String token) {
+        if (tokenCheckinService.isAssinado(token)) {
+            return fazerCheckinPorTokenAssinado(token);
+        }
+
         Inscricao i = inscricaoRepository.findByQrCodeCheckin(token)
                 .orElseThrow(() -> new NotFoundException("Token de QR code inválido"));
 
@@ -132,9 +179,125 @@ public class InscricaoService {
         i.setDataCheckin(agora);
         Inscricao salvo = inscricaoRepository.save(i);
 
+        canalAlteracoes.publicar("Inscricao", salvo.getId(), AlteracaoDTO.ATUALIZADO);
         return toDTO(salvo);
     }
 
+    /**
+     * Aplica um lote de leituras de um posto de check-in numa só transação.
+     *
+     * Os tokens assinados forjados ou expirados são recusados sem consulta;
+     * os restantes são lidos (e bloqueados) numa só query e marcados com um
+     * único UPDATE. A validade é avaliada no instante da leitura enviado pelo
+     * posto, se estiver a menos de DESVIO_MAXIMO_LEITURA do instante atual;
+     * fora dessa janela usa-se a hora do servidor. Devolve um resultado por leitura,
+     * pela mesma ordem; um token repetido no lote conta como DUPLICADO.
+     */
+    @Transactional
+    public List<CheckinResultadoDTO> fazerCheckinEmLote(List<CheckinLeituraDTO> leituras) {
+        if (leituras == null || leituras.isEmpty()) {
+            return List.of();
+        }
+        if (leituras.size() > MAXIMO_LEITURAS_LOTE) {
+            throw new BusinessException("Máximo de " + MAXIMO_LEITURAS_LOTE + " leituras por lote");
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        CheckinResultadoDTO[] resultados = new CheckinResultadoDTO[leituras.size()];
+        Map<String, Integer> candidatos = new LinkedHashMap<>();
+        Set<String> vistos = new HashSet<>();
+
+        for (int i = 0; i < leituras.size(); i++) {
+            String token = leituras.get(i).getToken();
+            if (token == null || token.isBlank()) {
+                resultados[i] = new CheckinResultadoDTO(token, CheckinResultadoDTO.INVALIDO, null, null);
+            } else if (!vistos.add(token)) {
+                resultados[i] = new CheckinResultadoDTO(token, CheckinResultadoDTO.DUPLICADO, null, null);
+            } else if (tokenCheckinService.isAssinado(token)) {
+                try {
+                    TokenCheckinService.TokenCheckin dados = tokenCheckinService.ler(token);
+                    if (dados.expirado(momentoLeitura(leituras.get(i), agora))) {
+                        resultados[i] = new CheckinResultadoDTO(token, CheckinResultadoDTO.EXPIRADO,
+                                dados.inscricaoId(), null);
+                    } else {
+                        candidatos.put(token, i);
+                    }
+                } catch (NotFoundException e) {
+                    resultados[i] = new CheckinResultadoDTO(token, CheckinResultadoDTO.INVALIDO, null, null);
+                }
+            } else {
+                candidatos.put(token, i);
+            }
+        }
+
+        Map<String, EstadoCheckin> estados = checkinBatchRepository.bloquearPorTokens(candidatos.keySet());
+        Map<String, LocalDateTime> aMarcar = new LinkedHashMap<>();
+        candidatos.forEach((token, i) -> {
+            EstadoCheckin estado = estados.get(token);
+            LocalDateTime momento = momentoLeitura(leituras.get(i), agora);
+            if (estado == null) {
+                resultados[i] = new CheckinResultadoDTO(token, CheckinResultadoDTO.INVALIDO, null, null);
+            } else if (estado.checkIn()) {
+                resultados[i] = new CheckinResultadoDTO(token, CheckinResultadoDTO.DUPLICADO,
+                        estado.inscricaoId(), estado.dataCheckin());
+            } else if (estado.validade() != null && momento.isAfter(estado.validade())) {
+                resultados[i] = new CheckinResultadoDTO(token, CheckinResultadoDTO.EXPIRADO,
+                        estado.inscricaoId(), null);
+            } else {
+                aMarcar.put(token, momento);
+                resultados[i] = new CheckinResultadoDTO(token, CheckinResultadoDTO.OK,
+                        estado.inscricaoId(), momento);
+            }
+        });
+
+        // As linhas estão bloqueadas desde a leitura, por isso todas são atualizadas
+        checkinBatchRepository.marcarCheckins(aMarcar);
+        for (CheckinResultadoDTO r : resultados) {
+            if (CheckinResultadoDTO.OK.equals(r.getResultado())) {
+                canalAlteracoes.publicar("Inscricao", r.getInscricaoId(), AlteracaoDTO.ATUALIZADO);
+            }
+        }
+        return List.of(resultados);
+    }
+
+    /**
+     * Instante da leitura segundo o posto, aceite tal como vem (o posto
+     * reconhece o seu próprio check-in pela data devolvida) desde que esteja
+     * dentro da janela de desvio; assim um posto não consegue antedatar uma
+     * leitura para lá da validade do token.
+     */
+    private static LocalDateTime momentoLeitura(CheckinLeituraDTO leitura, LocalDateTime agora) {
+        LocalDateTime data = leitura.getDataLeitura();
+        if (data == null || data.isBefore(agora.minus(DESVIO_MAXIMO_LEITURA))
+                || data.isAfter(agora.plus(DESVIO_MAXIMO_LEITURA))) {
+            return agora;
+        }
+        return data;
+    }
+
+    private InscricaoDTO fazerCheckinPorTokenAssinado(String token) {
+        TokenCheckinService.TokenCheckin dados = tokenCheckinService.ler(token);
+        LocalDateTime agora = LocalDateTime.now();
+        if (dados.expirado(agora)) {
+            throw new BusinessException("QR code expirado");
+        }
+
+        if (inscricaoRepository.marcarCheckin(dados.inscricaoId(), token, agora) == 0) {
+            // Nada atualizado: ou já tinha check-in ou o token foi substituído
+            Inscricao i = inscricaoRepository.findById(dados.inscricaoId())
+                    .filter(existente -> token.equals(existente.getQrCodeCheckin()))
+                    .orElseThrow(() -> new NotFoundException("Token de QR code inválido"));
+            if (i.isCheckIn()) {
+                throw new BusinessException("Check-in já foi efetuado para esta inscrição");
+            }
+        }
+
+        canalAlteracoes.publicar("Inscricao", dados.inscricaoId(), AlteracaoDTO.ATUALIZADO);
+        return inscricaoRepository.findById(dados.inscricaoId())
+                .map(this::toDTO)
+                .orElseThrow(() -> new NotFoundException("Inscrição não encontrada"));
+    }
+
     // ------------------ MAPEAMENTO DTO -------------------
 
     private InscricaoDTO toDTO(Inscricao i) {
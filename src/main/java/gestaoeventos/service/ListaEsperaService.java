@@ -1,36 +1,206 @@
 package gestaoeventos.service;
 
 import gestaoeventos.dto.ListaEsperaDTO;
+import gestaoeventos.entity.Evento;
 import gestaoeventos.entity.ListaEspera;
+import gestaoeventos.entity.SaidasListaEspera;
+import gestaoeventos.entity.Utilizador;
+import gestaoeventos.exception.BusinessException;
+import gestaoeventos.exception.NotFoundException;
+import gestaoeventos.repository.EventoRepository;
 import gestaoeventos.repository.ListaEsperaRepository;
+import gestaoeventos.repository.SaidasListaEsperaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
+/**
+ * Serviço para gestão da lista de espera dos eventos.
+ *
+ * Cada entrada recebe a senha seguinte do contador do evento
+ * (seq_lista_espera), que nunca muda depois. O evento guarda também a cabeça
+ * da fila (cabeca_lista_espera): todas as senhas até ela já saíram e a
+ * seguinte, se existir, está em espera. Quem sai da frente só avança a
+ * cabeça até à senha seguinte em espera (pelo índice (evento_id, posicao));
+ * quem sai do meio fica registado na árvore de Fenwick de SaidasListaEspera.
+ *
+ * A posição de uma senha é senha - cabeça menos as saídas do meio entre a
+ * cabeça e a senha, contadas na árvore. Entrar, sair, promover e consultar a
+ * posição custam no máximo um acesso por bit da senha, seja qual for o
+ * tamanho da fila.
+ *
+ * As alterações à fila bloqueiam primeiro a linha do evento.
+ */
 @Service
 public class ListaEsperaService {
 
+    // Maior senha suportada pela árvore de saídas (2^30)
+    static final int LIMITE_SENHA = 1 << 30;
+
     private final ListaEsperaRepository listaEsperaRepository;
+    private final EventoRepository eventoRepository;
+    private final SaidasListaEsperaRepository saidasRepository;
 
-    public ListaEsperaService(ListaEsperaRepository listaEsperaRepository) {
+    public ListaEsperaService(ListaEsperaRepository listaEsperaRepository,
+            EventoRepository eventoRepository,
+            SaidasListaEsperaRepository saidasRepository) {
         this.listaEsperaRepository = listaEsperaRepository;
+        this.eventoRepository = eventoRepository;
+        this.saidasRepository = saidasRepository;
     }
 
     public List<ListaEsperaDTO> listarPorEvento(Integer eventoId) {
-        return listaEsperaRepository.findByEventoIdOrderByDataEntradaAsc(eventoId)
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        List<ListaEspera> fila = listaEsperaRepository.findByEventoIdOrderByPosicaoAscIdAsc(eventoId);
+        List<ListaEsperaDTO> dtos = new ArrayList<>(fila.size());
+        for (int i = 0; i < fila.size(); i++) {
+            dtos.add(toDTO(fila.get(i), i + 1));
+        }
+        return dtos;
+    }
+
+    /**
+     * Coloca o utilizador no fim da lista de espera do evento.
+     * Devolve a posição atribuída.
+     */
+    @Transactional
+    public int entrar(Evento evento, Utilizador utilizador) {
+        if (listaEsperaRepository.existsByEventoIdAndUtilizadorNumero(evento.getId(), utilizador.getNumero())) {
+            throw new BusinessException("Utilizador já está na lista de espera deste evento");
+        }
+
+        // Com a linha do evento bloqueada até ao commit, a senha lida a
+        // seguir é exclusiva desta transação.
+        bloquearFila(evento.getId());
+        eventoRepository.avancarSeqListaEspera(evento.getId());
+        Integer senha = eventoRepository.obterSeqListaEspera(evento.getId());
+
+        ListaEspera le = new ListaEspera();
+        le.setEvento(evento);
+        le.setUtilizador(utilizador);
+        le.setPosicao(senha);
+        listaEsperaRepository.save(le);
+
+        return posicao(evento.getId(), senha, eventoRepository.obterCabecaListaEspera(evento.getId()));
+    }
+
+    /**
+     * Remove o utilizador da lista de espera, em qualquer posição.
+     */
+    @Transactional
+    public void sair(Integer eventoId, Integer utilizadorNumero) {
+        bloquearFila(eventoId);
+        ListaEspera le = listaEsperaRepository.findByEventoIdAndUtilizadorNumero(eventoId, utilizadorNumero)
+                .orElseThrow(() -> new NotFoundException("Utilizador não está na lista de espera deste evento"));
+        retirar(le);
+    }
+
+    /**
+     * Tira uma entrada da fila do seu evento, que tem de ter sido bloqueada
+     * com bloquearFila na mesma transação.
+     */
+    @Transactional
+    public void retirar(ListaEspera le) {
+        Integer eventoId = le.getEvento().getId();
+        int cabeca = eventoRepository.obterCabecaListaEspera(eventoId);
+        listaEsperaRepository.delete(le);
+        listaEsperaRepository.flush();
+        if (le.getPosicao() != cabeca + 1) {
+            registarSaida(le.getEvento(), le.getPosicao());
+            return;
+        }
+        // saiu a cabeça: a nova fica logo antes da senha seguinte em espera
+        int seguinte = listaEsperaRepository.findFirstByEventoIdOrderByPosicaoAscIdAsc(eventoId)
+                .map(ListaEspera::getPosicao)
+                .orElseGet(() -> eventoRepository.obterSeqListaEspera(eventoId) + 1);
+        eventoRepository.definirCabecaListaEspera(eventoId, seguinte - 1);
+    }
+
+    /**
+     * Bloqueia a fila do evento até ao commit. Nos eventos anteriores à
+     * coluna cabeca_lista_espera as senhas podem ter buracos ou repetições
+     * sem registo das saídas, e a fila é renumerada uma única vez a partir
+     * de 1; daí em diante as senhas não mudam.
+     */
+    @Transactional
+    public void bloquearFila(Integer eventoId) {
+        eventoRepository.inicializarSeqListaEspera(eventoId);
+        if (eventoRepository.inicializarCabecaListaEspera(eventoId) > 0) {
+            List<ListaEspera> fila = listaEsperaRepository.findByEventoIdOrderByPosicaoAscIdAsc(eventoId);
+            for (int i = 0; i < fila.size(); i++) {
+                fila.get(i).setPosicao(i + 1);
+            }
+            listaEsperaRepository.flush();
+            eventoRepository.definirSeqListaEspera(eventoId, fila.size());
+        }
+        eventoRepository.bloquearListaEspera(eventoId);
+    }
+
+    /**
+     * Devolve a entrada do utilizador com a posição atual na fila.
+     */
+    public ListaEsperaDTO obterPosicao(Integer eventoId, Integer utilizadorNumero) {
+        ListaEspera le = listaEsperaRepository.findByEventoIdAndUtilizadorNumero(eventoId, utilizadorNumero)
+                .orElseThrow(() -> new NotFoundException("Utilizador não está na lista de espera deste evento"));
+        return toDTO(le, posicaoAtual(le));
+    }
+
+    private int posicaoAtual(ListaEspera le) {
+        Integer cabeca = eventoRepository.obterCabecaListaEspera(le.getEvento().getId());
+        if (cabeca == null) {
+            // fila ainda não renumerada: conta as senhas anteriores
+            return listaEsperaRepository.countByEventoIdAndPosicaoLessThan(le.getEvento().getId(), le.getPosicao()) + 1;
+        }
+        return posicao(le.getEvento().getId(), le.getPosicao(), cabeca);
+    }
+
+    private int posicao(Integer eventoId, int senha, int cabeca) {
+        long saidasDoMeio = saidasAte(eventoId, senha - 1) - saidasAte(eventoId, cabeca);
+        return (int) (senha - cabeca - saidasDoMeio);
+    }
+
+    /** Número de saídas do meio com senha até à indicada (soma de prefixo). */
+    private long saidasAte(Integer eventoId, int senha) {
+        List<Integer> nodos = new ArrayList<>();
+        for (int i = senha; i > 0; i -= i & -i) {
+            nodos.add(i);
+        }
+        return nodos.isEmpty() ? 0 : saidasRepository.somar(eventoId, nodos);
+    }
+
+    private void registarSaida(Evento evento, int senha) {
+        List<Integer> nodos = new ArrayList<>();
+        for (long i = senha; i <= LIMITE_SENHA; i += i & -i) {
+            nodos.add((int) i);
+        }
+        Map<Integer, SaidasListaEspera> existentes = new HashMap<>();
+        for (SaidasListaEspera s : saidasRepository.findByEventoIdAndNodoIn(evento.getId(), nodos)) {
+            existentes.put(s.getNodo(), s);
+        }
+        List<SaidasListaEspera> alterados = new ArrayList<>(nodos.size());
+        for (Integer nodo : nodos) {
+            SaidasListaEspera s = existentes.get(nodo);
+            if (s == null) {
+                s = new SaidasListaEspera();
+                s.setEvento(evento);
+                s.setNodo(nodo);
+            }
+            s.setSaidas(s.getSaidas() + 1);
+            alterados.add(s);
+        }
+        saidasRepository.saveAll(alterados);
     }
 
-    private ListaEsperaDTO toDTO(ListaEspera le) {
+    private ListaEsperaDTO toDTO(ListaEspera le, int posicao) {
         ListaEsperaDTO dto = new ListaEsperaDTO();
         dto.setId(le.getId());
         dto.setEventoId(le.getEvento().getId());
         dto.setUtilizadorNumero(le.getUtilizador().getNumero());
         dto.setDataEntrada(le.getDataEntrada());
-        dto.setPosicao(le.getPosicao());
+        dto.setPosicao(posicao);
         return dto;
     }
 }
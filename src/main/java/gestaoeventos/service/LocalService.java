@@ -1,5 +1,6 @@
 package gestaoeventos.service;
 
+import gestaoeventos.dto.AlteracaoDTO;
 import gestaoeventos.dto.LocalCreateDTO;
 import gestaoeventos.dto.LocalDTO;
 import gestaoeventos.entity.Local;
@@ -14,13 +15,15 @@ import java.util.stream.Collectors;
 public class LocalService {
 
     private final LocalRepository localRepository;
+    private final CanalAlteracoes canalAlteracoes;
 
-    public LocalService(LocalRepository localRepository) {
+    public LocalService(LocalRepository localRepository, CanalAlteracoes canalAlteracoes) {
         this.localRepository = localRepository;
+        this.canalAlteracoes = canalAlteracoes;
     }
 
     public List<LocalDTO> listarTodos() {
-        return localRepository.findAll()
+        return localRepository.findAllByOrderByIdAsc()
                 .stream()
                 .map(this::toDTO)
                 .collect(Collectors.toList());
@@ -40,6 +43,7 @@ public class LocalService {
         l.setDisponibilidadeHoraria(dto.getDisponibilidadeHoraria());
         l.setAtivo(dto.getAtivo() == null ? true : dto.getAtivo());
         Local salvo = localRepository.save(l);
+        canalAlteracoes.publicar("Local", salvo.getId(), AlteracaoDTO.CRIADO);
         return toDTO(salvo);
     }
 
@@ -55,6 +59,7 @@ public class LocalService {
         if (dto.getAtivo() != null) existente.setAtivo(dto.getAtivo());
 
         Local salvo = localRepository.save(existente);
+        canalAlteracoes.publicar("Local", salvo.getId(), AlteracaoDTO.ATUALIZADO);
         return toDTO(salvo);
     }
 
@@ -63,6 +68,7 @@ public class LocalService {
             throw new NotFoundException("Local não encontrado");
         }
         localRepository.deleteById(id);
+        canalAlteracoes.publicar("Local", id, AlteracaoDTO.APAGADO);
     }
 
     private LocalDTO toDTO(Local l) {
@@ -1,34 +1,113 @@
 package gestaoeventos.service;
 
 import gestaoeventos.dto.LogAuditoriaDTO;
+import gestaoeventos.dto.PaginaDTO;
 import gestaoeventos.entity.LogAuditoria;
 import gestaoeventos.repository.LogAuditoriaRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Consultas aos logs de auditoria. Os registos antigos são movidos pela
+ * RetencaoAuditoria para o ArquivoAuditoria; as consultas por entidade e
+ * por intervalo juntam a tabela e o arquivo, pelo que o chamador não
+ * precisa de saber onde está cada registo. A listagem paginada e a
+ * consulta por autor só leem a tabela.
+ */
 @Service
 public class LogAuditoriaService {
 
+    public enum FormatoExportacao {
+        NDJSON, CSV
+    }
+
+    /** Máximo de registos devolvidos por listarPorIntervalo; para mais, usar exportar. */
+    static final int MAXIMO_INTERVALO = 10_000;
+
+    private static final Comparator<LogAuditoriaDTO> MAIS_RECENTE_PRIMEIRO = Comparator
+            .comparing(LogAuditoriaDTO::getDataHora, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(LogAuditoriaDTO::getId, Comparator.reverseOrder());
+
+    private static final String CABECALHO_CSV = "id,dataHora,acao,entidade,entidadeId,autorNumero,ipOrigem,motivo";
+
     private final LogAuditoriaRepository logAuditoriaRepository;
+    private final ArquivoAuditoria arquivo;
+    private final ObjectWriter escritorJson;
 
-    public LogAuditoriaService(LogAuditoriaRepository logAuditoriaRepository) {
+    public LogAuditoriaService(LogAuditoriaRepository logAuditoriaRepository, ArquivoAuditoria arquivo,
+            JsonMapper jsonMapper) {
         this.logAuditoriaRepository = logAuditoriaRepository;
+        this.arquivo = arquivo;
+        this.escritorJson = jsonMapper.writerFor(LogAuditoriaDTO.class);
     }
 
-    public List<LogAuditoriaDTO> listarTodos() {
-        return logAuditoriaRepository.findAll()
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    /**
+     * Lista os logs por páginas, do mais recente para o mais antigo.
+     */
+    public PaginaDTO<LogAuditoriaDTO> listarTodos(String cursor, Integer tamanhoPedido) {
+        int tamanho = Paginacao.tamanho(tamanhoPedido);
+        int antesDeId = Paginacao.chaveInteira(cursor, Integer.MAX_VALUE);
+        List<LogAuditoria> lidos = logAuditoriaRepository.findByIdLessThanOrderByIdDesc(antesDeId,
+                Limit.of(tamanho + 1));
+        return Paginacao.pagina(lidos, tamanho, l -> Paginacao.codificar(l.getId()), this::toDTO);
     }
 
     public List<LogAuditoriaDTO> listarPorEntidade(String entidade, Integer entidadeId) {
-        return logAuditoriaRepository.findByEntidadeAndEntidadeIdOrderByDataHoraDesc(entidade, entidadeId)
+        List<LogAuditoriaDTO> logs = logAuditoriaRepository
+                .findByEntidadeAndEntidadeIdOrderByDataHoraDesc(entidade, entidadeId)
                 .stream()
                 .map(this::toDTO)
                 .collect(Collectors.toList());
+        List<LogAuditoriaDTO> arquivados = arquivo.listarPorEntidade(entidade, entidadeId);
+        if (arquivados.isEmpty()) {
+            return logs;
+        }
+        Set<Integer> ids = logs.stream().map(LogAuditoriaDTO::getId).collect(Collectors.toSet());
+        arquivados.stream().filter(l -> !ids.contains(l.getId())).forEach(logs::add);
+        logs.sort(MAIS_RECENTE_PRIMEIRO);
+        return logs;
+    }
+
+    /**
+     * Logs do intervalo [de, ate[, da tabela e do arquivo, do mais recente
+     * para o mais antigo. São devolvidos no máximo MAXIMO_INTERVALO registos,
+     * os mais recentes.
+     */
+    @Transactional(readOnly = true)
+    public List<LogAuditoriaDTO> listarPorIntervalo(LocalDateTime de, LocalDateTime ate) {
+        // Heap com o registo mais antigo à cabeça: guarda só os MAXIMO_INTERVALO mais recentes
+        PriorityQueue<LogAuditoriaDTO> recentes = new PriorityQueue<>(MAIS_RECENTE_PRIMEIRO.reversed());
+        percorrerIntervalo(de, ate, l -> {
+            recentes.add(l);
+            if (recentes.size() > MAXIMO_INTERVALO) {
+                recentes.poll();
+            }
+        });
+        List<LogAuditoriaDTO> logs = new ArrayList<>(recentes);
+        logs.sort(MAIS_RECENTE_PRIMEIRO);
+        return logs;
     }
 
     public List<LogAuditoriaDTO> listarPorAutor(Integer autorNumero) {
@@ -38,6 +117,71 @@ public class LogAuditoriaService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Escreve no stream os logs do intervalo [de, ate[, um por linha, à
+     * medida que são lidos do arquivo e da base de dados. A memória usada é
+     * constante: nenhuma lista é construída e o stream de saída é escrito
+     * por blocos. Os registos arquivados, mais antigos, vêm primeiro.
+     */
+    @Transactional(readOnly = true)
+    public void exportar(FormatoExportacao formato, LocalDateTime de, LocalDateTime ate, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (formato == FormatoExportacao.CSV) {
+            writer.write(CABECALHO_CSV);
+            writer.write('\n');
+        }
+        try {
+            percorrerIntervalo(de, ate, l -> {
+                try {
+                    writer.write(formato == FormatoExportacao.CSV ? linhaCsv(l) : escritorJson.writeValueAsString(l));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Entrega os logs arquivados e depois os da tabela. Os registos de um
+     * segmento cuja limpeza não terminou estão nos dois lados e só são
+     * entregues a partir do arquivo.
+     */
+    private void percorrerIntervalo(LocalDateTime de, LocalDateTime ate, Consumer<LogAuditoriaDTO> destino) {
+        Set<Integer> arquivados = new HashSet<>(arquivo.idsPorApagar());
+        arquivo.lerPorIntervalo(de, ate, destino);
+        try (Stream<LogAuditoriaDTO> logs = logAuditoriaRepository.streamPorIntervalo(de, ate)) {
+            logs.filter(l -> !arquivados.contains(l.getId())).forEach(destino);
+        }
+    }
+
+    private static String linhaCsv(LogAuditoriaDTO l) {
+        return l.getId() + ","
+                + (l.getDataHora() != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(l.getDataHora()) : "") + ","
+                + campoCsv(l.getAcao()) + ","
+                + campoCsv(l.getEntidade()) + "," + campoCsv(l.getEntidadeId()) + ","
+                + campoCsv(l.getAutorNumero()) + "," + campoCsv(l.getIpOrigem()) + "," + campoCsv(l.getMotivo());
+    }
+
+    /**
+     * Valor CSV segundo o RFC 4180: entre aspas quando contém separadores,
+     * aspas ou quebras de linha, com as aspas duplicadas.
+     */
+    private static String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+
     private LogAuditoriaDTO toDTO(LogAuditoria l) {
         LogAuditoriaDTO dto = new LogAuditoriaDTO();
         dto.setId(l.getId());
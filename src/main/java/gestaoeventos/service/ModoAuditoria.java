@@ -0,0 +1,13 @@
+package gestaoeventos.service;
+
+/**
+ * Modo de durabilidade dos registos de auditoria (propriedade auditoria.modo).
+ */
+public enum ModoAuditoria {
+    /** Grava na mesma transação da operação de negócio (comportamento original). */
+    SINCRONO,
+    /** Enfileira após o commit e grava em lotes; se a fila encher, descarta. */
+    ASSINCRONO,
+    /** Como ASSINCRONO, mas cada registo é primeiro escrito num ficheiro WAL. */
+    ASSINCRONO_WAL
+}
@@ -1,95 +1,197 @@
 package gestaoeventos.service;
 
+import gestaoeventos.dto.AlteracaoDTO;
 import gestaoeventos.dto.NotificacaoDTO;
+import gestaoeventos.dto.PaginaDTO;
+import gestaoeventos.entity.LeituraAnuncio;
 import gestaoeventos.entity.Notificacao;
 import gestaoeventos.entity.TipoNotificacao;
 import gestaoeventos.entity.Utilizador;
+import gestaoeventos.exception.BusinessException;
 import gestaoeventos.exception.NotFoundException;
+import gestaoeventos.repository.LeituraAnuncioRepository;
 import gestaoeventos.repository.NotificacaoRepository;
 import gestaoeventos.repository.UtilizadorRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Serviço de notificações e anúncios.
+ *
+ * As notificações pessoais têm destinatário. Os anúncios são guardados uma
+ * única vez, sem destinatário, e o estado de leitura de cada utilizador fica
+ * na tabela leitura_anuncio, juntada no momento da leitura.
+ *
+ * A lista de anúncios visíveis (pedida em cada login) fica em cache até à
+ * próxima abertura ou fecho de uma janela de exibição, e é invalidada
+ * quando um anúncio é publicado, alterado ou apagado.
+ */
 @Service
 public class NotificacaoService {
 
     private final NotificacaoRepository notificacaoRepository;
     private final UtilizadorRepository utilizadorRepository;
+    private final LeituraAnuncioRepository leituraAnuncioRepository;
+    private final CanalAlteracoes canalAlteracoes;
+
+    private volatile AnunciosEmCache anunciosVisiveis;
+
+    // incrementada a cada invalidação: uma leitura iniciada antes dela não
+    // pode guardar a lista que leu
+    private final Object invalidacao = new Object();
+    private long geracaoAnuncios;
 
     public NotificacaoService(NotificacaoRepository notificacaoRepository,
-            UtilizadorRepository utilizadorRepository) {
+            UtilizadorRepository utilizadorRepository,
+            LeituraAnuncioRepository leituraAnuncioRepository,
+            CanalAlteracoes canalAlteracoes) {
         this.notificacaoRepository = notificacaoRepository;
         this.utilizadorRepository = utilizadorRepository;
+        this.leituraAnuncioRepository = leituraAnuncioRepository;
+        this.canalAlteracoes = canalAlteracoes;
     }
 
+    /**
+     * Notificações pessoais do utilizador mais os anúncios visíveis, com o
+     * estado de leitura de cada anúncio para este utilizador.
+     */
     public List<NotificacaoDTO> listarPorDestinatario(Integer numero) {
-        return notificacaoRepository.findByDestinatarioNumeroOrderByDataCriacaoDesc(numero)
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        List<NotificacaoDTO> resultado = new ArrayList<>();
+        for (Notificacao n : notificacaoRepository.findByDestinatarioNumeroOrderByDataCriacaoDesc(numero)) {
+            resultado.add(toDTO(n));
+        }
+        notificacaoRepository.findAnunciosVisiveisComLeitura(numero, LocalDateTime.now()).forEach(a -> {
+            NotificacaoDTO dto = toDTO(a.getNotificacao());
+            dto.setDestinatarioNumero(numero);
+            dto.setLida(a.isLida());
+            resultado.add(dto);
+        });
+        resultado.sort(Comparator.comparing(NotificacaoDTO::getDataCriacao,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return resultado;
     }
 
+    /**
+     * Marca uma notificação pessoal como lida.
+     */
     public NotificacaoDTO marcarComoLida(Integer id) {
+        return marcarComoLida(id, null);
+    }
+
+    /**
+     * Marca uma notificação como lida. Nos anúncios é obrigatório indicar o
+     * utilizador, que fica com um recibo de leitura próprio.
+     */
+    public NotificacaoDTO marcarComoLida(Integer id, Integer utilizadorNumero) {
         Notificacao n = notificacaoRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Notificação não encontrada"));
-        n.setLida(true);
-        Notificacao salvo = notificacaoRepository.save(n);
-        return toDTO(salvo);
+
+        if (n.getDestinatario() != null) {
+            n.setLida(true);
+            Notificacao salvo = notificacaoRepository.save(n);
+            canalAlteracoes.publicar("Notificacao", salvo.getId(), AlteracaoDTO.ATUALIZADO);
+            return toDTO(salvo);
+        }
+
+        if (utilizadorNumero == null) {
+            throw new BusinessException("É necessário indicar o utilizador para marcar um anúncio como lido");
+        }
+        if (!leituraAnuncioRepository.existsByNotificacaoIdAndUtilizadorNumero(id, utilizadorNumero)) {
+            Utilizador utilizador = utilizadorRepository.findById(utilizadorNumero)
+                    .orElseThrow(() -> new NotFoundException("Utilizador não encontrado"));
+            LeituraAnuncio leitura = new LeituraAnuncio();
+            leitura.setNotificacao(n);
+            leitura.setUtilizador(utilizador);
+            try {
+                leituraAnuncioRepository.saveAndFlush(leitura);
+            } catch (DataIntegrityViolationException e) {
+                // marcado em paralelo por outro pedido do mesmo utilizador
+            }
+        }
+
+        NotificacaoDTO dto = toDTO(n);
+        dto.setDestinatarioNumero(utilizadorNumero);
+        dto.setLida(true);
+        return dto;
     }
 
     /**
      * Lista todos os anúncios que estão visíveis no momento atual
      */
     public List<NotificacaoDTO> listarAnunciosVisiveis() {
-        return notificacaoRepository.findAll()
-                .stream()
-                .filter(n -> n.getTipo() == TipoNotificacao.ANUNCIO)
-                .filter(n -> n.isVisivelAgora())
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        LocalDateTime agora = LocalDateTime.now();
+        AnunciosEmCache cache = anunciosVisiveis;
+        if (cache != null && agora.isBefore(cache.validoAte())) {
+            return cache.anuncios();
+        }
+
+        long geracao;
+        synchronized (invalidacao) {
+            geracao = geracaoAnuncios;
+        }
+        List<Notificacao> visiveis = notificacaoRepository.findAnunciosVisiveis(agora);
+
+        // A lista só muda quando abre a próxima janela ou fecha uma das atuais
+        LocalDateTime validoAte = notificacaoRepository.findProximoInicioExibicao(agora);
+        for (Notificacao n : visiveis) {
+            if (n.getDataFimExibicao() != null) {
+                LocalDateTime fecho = n.getDataFimExibicao().plusNanos(1);
+                if (validoAte == null || fecho.isBefore(validoAte)) {
+                    validoAte = fecho;
+                }
+            }
+        }
+
+        List<NotificacaoDTO> anuncios = visiveis.stream().map(this::toDTO).toList();
+        synchronized (invalidacao) {
+            if (geracao == geracaoAnuncios) {
+                anunciosVisiveis = new AnunciosEmCache(anuncios, validoAte != null ? validoAte : LocalDateTime.MAX);
+            }
+        }
+        return anuncios;
     }
 
     /**
-     * Lista todos os anuncios do sistema
+     * Lista os anuncios do sistema por paginas, ordenados por id
      */
-    public List<NotificacaoDTO> listarTodosAnuncios() {
-        return notificacaoRepository.findAll()
-                .stream()
-                .filter(n -> n.getTipo() == TipoNotificacao.ANUNCIO)
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    public PaginaDTO<NotificacaoDTO> listarTodosAnuncios(String cursor, Integer tamanhoPedido) {
+        int tamanho = Paginacao.tamanho(tamanhoPedido);
+        int aposId = Paginacao.chaveInteira(cursor, 0);
+        List<Notificacao> lidos = notificacaoRepository.findByTipoAndIdGreaterThanOrderByIdAsc(
+                TipoNotificacao.ANUNCIO, aposId, Limit.of(tamanho + 1));
+        return Paginacao.pagina(lidos, tamanho, n -> Paginacao.codificar(n.getId()), this::toDTO);
     }
 
     /**
-     * Enviar um anuncio para todos os utilizadores ativos com periodo de exibicao
+     * Publica um anuncio para todos os utilizadores com periodo de exibicao.
+     * O anuncio e guardado uma unica vez; devolve o numero de utilizadores
+     * ativos que o vao receber.
      */
     @Transactional
     public int enviarAnuncioBroadcast(String conteudo, Integer autorNumero,
             LocalDateTime dataInicioExibicao, LocalDateTime dataFimExibicao) {
-        List<Utilizador> utilizadores = utilizadorRepository.findAll()
-                .stream()
-                .filter(Utilizador::isAtivo)
-                .collect(Collectors.toList());
-
-        int count = 0;
-        for (Utilizador dest : utilizadores) {
-            Notificacao notif = new Notificacao();
-            notif.setDestinatario(dest);
-            notif.setTipo(TipoNotificacao.ANUNCIO);
-            notif.setConteudo(conteudo);
-            notif.setCanal("SISTEMA");
-            notif.setLida(false);
-            notif.setDataCriacao(LocalDateTime.now());
-            notif.setDataInicioExibicao(dataInicioExibicao);
-            notif.setDataFimExibicao(dataFimExibicao);
-            notificacaoRepository.save(notif);
-            count++;
-        }
-        return count;
+        Notificacao notif = new Notificacao();
+        notif.setTipo(TipoNotificacao.ANUNCIO);
+        notif.setConteudo(conteudo);
+        notif.setCanal("SISTEMA");
+        notif.setLida(false);
+        notif.setDataCriacao(LocalDateTime.now());
+        notif.setDataInicioExibicao(dataInicioExibicao);
+        notif.setDataFimExibicao(dataFimExibicao);
+        notificacaoRepository.save(notif);
+        invalidarAnunciosVisiveis();
+        canalAlteracoes.publicar("Notificacao", notif.getId(), AlteracaoDTO.CRIADO);
+
+        return (int) utilizadorRepository.countByAtivoTrue();
     }
 
     /**
@@ -108,6 +210,8 @@ public class NotificacaoService {
         n.setDataFimExibicao(dataFimExibicao);
 
         Notificacao salvo = notificacaoRepository.save(n);
+        invalidarAnunciosVisiveis();
+        canalAlteracoes.publicar("Notificacao", salvo.getId(), AlteracaoDTO.ATUALIZADO);
         return toDTO(salvo);
     }
 
@@ -119,13 +223,40 @@ public class NotificacaoService {
         if (!notificacaoRepository.existsById(id)) {
             throw new NotFoundException("Notificacao nao encontrada");
         }
+        leituraAnuncioRepository.apagarPorNotificacao(id);
         notificacaoRepository.deleteById(id);
+        invalidarAnunciosVisiveis();
+        canalAlteracoes.publicar("Notificacao", id, AlteracaoDTO.APAGADO);
+    }
+
+    /**
+     * Descarta a cache de anúncios visíveis. Dentro de uma transação só o faz
+     * depois do commit, para que nenhum pedido concorrente volte a carregar
+     * a cache com os dados antigos.
+     */
+    private void invalidarAnunciosVisiveis() {
+        descartarAnunciosVisiveis();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    descartarAnunciosVisiveis();
+                }
+            });
+        }
+    }
+
+    private void descartarAnunciosVisiveis() {
+        synchronized (invalidacao) {
+            geracaoAnuncios++;
+            anunciosVisiveis = null;
+        }
     }
 
     private NotificacaoDTO toDTO(Notificacao n) {
         NotificacaoDTO dto = new NotificacaoDTO();
         dto.setId(n.getId());
-        dto.setDestinatarioNumero(n.getDestinatario().getNumero());
+        dto.setDestinatarioNumero(n.getDestinatario() != null ? n.getDestinatario().getNumero() : null);
         dto.setEventoId(n.getEvento() != null ? n.getEvento().getId() : null);
         dto.setTipo(n.getTipo());
         dto.setConteudo(n.getConteudo());
@@ -136,4 +267,7 @@ public class NotificacaoService {
         dto.setDataFimExibicao(n.getDataFimExibicao());
         return dto;
     }
+
+    private record AnunciosEmCache(List<NotificacaoDTO> anuncios, LocalDateTime validoAte) {
+    }
 }
@@ -0,0 +1,95 @@
+package gestaoeventos.service;
+
+import gestaoeventos.dto.PaginaDTO;
+import gestaoeventos.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utilitários partilhados pelos serviços para paginação por cursor (keyset).
+ *
+ * O cursor é opaco para o cliente: guarda, em Base64, os valores da chave de
+ * ordenação do último elemento devolvido, separados por '|'.
+ */
+final class Paginacao {
+
+    static final int TAMANHO_DEFAULT = 50;
+    static final int TAMANHO_MAXIMO = 200;
+
+    private Paginacao() {
+    }
+
+    /**
+     * Normaliza o tamanho pedido para o intervalo [1, TAMANHO_MAXIMO].
+     */
+    static int tamanho(Integer pedido) {
+        if (pedido == null || pedido <= 0) {
+            return TAMANHO_DEFAULT;
+        }
+        return Math.min(pedido, TAMANHO_MAXIMO);
+    }
+
+    static String codificar(Object... chaves) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < chaves.length; i++) {
+            if (i > 0) {
+                sb.append('|');
+            }
+            sb.append(chaves[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Descodifica um cursor com o número de partes esperado.
+     * Devolve null quando não foi enviado cursor (primeira página).
+     */
+    static String[] descodificar(String cursor, int partes) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] valores = raw.split("\\|", -1);
+            if (valores.length != partes) {
+                throw new BusinessException("Cursor inválido");
+            }
+            return valores;
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor inválido");
+        }
+    }
+
+    /**
+     * Descodifica um cursor de chave inteira única (id/numero).
+     * Sem cursor devolve o valor inicial indicado.
+     */
+    static int chaveInteira(String cursor, int inicial) {
+        String[] chave = descodificar(cursor, 1);
+        if (chave == null) {
+            return inicial;
+        }
+        try {
+            return Integer.parseInt(chave[0]);
+        } catch (NumberFormatException e) {
+            throw new BusinessException("Cursor inválido");
+        }
+    }
+
+    /**
+     * Constrói a página a partir de uma lista lida com tamanho + 1 elementos:
+     * se veio o elemento extra há página seguinte e o cursor aponta para o
+     * último elemento efetivamente devolvido.
+     */
+    static <E, D> PaginaDTO<D> pagina(List<E> lidos, int tamanho,
+            Function<E, String> cursorDe, Function<E, D> mapper) {
+        boolean temMais = lidos.size() > tamanho;
+        List<E> visiveis = temMais ? lidos.subList(0, tamanho) : lidos;
+        String nextCursor = temMais ? cursorDe.apply(visiveis.get(visiveis.size() - 1)) : null;
+        return new PaginaDTO<>(visiveis.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -1,16 +1,170 @@
 package gestaoeventos.service;
 
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import gestaoeventos.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.net.URLEncoder;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * Gera as imagens dos QR codes de check-in dentro do próprio servidor,
+ * sem depender de serviços externos.
+ *
+ * As imagens geradas ficam numa cache LRU limitada pelo total de bytes
+ * (qrcode.cache.max-bytes), indexada por token, formato e tamanho. O ETag
+ * é o hash do conteúdo, por isso pode ser usado em pedidos condicionais.
+ */
 @Service
 public class QrCodeService {
 
-    public String gerarUrlQrCode(String conteudo) {
-        String data = URLEncoder.encode(conteudo, StandardCharsets.UTF_8);
-        return "https://api.qrserver.com/v1/create-qr-code/?size=200x200&data=" + data;
+    public enum Formato {
+        PNG, SVG
     }
-}
 
+    public record ImagemQrCode(byte[] dados, String etag) {
+    }
+
+    private record Chave(String token, Formato formato, int tamanho) {
+    }
+
+    static final int TAMANHO_DEFAULT = 200;
+    static final int TAMANHO_MINIMO = 64;
+    static final int TAMANHO_MAXIMO = 1024;
+
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(
+            EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M,
+            EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name(),
+            EncodeHintType.MARGIN, 2);
+
+    private final long maxBytes;
+    private final Map<Chave, ImagemQrCode> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytesEmCache;
+
+    public QrCodeService(@Value("${qrcode.cache.max-bytes:4194304}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * URL, relativo ao servidor, da imagem do QR code de uma inscrição.
+     */
+    public String gerarUrlQrCode(Integer inscricaoId) {
+        return "/api/inscricoes/" + inscricaoId + "/qrcode.png";
+    }
+
+    /**
+     * Devolve a imagem do QR code do token, a partir da cache quando possível.
+     * O tamanho (lado em píxeis) é limitado a [TAMANHO_MINIMO, TAMANHO_MAXIMO].
+     */
+    public ImagemQrCode renderizar(String token, Formato formato, Integer tamanho) {
+        int lado = tamanho == null ? TAMANHO_DEFAULT
+                : Math.max(TAMANHO_MINIMO, Math.min(TAMANHO_MAXIMO, tamanho));
+        Chave chave = new Chave(token, formato, lado);
+
+        synchronized (cache) {
+            ImagemQrCode imagem = cache.get(chave);
+            if (imagem != null) {
+                return imagem;
+            }
+        }
+
+        // Gerado fora do lock: dois pedidos simultâneos para o mesmo token
+        // produzem o mesmo resultado, pelo que basta guardar um deles.
+        byte[] dados = formato == Formato.PNG
+                ? paraPng(codificar(token, lado))
+                : paraSvg(codificar(token, 0), lado);
+        ImagemQrCode imagem = new ImagemQrCode(dados, etag(dados));
+
+        synchronized (cache) {
+            ImagemQrCode anterior = cache.put(chave, imagem);
+            bytesEmCache += dados.length - (anterior != null ? anterior.dados().length : 0);
+            Iterator<ImagemQrCode> it = cache.values().iterator();
+            while (bytesEmCache > maxBytes && it.hasNext()) {
+                bytesEmCache -= it.next().dados().length;
+                it.remove();
+            }
+        }
+        return imagem;
+    }
+
+    private static BitMatrix codificar(String token, int lado) {
+        try {
+            return new QRCodeWriter().encode(token, BarcodeFormat.QR_CODE, lado, lado, HINTS);
+        } catch (WriterException | IllegalArgumentException e) {
+            throw new BusinessException("Não foi possível gerar o QR code");
+        }
+    }
+
+    private static byte[] paraPng(BitMatrix matriz) {
+        int largura = matriz.getWidth();
+        int altura = matriz.getHeight();
+        BufferedImage img = new BufferedImage(largura, altura, BufferedImage.TYPE_BYTE_BINARY);
+        for (int y = 0; y < altura; y++) {
+            for (int x = 0; x < largura; x++) {
+                img.setRGB(x, y, matriz.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(img, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * SVG com um único path, um segmento por sequência horizontal de módulos
+     * escuros. A matriz vem sem escala (um ponto por módulo) e é o viewBox
+     * que amplia a imagem para o tamanho pedido.
+     */
+    private static byte[] paraSvg(BitMatrix matriz, int lado) {
+        int modulos = matriz.getWidth();
+        StringBuilder path = new StringBuilder();
+        for (int y = 0; y < modulos; y++) {
+            int x = 0;
+            while (x < modulos) {
+                if (!matriz.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int inicio = x;
+                while (x < modulos && matriz.get(x, y)) {
+                    x++;
+                }
+                path.append('M').append(inicio).append(' ').append(y)
+                        .append('h').append(x - inicio).append("v1h").append(inicio - x).append('z');
+            }
+        }
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 " + modulos + " " + modulos
+                + "\" width=\"" + lado + "\" height=\"" + lado + "\" shape-rendering=\"crispEdges\">"
+                + "<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>"
+                + "<path fill=\"#000\" d=\"" + path + "\"/></svg>";
+        return svg.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String etag(byte[] dados) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(dados);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
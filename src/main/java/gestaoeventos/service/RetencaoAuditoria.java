@@ -0,0 +1,98 @@
+package gestaoeventos.service;
+
+import gestaoeventos.dto.LogAuditoriaDTO;
+import gestaoeventos.repository.LogAuditoriaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retenção dos logs de auditoria: os registos com mais de
+ * auditoria.retencao.dias dias passam da tabela para o ArquivoAuditoria.
+ *
+ * Cada execução lê os registos antigos por blocos, escreve-os em segmentos
+ * de até LINHAS_POR_SEGMENTO linhas e só depois de o segmento estar em disco
+ * os apaga da tabela, em transações de BLOCO linhas para não bloquear a
+ * tabela nem encher o undo log. Uma execução interrompida deixa o segmento
+ * marcado como por apagar e a seguinte começa por terminar essa limpeza.
+ */
+@Component
+public class RetencaoAuditoria {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RetencaoAuditoria.class);
+
+    static final int BLOCO = 1_000;
+    static final int LINHAS_POR_SEGMENTO = 50_000;
+
+    private final LogAuditoriaRepository logAuditoriaRepository;
+    private final ArquivoAuditoria arquivo;
+    private final int dias;
+
+    public RetencaoAuditoria(LogAuditoriaRepository logAuditoriaRepository, ArquivoAuditoria arquivo,
+            @Value("${auditoria.retencao.dias:90}") int dias) {
+        this.logAuditoriaRepository = logAuditoriaRepository;
+        this.arquivo = arquivo;
+        this.dias = dias;
+    }
+
+    @Scheduled(cron = "${auditoria.retencao.cron:0 30 3 * * *}")
+    public void executar() {
+        try {
+            int arquivados = arquivar();
+            if (arquivados > 0) {
+                LOG.info("Retenção de auditoria: {} registos arquivados", arquivados);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Retenção de auditoria interrompida; será retomada na próxima execução", e);
+        }
+    }
+
+    /**
+     * Arquiva e apaga da tabela os registos anteriores ao corte.
+     * Devolve o número de registos arquivados nesta execução.
+     */
+    public synchronized int arquivar() throws IOException {
+        for (ArquivoAuditoria.EntradaIndice pendente : arquivo.segmentosPorApagar()) {
+            apagar(arquivo.idsDoSegmento(pendente));
+            arquivo.marcarApagado(pendente);
+        }
+
+        LocalDateTime corte = LocalDateTime.now().minusDays(dias);
+        int total = 0;
+        int depoisDeId = 0;
+        while (true) {
+            List<LogAuditoriaDTO> segmento = new ArrayList<>();
+            while (segmento.size() < LINHAS_POR_SEGMENTO) {
+                List<LogAuditoriaDTO> bloco = logAuditoriaRepository.findParaArquivo(corte, depoisDeId,
+                        Limit.of(Math.min(BLOCO, LINHAS_POR_SEGMENTO - segmento.size())));
+                if (bloco.isEmpty()) {
+                    break;
+                }
+                segmento.addAll(bloco);
+                depoisDeId = bloco.get(bloco.size() - 1).getId();
+            }
+            if (segmento.isEmpty()) {
+                return total;
+            }
+
+            ArquivoAuditoria.EntradaIndice entrada = arquivo.escreverSegmento(segmento);
+            apagar(segmento.stream().map(LogAuditoriaDTO::getId).toList());
+            arquivo.marcarApagado(entrada);
+            total += segmento.size();
+        }
+    }
+
+    private void apagar(List<Integer> ids) {
+        for (int i = 0; i < ids.size(); i += BLOCO) {
+            logAuditoriaRepository.apagarPorIds(ids.subList(i, Math.min(ids.size(), i + BLOCO)));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package gestaoeventos.service;
+
+import gestaoeventos.exception.NotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Tokens de check-in assinados com HMAC-SHA256.
+ *
+ * Formato: CHKS-{inscricaoId}-{validade em segundos epoch, 0 = sem validade}.{assinatura}
+ * (a assinatura é Base64 URL, que pode conter '-', daí o '.' a separá-la).
+ * Como o token transporta o id e a validade, um token forjado ou expirado é
+ * rejeitado sem ir à base de dados. Os tokens antigos (CHK-{id}-{uuid}) não
+ * são assinados e continuam a ser validados pela base de dados.
+ */
+@Service
+public class TokenCheckinService {
+
+    static final String PREFIXO = "CHKS-";
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final int BYTES_ASSINATURA = 16;
+    private static final int BYTES_SEGREDO_MIN = 32;
+
+    private final SecretKeySpec chave;
+
+    /**
+     * Sem um segredo fixo os tokens emitidos deixariam de ser aceites quando o
+     * servidor reiniciasse, por isso o arranque falha se não estiver definido.
+     */
+    public TokenCheckinService(@Value("${checkin.token.segredo:}") String segredo) {
+        if (segredo == null || segredo.isBlank()) {
+            throw new IllegalStateException("checkin.token.segredo não definido; "
+                    + "gerar com: openssl rand -base64 " + BYTES_SEGREDO_MIN);
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getDecoder().decode(segredo.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("checkin.token.segredo não é Base64 válido", e);
+        }
+        if (bytes.length < BYTES_SEGREDO_MIN) {
+            throw new IllegalStateException("checkin.token.segredo tem " + bytes.length
+                    + " bytes; são precisos pelo menos " + BYTES_SEGREDO_MIN);
+        }
+        this.chave = new SecretKeySpec(bytes, ALGORITMO);
+    }
+
+    /**
+     * Dados lidos de um token assinado válido.
+     */
+    public record TokenCheckin(Integer inscricaoId, LocalDateTime validade) {
+
+        public boolean expirado(LocalDateTime agora) {
+            return validade != null && agora.isAfter(validade);
+        }
+    }
+
+    public String gerar(Integer inscricaoId, LocalDateTime validade) {
+        long segundos = validade != null ? validade.toEpochSecond(ZoneOffset.UTC) : 0;
+        String corpo = PREFIXO + inscricaoId + "-" + segundos;
+        return corpo + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(assinar(corpo));
+    }
+
+    public boolean isAssinado(String token) {
+        return token != null && token.startsWith(PREFIXO);
+    }
+
+    /**
+     * Valida a assinatura de um token CHKS- e devolve o seu conteúdo.
+     * Lança NotFoundException se o token estiver mal formado ou forjado.
+     */
+    public TokenCheckin ler(String token) {
+        int separador = token.lastIndexOf('.');
+        if (!isAssinado(token) || separador <= PREFIXO.length()) {
+            throw new NotFoundException("Token de QR code inválido");
+        }
+        String corpo = token.substring(0, separador);
+        byte[] recebida;
+        try {
+            recebida = Base64.getUrlDecoder().decode(token.substring(separador + 1));
+        } catch (IllegalArgumentException e) {
+            throw new NotFoundException("Token de QR code inválido");
+        }
+        if (!MessageDigest.isEqual(assinar(corpo), recebida)) {
+            throw new NotFoundException("Token de QR code inválido");
+        }
+
+        String[] partes = corpo.substring(PREFIXO.length()).split("-");
+        if (partes.length != 2) {
+            throw new NotFoundException("Token de QR code inválido");
+        }
+        try {
+            long segundos = Long.parseLong(partes[1]);
+            LocalDateTime validade = segundos == 0 ? null : LocalDateTime.ofEpochSecond(segundos, 0, ZoneOffset.UTC);
+            return new TokenCheckin(Integer.valueOf(partes[0]), validade);
+        } catch (NumberFormatException e) {
+            throw new NotFoundException("Token de QR code inválido");
+        }
+    }
+
+    private byte[] assinar(String corpo) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return Arrays.copyOf(mac.doFinal(corpo.getBytes(StandardCharsets.UTF_8)), BYTES_ASSINATURA);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC indisponível", e);
+        }
+    }
+}
@@ -1,18 +1,18 @@
 package gestaoeventos.service;
 
+import gestaoeventos.dto.PaginaDTO;
 import gestaoeventos.dto.UtilizadorCreateDTO;
 import gestaoeventos.dto.UtilizadorDTO;
 import gestaoeventos.entity.LogAuditoria;
 import gestaoeventos.entity.Utilizador;
 import gestaoeventos.exception.BusinessException;
 import gestaoeventos.exception.NotFoundException;
-import gestaoeventos.repository.LogAuditoriaRepository;
 import gestaoeventos.repository.UtilizadorRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Serviço para gestão de utilizadores.
@@ -24,14 +24,14 @@ public class UtilizadorService {
 
     private final UtilizadorRepository utilizadorRepository;
     private final PasswordEncoder passwordEncoder;
-    private final LogAuditoriaRepository logAuditoriaRepository;
+    private final AuditoriaAppender auditoriaAppender;
 
     public UtilizadorService(UtilizadorRepository utilizadorRepository,
             PasswordEncoder passwordEncoder,
-            LogAuditoriaRepository logAuditoriaRepository) {
+            AuditoriaAppender auditoriaAppender) {
         this.utilizadorRepository = utilizadorRepository;
         this.passwordEncoder = passwordEncoder;
-        this.logAuditoriaRepository = logAuditoriaRepository;
+        this.auditoriaAppender = auditoriaAppender;
     }
 
     /**
@@ -62,11 +62,15 @@ public class UtilizadorService {
         return alterarEstadoAtivo(numero, ativo, null);
     }
 
-    public List<UtilizadorDTO> listarTodos() {
-        return utilizadorRepository.findAll()
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    /**
+     * Lista os utilizadores por páginas, ordenados por número.
+     */
+    public PaginaDTO<UtilizadorDTO> listarTodos(String cursor, Integer tamanhoPedido) {
+        int tamanho = Paginacao.tamanho(tamanhoPedido);
+        int aposNumero = Paginacao.chaveInteira(cursor, Integer.MIN_VALUE);
+        List<Utilizador> lidos = utilizadorRepository.findByNumeroGreaterThanOrderByNumeroAsc(aposNumero,
+                Limit.of(tamanho + 1));
+        return Paginacao.pagina(lidos, tamanho, u -> Paginacao.codificar(u.getNumero()), this::toDTO);
     }
 
     public UtilizadorDTO obterPorNumero(Integer numero) {
@@ -202,7 +206,7 @@ public class UtilizadorService {
         log.setEntidadeId(entidadeId);
         log.setAutor(autor);
         log.setMotivo(motivo);
-        logAuditoriaRepository.save(log);
+        auditoriaAppender.registar(log);
     }
 
     private UtilizadorDTO toDTO(Utilizador u) {
@@ -0,0 +1,23 @@
+package gestaoeventos.service;
+
+import gestaoeventos.entity.PerfilUtilizador;
+import gestaoeventos.entity.Utilizador;
+
+/**
+ * Entidades de apoio partilhadas pelos testes dos serviços.
+ */
+final class DadosTeste {
+
+    private DadosTeste() {
+    }
+
+    static Utilizador novoUtilizador(int numero, PerfilUtilizador perfil) {
+        Utilizador u = new Utilizador();
+        u.setNumero(numero);
+        u.setNome("Utilizador " + numero);
+        u.setEmail(numero + "@upt.pt");
+        u.setPasswordHash("x");
+        u.setPerfil(perfil);
+        return u;
+    }
+}
@@ -0,0 +1,128 @@
+package gestaoeventos.service;
+
+import gestaoeventos.dto.EstatisticasEventoDTO;
+import gestaoeventos.dto.InscricaoResultadoDTO;
+import gestaoeventos.entity.EstadoEvento;
+import gestaoeventos.entity.EstadoInscricao;
+import gestaoeventos.entity.Evento;
+import gestaoeventos.entity.ListaEspera;
+import gestaoeventos.entity.Local;
+import gestaoeventos.entity.PerfilUtilizador;
+import gestaoeventos.entity.Utilizador;
+import gestaoeventos.repository.EventoRepository;
+import gestaoeventos.repository.InscricaoRepository;
+import gestaoeventos.repository.ListaEsperaRepository;
+import gestaoeventos.repository.LocalRepository;
+import gestaoeventos.repository.UtilizadorRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static gestaoeventos.service.DadosTeste.novoUtilizador;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Teste de carga às inscrições: muitos pedidos simultâneos para um evento
+ * com poucas vagas não podem resultar em overbooking.
+ */
+@SpringBootTest
+class InscricaoConcorrenciaTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InscricaoConcorrenciaTest.class);
+
+    private static final int PEDIDOS = 600;
+    private static final int VAGAS = 50;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private EventoService eventoService;
+    @Autowired
+    private EventoRepository eventoRepository;
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+    @Autowired
+    private ListaEsperaRepository listaEsperaRepository;
+    @Autowired
+    private LocalRepository localRepository;
+    @Autowired
+    private UtilizadorRepository utilizadorRepository;
+
+    @Test
+    void inscricoesConcorrentesNaoExcedemVagas() throws Exception {
+        Local local = new Local();
+        local.setNome("Auditório");
+        local.setCapacidade(VAGAS);
+        local = localRepository.save(local);
+
+        Utilizador criador = novoUtilizador(900000, PerfilUtilizador.DOCENTE);
+        utilizadorRepository.save(criador);
+
+        List<Utilizador> estudantes = new ArrayList<>();
+        for (int i = 1; i <= PEDIDOS; i++) {
+            estudantes.add(novoUtilizador(910000 + i, PerfilUtilizador.ESTUDANTE));
+        }
+        utilizadorRepository.saveAll(estudantes);
+
+        Evento evento = new Evento();
+        evento.setTitulo("Workshop concorrido");
+        evento.setDataInicio(LocalDateTime.now().plusDays(7));
+        evento.setDataFim(LocalDateTime.now().plusDays(7).plusHours(2));
+        evento.setMaxParticipantes(VAGAS);
+        evento.setEstado(EstadoEvento.PUBLICADO);
+        evento.setCriador(criador);
+        evento.setLocal(local);
+        Integer eventoId = eventoRepository.save(evento).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch partida = new CountDownLatch(1);
+        List<Future<InscricaoResultadoDTO>> pedidos = new ArrayList<>();
+        for (Utilizador u : estudantes) {
+            pedidos.add(pool.submit(() -> {
+                partida.await();
+                return eventoService.inscreverEmEvento(eventoId, u.getNumero());
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        partida.countDown();
+        int aceites = 0;
+        int emEspera = 0;
+        for (Future<InscricaoResultadoDTO> f : pedidos) {
+            String resultado = f.get(60, TimeUnit.SECONDS).getResultado();
+            if ("INSCRICAO_OK".equals(resultado)) {
+                aceites++;
+            } else if ("EVENTO_LOTADO_LISTA_ESPERA".equals(resultado)) {
+                emEspera++;
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        pool.shutdown();
+
+        LOG.info("{} pedidos em {} s ({} pedidos/s), {} aceites, {} em espera", PEDIDOS,
+                String.format("%.2f", segundos), String.format("%.0f", PEDIDOS / segundos), aceites, emEspera);
+
+        assertEquals(VAGAS, aceites);
+        assertEquals(PEDIDOS - VAGAS, emEspera);
+        assertEquals(VAGAS, inscricaoRepository.countByEventoIdAndEstado(eventoId, EstadoInscricao.ATIVA));
+        assertEquals(VAGAS, eventoRepository.findById(eventoId).orElseThrow().getVagasOcupadas());
+        assertEquals(PEDIDOS - VAGAS, listaEsperaRepository.countByEventoId(eventoId));
+        // cada entrada na lista de espera recebeu uma senha diferente
+        assertEquals(PEDIDOS - VAGAS, listaEsperaRepository.findByEventoIdOrderByPosicaoAscIdAsc(eventoId)
+                .stream().map(ListaEspera::getPosicao).distinct().count());
+
+        EstatisticasEventoDTO estatisticas = eventoService.obterEstatisticas(eventoId);
+        assertEquals(VAGAS, estatisticas.getInscricoesAtivas());
+        assertEquals(0, estatisticas.getVagasDisponiveis());
+    }
+}
@@ -0,0 +1,147 @@
+package gestaoeventos.service;
+
+import gestaoeventos.dto.InscricaoResultadoDTO;
+import gestaoeventos.entity.EstadoEvento;
+import gestaoeventos.entity.Evento;
+import gestaoeventos.entity.Local;
+import gestaoeventos.entity.PerfilUtilizador;
+import gestaoeventos.entity.Utilizador;
+import gestaoeventos.repository.EventoRepository;
+import gestaoeventos.repository.InscricaoRepository;
+import gestaoeventos.repository.LocalRepository;
+import gestaoeventos.repository.UtilizadorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static gestaoeventos.service.DadosTeste.novoUtilizador;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Posições na lista de espera: as senhas não mudam, e a posição de quem
+ * fica tem de continuar certa depois de saídas do meio, da frente e do fim.
+ */
+@SpringBootTest
+class ListaEsperaPosicaoTest {
+
+    private static final int NUMERO_BASE = 700000;
+
+    @Autowired
+    private EventoService eventoService;
+    @Autowired
+    private InscricaoService inscricaoService;
+    @Autowired
+    private ListaEsperaService listaEsperaService;
+    @Autowired
+    private EventoRepository eventoRepository;
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+    @Autowired
+    private LocalRepository localRepository;
+    @Autowired
+    private UtilizadorRepository utilizadorRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void posicoesSeguemEntradasESaidas() {
+        Integer eventoId = novoEventoLotado(NUMERO_BASE);
+        for (int i = 1; i <= 8; i++) {
+            InscricaoResultadoDTO r = eventoService.inscreverEmEvento(eventoId, estudante(NUMERO_BASE + i));
+            assertEquals(i, r.getPosicaoListaEspera());
+        }
+        assertFila(eventoId, NUMERO_BASE, 1, 2, 3, 4, 5, 6, 7, 8);
+
+        // saídas do meio
+        listaEsperaService.sair(eventoId, NUMERO_BASE + 3);
+        listaEsperaService.sair(eventoId, NUMERO_BASE + 6);
+        assertFila(eventoId, NUMERO_BASE, 1, 2, 4, 5, 7, 8);
+
+        // promoções: a segunda passa a cabeça por cima da senha 3, que já saiu
+        cancelarInscricaoDe(eventoId, NUMERO_BASE + 10);
+        assertFila(eventoId, NUMERO_BASE, 2, 4, 5, 7, 8);
+        cancelarInscricaoDe(eventoId, NUMERO_BASE + 1);
+        assertFila(eventoId, NUMERO_BASE, 4, 5, 7, 8);
+
+        // saída do fim e nova entrada
+        listaEsperaService.sair(eventoId, NUMERO_BASE + 8);
+        assertFila(eventoId, NUMERO_BASE, 4, 5, 7);
+        assertEquals(4, eventoService.inscreverEmEvento(eventoId, estudante(NUMERO_BASE + 9))
+                .getPosicaoListaEspera());
+        assertFila(eventoId, NUMERO_BASE, 4, 5, 7, 9);
+    }
+
+    @Test
+    void filaAnteriorAoContadorDeCabecaComBuracos() {
+        int base = NUMERO_BASE + 100;
+        Integer eventoId = novoEventoLotado(base);
+        for (int i = 1; i <= 6; i++) {
+            eventoService.inscreverEmEvento(eventoId, estudante(base + i));
+        }
+
+        // como ficava uma fila antes das colunas seq/cabeca: senhas com buracos
+        jdbcTemplate.update("DELETE FROM lista_espera WHERE evento_id = ? AND utilizador_numero IN (?, ?)",
+                eventoId, base + 2, base + 5);
+        jdbcTemplate.update("UPDATE lista_espera SET posicao = posicao * 10 WHERE evento_id = ?", eventoId);
+        jdbcTemplate.update("UPDATE evento SET seq_lista_espera = NULL, cabeca_lista_espera = NULL WHERE id = ?",
+                eventoId);
+        assertFila(eventoId, base, 1, 3, 4, 6);
+
+        // a primeira alteração renumera a fila; daí em diante as senhas não mudam
+        listaEsperaService.sair(eventoId, base + 4);
+        assertFila(eventoId, base, 1, 3, 6);
+        assertEquals(4, eventoService.inscreverEmEvento(eventoId, estudante(base + 7)).getPosicaoListaEspera());
+        cancelarInscricaoDe(eventoId, base + 10);
+        assertFila(eventoId, base, 3, 6, 7);
+    }
+
+    private void assertFila(Integer eventoId, int base, int... numeros) {
+        for (int i = 0; i < numeros.length; i++) {
+            assertEquals(i + 1, listaEsperaService.obterPosicao(eventoId, base + numeros[i]).getPosicao(),
+                    "posição do utilizador " + numeros[i]);
+        }
+        assertEquals(numeros.length, listaEsperaService.listarPorEvento(eventoId).size());
+    }
+
+    /**
+     * Evento com uma vaga, já ocupada pelo utilizador base + 10.
+     */
+    private Integer novoEventoLotado(int base) {
+        Local local = new Local();
+        local.setNome("Sala " + base);
+        local.setCapacidade(1);
+        local = localRepository.save(local);
+
+        Utilizador criador = utilizadorRepository.save(novoUtilizador(base, PerfilUtilizador.DOCENTE));
+
+        Evento evento = new Evento();
+        evento.setTitulo("Evento lotado " + base);
+        evento.setDataInicio(LocalDateTime.now().plusDays(7));
+        evento.setDataFim(LocalDateTime.now().plusDays(7).plusHours(2));
+        evento.setMaxParticipantes(1);
+        evento.setEstado(EstadoEvento.PUBLICADO);
+        evento.setCriador(criador);
+        evento.setLocal(local);
+        Integer eventoId = eventoRepository.save(evento).getId();
+
+        assertEquals("INSCRICAO_OK", eventoService.inscreverEmEvento(eventoId, estudante(base + 10)).getResultado());
+        return eventoId;
+    }
+
+    private Integer estudante(int numero) {
+        return utilizadorRepository.save(novoUtilizador(numero, PerfilUtilizador.ESTUDANTE)).getNumero();
+    }
+
+    private void cancelarInscricaoDe(Integer eventoId, int numero) {
+        List<Integer> ids = inscricaoRepository.findByEventoId(eventoId).stream()
+                .filter(i -> i.getUtilizador().getNumero() == numero)
+                .map(i -> i.getId())
+                .toList();
+        assertEquals(1, ids.size());
+        inscricaoService.cancelarInscricao(ids.get(0));
+    }
+}
@@ -0,0 +1,141 @@
+package gestaoeventos.service;
+
+import gestaoeventos.entity.Certificado;
+import gestaoeventos.entity.EstadoEvento;
+import gestaoeventos.entity.EstadoInscricao;
+import gestaoeventos.entity.Evento;
+import gestaoeventos.entity.Inscricao;
+import gestaoeventos.entity.Local;
+import gestaoeventos.entity.PerfilUtilizador;
+import gestaoeventos.entity.TipoCertificado;
+import gestaoeventos.entity.Utilizador;
+import gestaoeventos.repository.CertificadoRepository;
+import gestaoeventos.repository.EventoRepository;
+import gestaoeventos.repository.InscricaoRepository;
+import gestaoeventos.repository.LocalRepository;
+import gestaoeventos.repository.UtilizadorRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static gestaoeventos.service.DadosTeste.novoUtilizador;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Garante que as listagens fazem um número constante de consultas SQL,
+ * independentemente do número de linhas (sem N+1 nas associações).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListagemConsultasTest {
+
+    private static final int EVENTOS = 20;
+    private static final int NUMERO_BASE = 500000;
+
+    @Autowired
+    private EventoService eventoService;
+    @Autowired
+    private InscricaoService inscricaoService;
+    @Autowired
+    private CertificadoService certificadoService;
+    @Autowired
+    private EventoRepository eventoRepository;
+    @Autowired
+    private InscricaoRepository inscricaoRepository;
+    @Autowired
+    private CertificadoRepository certificadoRepository;
+    @Autowired
+    private LocalRepository localRepository;
+    @Autowired
+    private UtilizadorRepository utilizadorRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+    private Utilizador participante;
+    private Evento primeiroEvento;
+
+    @BeforeAll
+    void preparar() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        participante = utilizadorRepository.save(novoUtilizador(NUMERO_BASE, PerfilUtilizador.ESTUDANTE));
+        List<Evento> eventos = new ArrayList<>();
+        for (int i = 1; i <= EVENTOS; i++) {
+            // cada evento com organizador e local próprios, para que um N+1 se note
+            Utilizador organizador = utilizadorRepository.save(novoUtilizador(NUMERO_BASE + i, PerfilUtilizador.DOCENTE));
+            Local local = new Local();
+            local.setNome("Sala " + i);
+            local.setCapacidade(30);
+            local = localRepository.save(local);
+
+            Evento evento = new Evento();
+            evento.setTitulo("Evento " + i);
+            evento.setDataInicio(LocalDateTime.now().plusDays(i));
+            evento.setDataFim(LocalDateTime.now().plusDays(i).plusHours(1));
+            evento.setEstado(EstadoEvento.PUBLICADO);
+            evento.setCriador(organizador);
+            evento.setLocal(local);
+            eventos.add(eventoRepository.save(evento));
+        }
+        primeiroEvento = eventos.get(0);
+
+        for (Evento evento : eventos) {
+            Inscricao inscricao = new Inscricao();
+            inscricao.setEvento(evento);
+            inscricao.setUtilizador(participante);
+            inscricao.setEstado(EstadoInscricao.ATIVA);
+            inscricao.setCheckIn(true);
+            inscricao = inscricaoRepository.save(inscricao);
+
+            Certificado certificado = new Certificado();
+            certificado.setInscricao(inscricao);
+            certificado.setDataEmissao(LocalDateTime.now());
+            certificado.setCodigoVerificacao("LST" + evento.getId() + "X" + NUMERO_BASE);
+            certificado.setTipo(TipoCertificado.PRESENCA);
+            certificadoRepository.save(certificado);
+        }
+    }
+
+    @Test
+    void listagemDeEventosUsaUmaConsulta() {
+        estatisticas.clear();
+        eventoService.listarTodos(null, 200);
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+
+        estatisticas.clear();
+        eventoService.pesquisar(null, null, null, null, null, null, 200);
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void listagemDeInscricoesUsaUmaConsulta() {
+        estatisticas.clear();
+        assertEquals(EVENTOS, inscricaoService.listarPorUtilizador(participante.getNumero()).size());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+
+        estatisticas.clear();
+        inscricaoService.listarPorEvento(primeiroEvento.getId());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void listagemDeCertificadosUsaUmaConsulta() {
+        estatisticas.clear();
+        assertEquals(EVENTOS, certificadoService.listarPorUtilizador(participante.getNumero()).size());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+
+        estatisticas.clear();
+        certificadoService.listarPorEvento(primeiroEvento.getId(), null, 200);
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+}